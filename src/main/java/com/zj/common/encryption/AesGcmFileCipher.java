@@ -0,0 +1,289 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 多线程并行的文件 AES-GCM 加解密，格式与 {@link AesGcmStreams} 相同，两者的结果可以互相解密
+ * <p>
+ * 每个分块在源文件和目标文件中的位置都可以直接算出，各线程按分块序号领取任务，用 FileChannel 的定位读写独立处理，
+ * 每个线程只持有一块的直接内存缓冲区，吞吐量随核数增加，内存占用与文件大小无关。
+ * 结果先写入目标文件旁的临时文件，全部成功后再重命名为目标文件；失败时删除临时文件，解密失败不会留下未经校验的明文。
+ *
+ * @author junzhou
+ * @date 2026/10/19 05:00
+ * @since 1.8
+ */
+@Slf4j
+public class AesGcmFileCipher {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private int chunkSize = AesGcmStreams.DEFAULT_CHUNK_SIZE;
+
+    private int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * @param chunkSize 加密时的分块大小，1KB 到 64MB，默认 1MB；解密时使用文件头中记录的分块大小
+     * @return this
+     */
+    public AesGcmFileCipher chunkSize(int chunkSize) {
+        if (!AesGcmFormat.isValidChunkSize(chunkSize)) {
+            throw new IllegalArgumentException("分块大小必须在 1KB 到 64MB 之间");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param parallelism 线程数，默认为 CPU 核数
+     * @return this
+     */
+    public AesGcmFileCipher parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param source 明文文件
+     * @param target 密文文件，已经存在时覆盖
+     * @param key    AES 密钥
+     * @return 明文字节数
+     * @throws IOException 读写文件失败
+     */
+    public long encrypt(Path source, Path target, SecretKey key) throws IOException {
+        final long start = System.currentTimeMillis();
+        final AesGcmFormat format = AesGcmFormat.create(chunkSize);
+        final Path temp = tempFileOf(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final long plainSize = in.size();
+            final long chunkCount = plainSize / chunkSize + 1;
+            if (chunkCount > AesGcmFormat.MAX_CHUNKS) {
+                throw new IOException("文件过大, 请增大分块大小: " + source);
+            }
+            writeFully(out, format.header(), 0);
+            run("aes-gcm-encrypt", chunkCount, () -> {
+                final ByteBuffer plain = ByteBuffer.allocateDirect(chunkSize);
+                final ByteBuffer sealed = ByteBuffer.allocateDirect(chunkSize + AesGcmFormat.TAG_SIZE);
+                final Cipher cipher = CryptoPools.aesGcmCipher();
+                return index -> {
+                    final long offset = index * chunkSize;
+                    final int length = (int) Math.min(chunkSize, plainSize - offset);
+                    ((Buffer) plain).clear();
+                    ((Buffer) plain).limit(length);
+                    readFully(in, plain, offset);
+                    if (plain.hasRemaining()) {
+                        throw truncated("encrypt", source, offset + plain.position());
+                    }
+                    ((Buffer) plain).flip();
+                    ((Buffer) sealed).clear();
+                    AesGcmStreams.seal(format, cipher, key, index, index == chunkCount - 1, plain, sealed);
+                    ((Buffer) sealed).flip();
+                    writeFully(out, sealed, AesGcmFormat.HEADER_SIZE + index * (chunkSize + AesGcmFormat.TAG_SIZE));
+                };
+            });
+            out.force(true);
+            moveIntoPlace(temp, target);
+            log.info("AesGcmFileCipher######encrypt 加密完成 source={} size={} chunks={} elapsed={}ms", source,
+                    plainSize, chunkCount, System.currentTimeMillis() - start);
+            return plainSize;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @param source 密文文件
+     * @param target 明文文件，已经存在时覆盖，解密失败时不会修改
+     * @param key    AES 密钥
+     * @return 明文字节数
+     * @throws IOException 读写文件失败
+     * @throws BusinessException 密文被篡改、截断或密钥错误
+     */
+    public long decrypt(Path source, Path target, SecretKey key) throws IOException {
+        final long start = System.currentTimeMillis();
+        final Path temp = tempFileOf(target);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final ByteBuffer header = ByteBuffer.allocate(AesGcmFormat.HEADER_SIZE);
+            readFully(in, header, 0);
+            if (header.hasRemaining()) {
+                throw AesGcmStreams.truncated("decrypt");
+            }
+            ((Buffer) header).flip();
+            final AesGcmFormat format = AesGcmFormat.parse(header);
+            final int plainChunkSize = format.chunkSize();
+            final int sealedSize = plainChunkSize + AesGcmFormat.TAG_SIZE;
+            final long bodySize = in.size() - AesGcmFormat.HEADER_SIZE;
+            final long chunkCount = bodySize / sealedSize + 1;
+            final int lastSealedSize = (int) (bodySize % sealedSize);
+            if (lastSealedSize < AesGcmFormat.TAG_SIZE) {
+                throw AesGcmStreams.truncated("decrypt");
+            }
+            final long plainSize = bodySize - chunkCount * AesGcmFormat.TAG_SIZE;
+            run("aes-gcm-decrypt", chunkCount, () -> {
+                final ByteBuffer sealed = ByteBuffer.allocateDirect(sealedSize);
+                final ByteBuffer plain = ByteBuffer.allocateDirect(plainChunkSize);
+                final Cipher cipher = CryptoPools.aesGcmCipher();
+                return index -> {
+                    final boolean last = index == chunkCount - 1;
+                    ((Buffer) sealed).clear();
+                    ((Buffer) sealed).limit(last ? lastSealedSize : sealedSize);
+                    final long position = AesGcmFormat.HEADER_SIZE + index * sealedSize;
+                    readFully(in, sealed, position);
+                    if (sealed.hasRemaining()) {
+                        throw truncated("decrypt", source, position + sealed.position());
+                    }
+                    ((Buffer) sealed).flip();
+                    ((Buffer) plain).clear();
+                    AesGcmStreams.open(format, cipher, key, index, last, sealed, plain);
+                    ((Buffer) plain).flip();
+                    writeFully(out, plain, index * plainChunkSize);
+                };
+            });
+            out.force(true);
+            moveIntoPlace(temp, target);
+            log.info("AesGcmFileCipher######decrypt 解密完成 source={} size={} chunks={} elapsed={}ms", source,
+                    plainSize, chunkCount, System.currentTimeMillis() - start);
+            return plainSize;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 启动 min(parallelism, chunkCount) 个线程，各自创建一个分块处理器，依次领取分块序号直到处理完或有线程失败
+     */
+    private void run(String threadPrefix, long chunkCount, Callable<ChunkTask> workerFactory) throws IOException {
+        final int workers = (int) Math.min(parallelism, chunkCount);
+        final AtomicLong nextIndex = new AtomicLong();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final AtomicInteger threadIndex = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            final Thread thread = new Thread(runnable, threadPrefix + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Void>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        final ChunkTask task = workerFactory.call();
+                        long index;
+                        while (!failed.get() && (index = nextIndex.getAndIncrement()) < chunkCount) {
+                            task.process(index);
+                        }
+                        return null;
+                    } catch (Exception | Error e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                await(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(Future<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待加解密任务时被中断");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 源文件在处理期间被其他进程截断，此时不能把不完整的结果重命名为目标文件
+     */
+    private static IOException truncated(String method, Path source, long position) {
+        log.error("AesGcmFileCipher######{} 源文件在处理期间被截断! source={}, position={}", method, source, position);
+        return new IOException("源文件在处理期间被截断: " + source);
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            final int read = in.read(buffer, offset);
+            if (read < 0) {
+                // 读到文件末尾，由调用方检查 buffer 是否读满
+                return;
+            }
+            offset += read;
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += out.write(buffer, offset);
+        }
+    }
+
+    private static Path tempFileOf(Path target) {
+        final String name = "." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX;
+        return target.toAbsolutePath().resolveSibling(name);
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("AesGcmFileCipher######moveIntoPlace 文件系统不支持原子重命名 target={}", target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 处理一个分块，每个线程一个实例，可以复用缓冲区
+     */
+    private interface ChunkTask {
+
+        void process(long index) throws IOException;
+    }
+}
@@ -0,0 +1,172 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * 分块 AES-GCM 密文的格式，{@link AesGcmStreams} 和 {@link AesGcmFileCipher} 共用
+ * <p>
+ * 文件头 17 字节：魔数 {@code ZJGC}、版本号 1、分块大小（int）、8 字节随机 nonce 前缀。之后依次为各个分块的密文加 16 字节的 tag，
+ * 除最后一块外每块明文都是分块大小，最后一块小于分块大小（明文长度恰好是分块大小的整数倍时补一个空的最后一块），
+ * 因此每块在密文中的位置都可以直接算出，各块可以独立并行加解密。
+ * <p>
+ * 第 i 块的 nonce 为 nonce 前缀加 4 字节的 i，附加数据（AAD）为文件头、8 字节的 i 和是否最后一块的标记，
+ * 分块被调换顺序、删除、截断或者拼接其他文件的分块都无法通过校验。
+ *
+ * @author junzhou
+ * @date 2026/10/19 04:20
+ * @since 1.8
+ */
+@Slf4j
+final class AesGcmFormat {
+
+    static final int HEADER_SIZE = 17;
+
+    static final int TAG_SIZE = 16;
+
+    static final int MIN_CHUNK_SIZE = 1024;
+
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * nonce 中分块序号占 4 字节
+     */
+    static final long MAX_CHUNKS = 1L << 32;
+
+    private static final byte[] MAGIC = {'Z', 'J', 'G', 'C'};
+
+    private static final byte VERSION = 1;
+
+    private static final int NONCE_PREFIX_OFFSET = 9;
+
+    private static final int NONCE_SIZE = 12;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] header;
+
+    private final int chunkSize;
+
+    private AesGcmFormat(byte[] header, int chunkSize) {
+        this.header = header;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param chunkSize 分块大小，调用方已经校验过范围
+     * @return 使用新的随机 nonce 前缀的格式
+     */
+    static AesGcmFormat create(int chunkSize) {
+        final byte[] header = new byte[HEADER_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(header);
+        buffer.put(MAGIC).put(VERSION).putInt(chunkSize);
+        final byte[] noncePrefix = new byte[NONCE_SIZE - 4];
+        RANDOM.nextBytes(noncePrefix);
+        buffer.put(noncePrefix);
+        return new AesGcmFormat(header, chunkSize);
+    }
+
+    /**
+     * @param header 文件头，读取 {@link #HEADER_SIZE} 字节
+     * @return 文件头描述的格式
+     * @throws BusinessException 不是本格式的密文时
+     */
+    static AesGcmFormat parse(ByteBuffer header) {
+        final byte[] bytes = new byte[HEADER_SIZE];
+        header.get(bytes);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        final byte version = buffer.get();
+        final int chunkSize = buffer.getInt();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION
+                || chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            log.error("AesGcmFormat######parse 密文文件头不正确! version={}, chunkSize={}", version, chunkSize);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR);
+        }
+        return new AesGcmFormat(bytes, chunkSize);
+    }
+
+    /**
+     * @param chunkSize 分块大小
+     * @return 是否在允许的范围内
+     */
+    static boolean isValidChunkSize(int chunkSize) {
+        return chunkSize >= MIN_CHUNK_SIZE && chunkSize <= MAX_CHUNK_SIZE;
+    }
+
+    /**
+     * @param plainSize 明文长度
+     * @param chunkSize 分块大小
+     * @return 密文长度，包括文件头
+     */
+    static long encryptedSize(long plainSize, int chunkSize) {
+        return HEADER_SIZE + plainSize + TAG_SIZE * (plainSize / chunkSize + 1);
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return 文件头的只读视图
+     */
+    ByteBuffer header() {
+        return ByteBuffer.wrap(header).asReadOnlyBuffer();
+    }
+
+    /**
+     * 加密一块，plain 的剩余部分加密后写入 out
+     */
+    void seal(Cipher cipher, SecretKey key, long index, boolean last, ByteBuffer plain, ByteBuffer out)
+            throws GeneralSecurityException {
+        init(cipher, Cipher.ENCRYPT_MODE, key, index, last);
+        doFinal(cipher, plain, out);
+    }
+
+    /**
+     * 解密并校验一块，sealed 的剩余部分（密文加 tag）解密后写入 out，校验失败时抛出异常，out 中的内容不可使用
+     */
+    void open(Cipher cipher, SecretKey key, long index, boolean last, ByteBuffer sealed, ByteBuffer out)
+            throws GeneralSecurityException {
+        init(cipher, Cipher.DECRYPT_MODE, key, index, last);
+        doFinal(cipher, sealed, out);
+    }
+
+    /**
+     * 堆内缓冲区直接使用底层数组，JDK 的 GCM 实现处理堆内 ByteBuffer 时明显慢于数组和直接内存缓冲区
+     */
+    private static void doFinal(Cipher cipher, ByteBuffer in, ByteBuffer out) throws GeneralSecurityException {
+        if (in.hasArray() && out.hasArray()) {
+            final int written = cipher.doFinal(in.array(), in.arrayOffset() + in.position(), in.remaining(),
+                    out.array(), out.arrayOffset() + out.position());
+            ((Buffer) in).position(in.limit());
+            ((Buffer) out).position(out.position() + written);
+        } else {
+            cipher.doFinal(in, out);
+        }
+    }
+
+    private void init(Cipher cipher, int mode, SecretKey key, long index, boolean last) throws GeneralSecurityException {
+        if (index >= MAX_CHUNKS) {
+            throw new GeneralSecurityException("分块数超过上限 " + MAX_CHUNKS);
+        }
+        final byte[] nonce = new byte[NONCE_SIZE];
+        System.arraycopy(header, NONCE_PREFIX_OFFSET, nonce, 0, NONCE_SIZE - 4);
+        ByteBuffer.wrap(nonce, NONCE_SIZE - 4, 4).putInt((int) index);
+        cipher.init(mode, key, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+        final byte[] aad = new byte[HEADER_SIZE + 9];
+        ByteBuffer.wrap(aad).put(header).putLong(index).put((byte) (last ? 1 : 0));
+        cipher.updateAAD(aad);
+    }
+}
@@ -0,0 +1,273 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+
+/**
+ * 分块的 AES-GCM 流式加解密，内存占用只与分块大小有关，与数据量无关
+ * <p>
+ * 明文按分块大小（默认 1MB）切分，每块单独加密并带有认证 tag，格式见 {@link AesGcmFormat}，
+ * 同一格式的文件可以用 {@link AesGcmFileCipher} 多线程并行加解密。解密时每块校验通过后才写出该块的明文，
+ * 密文被篡改、截断或密钥错误时抛出 {@link BusinessException}，此前已经写出的明文应当丢弃。
+ * <p>
+ * 只支持阻塞模式的通道。流和通道接口每次调用分配两个分块大小的堆内缓冲区，加解密走 Cipher 的数组接口，
+ * 高频调用（例如 {@link RsaKeyManager} 逐条加密消息）时不会堆积直接内存。
+ * 输入输出都不会被关闭。
+ *
+ * @author junzhou
+ * @date 2026/10/19 04:40
+ * @since 1.8
+ */
+@Slf4j
+public final class AesGcmStreams {
+
+    /**
+     * 默认分块大小，1MB
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private AesGcmStreams() {
+    }
+
+    /**
+     * @param plainSize 明文长度
+     * @param chunkSize 分块大小
+     * @return 密文长度
+     */
+    public static long encryptedSize(long plainSize, int chunkSize) {
+        return AesGcmFormat.encryptedSize(plainSize, chunkSize);
+    }
+
+    public static long encrypt(InputStream in, OutputStream out, SecretKey key) throws IOException {
+        return encrypt(in, out, key, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in        明文输入
+     * @param out       密文输出
+     * @param key       AES 密钥
+     * @param chunkSize 分块大小，1KB 到 64MB
+     * @return 明文字节数
+     */
+    public static long encrypt(InputStream in, OutputStream out, SecretKey key, int chunkSize) throws IOException {
+        return encrypt(Channels.newChannel(in), Channels.newChannel(out), key, chunkSize);
+    }
+
+    /**
+     * @param in  密文输入
+     * @param out 明文输出
+     * @param key AES 密钥
+     * @return 明文字节数
+     */
+    public static long decrypt(InputStream in, OutputStream out, SecretKey key) throws IOException {
+        return decrypt(Channels.newChannel(in), Channels.newChannel(out), key);
+    }
+
+    public static long encrypt(ReadableByteChannel in, WritableByteChannel out, SecretKey key) throws IOException {
+        return encrypt(in, out, key, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param in        明文输入，例如 FileChannel
+     * @param out       密文输出
+     * @param key       AES 密钥
+     * @param chunkSize 分块大小，1KB 到 64MB
+     * @return 明文字节数
+     */
+    public static long encrypt(ReadableByteChannel in, WritableByteChannel out, SecretKey key, int chunkSize)
+            throws IOException {
+        checkChunkSize(chunkSize);
+        final AesGcmFormat format = AesGcmFormat.create(chunkSize);
+        writeFully(out, format.header());
+        final ByteBuffer plain = ByteBuffer.allocate(chunkSize);
+        final ByteBuffer sealed = ByteBuffer.allocate(chunkSize + AesGcmFormat.TAG_SIZE);
+        final Cipher cipher = CryptoPools.aesGcmCipher();
+        long total = 0;
+        long index = 0;
+        boolean last;
+        do {
+            ((Buffer) plain).clear();
+            final int length = readFully(in, plain);
+            last = length < chunkSize;
+            ((Buffer) plain).flip();
+            ((Buffer) sealed).clear();
+            seal(format, cipher, key, index++, last, plain, sealed);
+            ((Buffer) sealed).flip();
+            writeFully(out, sealed);
+            total += length;
+        } while (!last);
+        return total;
+    }
+
+    /**
+     * @param in  密文输入，例如 FileChannel
+     * @param out 明文输出
+     * @param key AES 密钥
+     * @return 明文字节数
+     */
+    public static long decrypt(ReadableByteChannel in, WritableByteChannel out, SecretKey key) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(AesGcmFormat.HEADER_SIZE);
+        if (readFully(in, header) < AesGcmFormat.HEADER_SIZE) {
+            throw truncated("decrypt");
+        }
+        ((Buffer) header).flip();
+        final AesGcmFormat format = AesGcmFormat.parse(header);
+        final int sealedSize = format.chunkSize() + AesGcmFormat.TAG_SIZE;
+        final ByteBuffer sealed = ByteBuffer.allocate(sealedSize);
+        final ByteBuffer plain = ByteBuffer.allocate(format.chunkSize());
+        final Cipher cipher = CryptoPools.aesGcmCipher();
+        long total = 0;
+        long index = 0;
+        boolean last;
+        do {
+            ((Buffer) sealed).clear();
+            final int length = readFully(in, sealed);
+            last = length < sealedSize;
+            if (last && length < AesGcmFormat.TAG_SIZE) {
+                throw truncated("decrypt");
+            }
+            ((Buffer) sealed).flip();
+            ((Buffer) plain).clear();
+            open(format, cipher, key, index++, last, sealed, plain);
+            ((Buffer) plain).flip();
+            total += plain.remaining();
+            writeFully(out, plain);
+        } while (!last);
+        return total;
+    }
+
+    public static void encrypt(ByteBuffer src, ByteBuffer dst, SecretKey key) {
+        encrypt(src, dst, key, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * 加密 src 的剩余部分写入 dst，支持直接内存缓冲区，不做额外复制
+     *
+     * @param src       明文，position 移动到 limit
+     * @param dst       密文，剩余空间不小于 {@link #encryptedSize(long, int)}
+     * @param key       AES 密钥
+     * @param chunkSize 分块大小，1KB 到 64MB
+     */
+    public static void encrypt(ByteBuffer src, ByteBuffer dst, SecretKey key, int chunkSize) {
+        checkChunkSize(chunkSize);
+        if (dst.remaining() < encryptedSize(src.remaining(), chunkSize)) {
+            log.error("AesGcmStreams######encrypt 输出缓冲区空间不足! required={}, remaining={}",
+                    encryptedSize(src.remaining(), chunkSize), dst.remaining());
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        final AesGcmFormat format = AesGcmFormat.create(chunkSize);
+        dst.put(format.header());
+        final Cipher cipher = CryptoPools.aesGcmCipher();
+        long index = 0;
+        boolean last;
+        do {
+            final int length = Math.min(chunkSize, src.remaining());
+            last = length < chunkSize;
+            final ByteBuffer chunk = src.duplicate();
+            ((Buffer) chunk).limit(chunk.position() + length);
+            seal(format, cipher, key, index++, last, chunk, dst);
+            ((Buffer) src).position(src.position() + length);
+        } while (!last);
+    }
+
+    /**
+     * 解密 src 的剩余部分写入 dst，支持直接内存缓冲区，失败时 dst 中的内容不可使用
+     *
+     * @param src 密文，position 移动到 limit
+     * @param dst 明文，剩余空间不小于密文长度减去 17 字节的文件头
+     * @param key AES 密钥
+     */
+    public static void decrypt(ByteBuffer src, ByteBuffer dst, SecretKey key) {
+        if (src.remaining() < AesGcmFormat.HEADER_SIZE) {
+            throw truncated("decrypt");
+        }
+        final AesGcmFormat format = AesGcmFormat.parse(src);
+        final int sealedSize = format.chunkSize() + AesGcmFormat.TAG_SIZE;
+        final Cipher cipher = CryptoPools.aesGcmCipher();
+        long index = 0;
+        boolean last;
+        do {
+            final int length = Math.min(sealedSize, src.remaining());
+            last = length < sealedSize;
+            if (last && length < AesGcmFormat.TAG_SIZE) {
+                throw truncated("decrypt");
+            }
+            if (dst.remaining() < length - AesGcmFormat.TAG_SIZE) {
+                log.error("AesGcmStreams######decrypt 输出缓冲区空间不足! remaining={}", dst.remaining());
+                throw new BusinessException(ResultCode.PARAMETER_ERROR);
+            }
+            final ByteBuffer chunk = src.duplicate();
+            ((Buffer) chunk).limit(chunk.position() + length);
+            open(format, cipher, key, index++, last, chunk, dst);
+            ((Buffer) src).position(src.position() + length);
+        } while (!last);
+    }
+
+    static void checkChunkSize(int chunkSize) {
+        if (!AesGcmFormat.isValidChunkSize(chunkSize)) {
+            log.error("AesGcmStreams######checkChunkSize 分块大小必须在 {} 到 {} 之间! chunkSize={}",
+                    AesGcmFormat.MIN_CHUNK_SIZE, AesGcmFormat.MAX_CHUNK_SIZE, chunkSize);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+    }
+
+    static void seal(AesGcmFormat format, Cipher cipher, SecretKey key, long index, boolean last,
+                     ByteBuffer plain, ByteBuffer out) {
+        try {
+            format.seal(cipher, key, index, last, plain, out);
+        } catch (GeneralSecurityException e) {
+            log.error("AesGcmStreams######seal 加密分块失败! index={}", index, e);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_AES_GCM_ENCRYPT_ERROR);
+        }
+    }
+
+    static void open(AesGcmFormat format, Cipher cipher, SecretKey key, long index, boolean last,
+                     ByteBuffer sealed, ByteBuffer out) {
+        try {
+            format.open(cipher, key, index, last, sealed, out);
+        } catch (GeneralSecurityException e) {
+            log.error("AesGcmStreams######open 分块校验失败, 密文被篡改或密钥错误! index={}, last={}, error={}",
+                    index, last, e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR);
+        }
+    }
+
+    static BusinessException truncated(String method) {
+        log.error("AesGcmStreams######{} 密文不完整, 缺少最后一块!", method);
+        return new BusinessException(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR);
+    }
+
+    /**
+     * @return 读取的字节数，小于 buffer 剩余空间说明已经读到末尾
+     */
+    private static int readFully(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            final int read = in.read(buffer);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 有界的 AES 密钥缓存，按密码或密钥 id 缓存 {@link SecretKeySpec}，避免每次加解密都重新派生密钥
+ * <p>
+ * 缓存的键是密码（或密钥 id）的 128 位指纹：用进程启动时随机生成的密钥对 UTF-16 字符做 SipHash-2-4-128，
+ * 不保存明文，也无法在不知道进程密钥的情况下构造碰撞，计算指纹比派生密钥便宜。
+ * 条目在写入 ttl 之后过期，数量超过上限时先清理过期条目，再淘汰最久未使用的条目。
+ *
+ * @author junzhou
+ * @date 2026/10/19 03:40
+ * @since 1.8
+ */
+@Slf4j
+public final class AesKeyCache {
+
+    /**
+     * 默认最多缓存的密钥数
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    /**
+     * 默认的过期时间，30 分钟
+     */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final long PASSWORD_DOMAIN = 0x70617373776f7264L;
+
+    private static final long KEY_ID_DOMAIN = 0x6b65792d69642d2dL;
+
+    private final int maximumSize;
+
+    private final long ttlMillis;
+
+    private final long seed0;
+
+    private final long seed1;
+
+    private final ConcurrentMap<Fingerprint, Entry> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param maximumSize 最多缓存的密钥数
+     * @param ttl         写入后的过期时间，小于等于 0 时不过期
+     * @param unit        时间单位
+     */
+    public AesKeyCache(int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            log.error("AesKeyCache######AesKeyCache maximumSize 必须大于 0! maximumSize={}", maximumSize);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        this.maximumSize = maximumSize;
+        this.ttlMillis = ttl <= 0 ? Long.MAX_VALUE : unit.toMillis(ttl);
+        final SecureRandom random = new SecureRandom();
+        this.seed0 = random.nextLong();
+        this.seed1 = random.nextLong();
+    }
+
+    public AesKeyCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_TTL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param password 密码
+     * @return 由密码的 SHA-256 派生的 256 位 AES 密钥
+     */
+    public SecretKeySpec get(String password) {
+        return get(fingerprint(PASSWORD_DOMAIN, password), () -> deriveFromPassword(password));
+    }
+
+    /**
+     * 按密钥 id 获取密钥，未命中或已过期时调用 keyLoader 加载，适合从配置中心或 KMS 取得的密钥
+     *
+     * @param keyId     密钥 id
+     * @param keyLoader 加载原始密钥，长度为 16、24 或 32 字节
+     * @return AES 密钥
+     */
+    public SecretKeySpec get(String keyId, Supplier<byte[]> keyLoader) {
+        return get(fingerprint(KEY_ID_DOMAIN, keyId), () -> {
+            final byte[] keyBytes = keyLoader.get();
+            if (keyBytes == null || (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32)) {
+                log.error("AesKeyCache######get AES 密钥长度必须为 16、24 或 32 字节! keyId={}, length={}",
+                        keyId, keyBytes == null ? null : keyBytes.length);
+                throw new BusinessException(ResultCode.PARAMETER_ERROR);
+            }
+            return new SecretKeySpec(keyBytes, "AES");
+        });
+    }
+
+    /**
+     * 移除密钥 id 对应的密钥，密钥轮换后调用
+     *
+     * @param keyId 密钥 id
+     */
+    public void invalidate(String keyId) {
+        entries.remove(fingerprint(KEY_ID_DOMAIN, keyId));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return 当前的命中统计
+     */
+    public Stats getStats() {
+        final Stats stats = new Stats();
+        stats.setHitCount(hitCount.sum());
+        stats.setMissCount(missCount.sum());
+        stats.setEvictionCount(evictionCount.sum());
+        stats.setSize(entries.size());
+        return stats;
+    }
+
+    private SecretKeySpec get(Fingerprint fingerprint, Supplier<SecretKeySpec> loader) {
+        final long now = System.currentTimeMillis();
+        final Entry entry = entries.get(fingerprint);
+        if (entry != null && now - entry.createTime < ttlMillis) {
+            // 同一毫秒内不重复写，减少多核并发命中同一个密钥时的缓存行竞争
+            if (entry.accessTime != now) {
+                entry.accessTime = now;
+            }
+            hitCount.increment();
+            return entry.key;
+        }
+        missCount.increment();
+        final SecretKeySpec key = loader.get();
+        entries.put(fingerprint, new Entry(key, now));
+        if (entries.size() > maximumSize) {
+            evict(now);
+        }
+        return key;
+    }
+
+    private void evict(long now) {
+        // 只需要一个线程清理，其余线程直接返回，短时间内略微超过上限不影响正确性
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            entries.entrySet().removeIf(entry -> {
+                final boolean expired = now - entry.getValue().createTime >= ttlMillis;
+                if (expired) {
+                    evictionCount.increment();
+                }
+                return expired;
+            });
+            int excess = entries.size() - maximumSize;
+            if (excess <= 0) {
+                return;
+            }
+            final List<Map.Entry<Fingerprint, Entry>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().accessTime));
+            for (int i = 0; i < candidates.size() && excess > 0; i++) {
+                if (entries.remove(candidates.get(i).getKey(), candidates.get(i).getValue())) {
+                    evictionCount.increment();
+                    excess--;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static SecretKeySpec deriveFromPassword(String password) {
+        final byte[] keyBytes = CryptoPools.sha256Digest().digest(password.getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+
+    private Fingerprint fingerprint(long domain, String text) {
+        return sipHash128(seed0 ^ domain, seed1, text);
+    }
+
+    /**
+     * SipHash-2-4-128，输入为 text 的 UTF-16LE 字节
+     */
+    static Fingerprint sipHash128(long k0, long k1, CharSequence text) {
+        final SipState state = new SipState(k0, k1);
+        final int length = text.length();
+        final int end = length - (length & 3);
+        for (int i = 0; i < end; i += 4) {
+            state.compress(text.charAt(i)
+                    | (long) text.charAt(i + 1) << 16
+                    | (long) text.charAt(i + 2) << 32
+                    | (long) text.charAt(i + 3) << 48);
+        }
+        long last = ((long) length << 1) << 56;
+        for (int i = end, shift = 0; i < length; i++, shift += 16) {
+            last |= (long) text.charAt(i) << shift;
+        }
+        state.compress(last);
+        return state.finish();
+    }
+
+    /**
+     * 缓存命中统计
+     */
+    @Data
+    public static class Stats {
+
+        private long hitCount;
+
+        private long missCount;
+
+        private long evictionCount;
+
+        private int size;
+
+        /**
+         * @return 命中率，没有请求时为 1
+         */
+        public double hitRate() {
+            final long requests = hitCount + missCount;
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    static final class Fingerprint {
+
+        private final long high;
+
+        private final long low;
+
+        private Fingerprint(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            final Fingerprint that = (Fingerprint) o;
+            return high == that.high && low == that.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (high ^ (high >>> 32));
+        }
+    }
+
+    private static final class SipState {
+
+        private long v0;
+
+        private long v1;
+
+        private long v2;
+
+        private long v3;
+
+        private SipState(long k0, long k1) {
+            v0 = 0x736f6d6570736575L ^ k0;
+            v1 = 0x646f72616e646f6dL ^ k1 ^ 0xee;
+            v2 = 0x6c7967656e657261L ^ k0;
+            v3 = 0x7465646279746573L ^ k1;
+        }
+
+        private void compress(long m) {
+            v3 ^= m;
+            round();
+            round();
+            v0 ^= m;
+        }
+
+        private Fingerprint finish() {
+            v2 ^= 0xee;
+            finalRounds();
+            final long high = v0 ^ v1 ^ v2 ^ v3;
+            v1 ^= 0xdd;
+            finalRounds();
+            return new Fingerprint(high, v0 ^ v1 ^ v2 ^ v3);
+        }
+
+        private void finalRounds() {
+            round();
+            round();
+            round();
+            round();
+        }
+
+        private void round() {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13) ^ v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16) ^ v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21) ^ v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17) ^ v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+    }
+
+    private static final class Entry {
+
+        private final SecretKeySpec key;
+
+        private final long createTime;
+
+        /**
+         * 只用于近似的 LRU 淘汰，不需要 volatile
+         */
+        private long accessTime;
+
+        private Entry(SecretKeySpec key, long createTime) {
+            this.key = key;
+            this.createTime = createTime;
+            this.accessTime = createTime;
+        }
+    }
+}
@@ -6,9 +6,14 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.*;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.*;
 import java.util.Base64;
+import java.util.function.Supplier;
 
 import static com.zj.common.exception.ResultCode.ENCRYPTION_UTIL_SHA256_NOT_SUPPORT_EXCEPTION;
 
@@ -18,6 +23,14 @@ import static com.zj.common.exception.ResultCode.ENCRYPTION_UTIL_SHA256_NOT_SUPP
 @Slf4j
 public class EncryptionUtil {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String TEMPORARY_RSA_KEY_ID = "temporary";
+
+    private static volatile AesKeyCache aesKeyCache = new AesKeyCache();
+
+    private static volatile RsaKeyManager rsaKeyManager;
+
     /**
      * 对称加密算法 AES 加密
      *
@@ -26,16 +39,7 @@ public class EncryptionUtil {
      * @return 加密后的密文
      */
     public static String encryptWithAES(String plaintext, String password) {
-        final Cipher cipher = getAESCipher();
-        final SecretKey secretKey = generateAESKey(password);
-        byte[] encryptedBytes = new byte[0];
-        try {
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            encryptedBytes = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            log.error("EncryptionUtil######encryptWithAES 加密异常！", e);
-        }
-        return Base64.getEncoder().encodeToString(encryptedBytes);
+        return encryptWithAES(plaintext, generateAESKey(password));
     }
 
     /**
@@ -46,8 +50,119 @@ public class EncryptionUtil {
      * @return 解密后的明文
      */
     public static String decryptWithAES(String ciphertext, String password) {
-        Cipher cipher = getAESCipher();
-        SecretKey secretKey = generateAESKey(password);
+        return decryptWithAES(ciphertext, generateAESKey(password));
+    }
+
+    /**
+     * 使用密钥 id 对应的密钥做 AES 加密，密钥由 keyLoader 加载后缓存，见 {@link AesKeyCache#get(String, Supplier)}
+     *
+     * @param plaintext 明文
+     * @param keyId     密钥 id
+     * @param keyLoader 加载 16、24 或 32 字节的原始密钥
+     * @return 加密后的密文
+     */
+    public static String encryptWithAESKey(String plaintext, String keyId, Supplier<byte[]> keyLoader) {
+        return encryptWithAES(plaintext, aesKeyCache.get(keyId, keyLoader));
+    }
+
+    /**
+     * 使用密钥 id 对应的密钥做 AES 解密
+     *
+     * @param ciphertext 密文
+     * @param keyId      密钥 id
+     * @param keyLoader  加载 16、24 或 32 字节的原始密钥
+     * @return 解密后的明文
+     */
+    public static String decryptWithAESKey(String ciphertext, String keyId, Supplier<byte[]> keyLoader) {
+        return decryptWithAES(ciphertext, aesKeyCache.get(keyId, keyLoader));
+    }
+
+    /**
+     * 使用 AES-GCM 分块流式加密，带完整性校验，内存占用与数据量无关，见 {@link AesGcmStreams}
+     * <p>
+     * 只接受随机生成或从 KMS 取得的密钥，不提供由密码直接派生密钥的重载；已知密钥 id 时可以用
+     * {@link #getAESKeyCache()} 的 {@link AesKeyCache#get(String, Supplier)} 缓存密钥。
+     *
+     * @param in  明文输入，不会被关闭
+     * @param out 密文输出，不会被关闭
+     * @param key AES 密钥
+     * @return 明文字节数
+     */
+    public static long encryptWithAESGCM(InputStream in, OutputStream out, SecretKey key) throws IOException {
+        ValidateUtil.requireNonNull(key, ResultCode.PARAMETER_ERROR);
+        return AesGcmStreams.encrypt(in, out, key);
+    }
+
+    /**
+     * 解密 {@link #encryptWithAESGCM(InputStream, OutputStream, SecretKey)} 的结果，密文被篡改或密钥错误时抛出 BusinessException
+     *
+     * @param in  密文输入，不会被关闭
+     * @param out 明文输出，不会被关闭，失败时已经写出的内容应当丢弃
+     * @param key AES 密钥
+     * @return 明文字节数
+     */
+    public static long decryptWithAESGCM(InputStream in, OutputStream out, SecretKey key) throws IOException {
+        ValidateUtil.requireNonNull(key, ResultCode.PARAMETER_ERROR);
+        return AesGcmStreams.decrypt(in, out, key);
+    }
+
+    /**
+     * 使用 AES-GCM 多线程并行加密文件，见 {@link AesGcmFileCipher}
+     *
+     * @param source 明文文件
+     * @param target 密文文件
+     * @param key    AES 密钥
+     * @return 明文字节数
+     */
+    public static long encryptFileWithAESGCM(Path source, Path target, SecretKey key) throws IOException {
+        ValidateUtil.requireNonNull(key, ResultCode.PARAMETER_ERROR);
+        return new AesGcmFileCipher().encrypt(source, target, key);
+    }
+
+    /**
+     * 多线程并行解密文件，失败时不会生成目标文件
+     *
+     * @param source 密文文件
+     * @param target 明文文件
+     * @param key    AES 密钥
+     * @return 明文字节数
+     */
+    public static long decryptFileWithAESGCM(Path source, Path target, SecretKey key) throws IOException {
+        ValidateUtil.requireNonNull(key, ResultCode.PARAMETER_ERROR);
+        return new AesGcmFileCipher().decrypt(source, target, key);
+    }
+
+    /**
+     * @return AES 加解密使用的密钥缓存，可以查看命中统计或在密钥轮换后使缓存失效
+     */
+    public static AesKeyCache getAESKeyCache() {
+        return aesKeyCache;
+    }
+
+    /**
+     * 替换 AES 加解密使用的密钥缓存，用于调整容量和过期时间，应在启动阶段调用
+     *
+     * @param cache 密钥缓存
+     */
+    public static void setAESKeyCache(AesKeyCache cache) {
+        ValidateUtil.requireNonNull(cache, ResultCode.PARAMETER_ERROR);
+        aesKeyCache = cache;
+    }
+
+    private static String encryptWithAES(String plaintext, SecretKey secretKey) {
+        final Cipher cipher = CryptoPools.aesCipher();
+        byte[] encryptedBytes = new byte[0];
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            encryptedBytes = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.error("EncryptionUtil######encryptWithAES 加密异常！", e);
+        }
+        return Base64.getEncoder().encodeToString(encryptedBytes);
+    }
+
+    private static String decryptWithAES(String ciphertext, SecretKey secretKey) {
+        final Cipher cipher = CryptoPools.aesCipher();
         byte[] decryptedBytes = new byte[0];
         try {
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
@@ -59,18 +174,15 @@ public class EncryptionUtil {
     }
 
     /**
-     * 非对称加密算法RSA加密
+     * 非对称加密算法RSA加密，使用 {@link #getRSAKeyManager()} 当前激活的公钥做 RSA + AES-GCM 混合加密，明文长度不受限制
      *
      * @param plaintext 明文
      * @return 加密后的密文
      */
     public static String encryptWithRSA(String plaintext) {
-        Cipher cipher = getRSACipher();
-        KeyPair keyPair = generateRSAKeyPair();
         byte[] encryptedBytes = new byte[0];
         try {
-            cipher.init(Cipher.ENCRYPT_MODE, keyPair.getPrivate());
-            encryptedBytes = cipher.doFinal(plaintext.getBytes(StandardCharsets.UTF_8));
+            encryptedBytes = getRSAKeyManager().encrypt(plaintext.getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) {
             log.error("EncryptionUtil######encryptWithRSA 加密异常！", e);
         }
@@ -78,24 +190,52 @@ public class EncryptionUtil {
     }
 
     /**
-     * 非对称加密算法RSA解密
+     * 非对称加密算法RSA解密，按密文中的密钥 id 选择 {@link #getRSAKeyManager()} 中的私钥
      *
      * @param ciphertext 密文
      * @return 解密后的明文
      */
     public static String decryptWithRSA(String ciphertext) {
-        Cipher cipher = getRSACipher();
-        KeyPair keyPair = generateRSAKeyPair();
         byte[] decryptedBytes = new byte[0];
         try {
-            cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
-            decryptedBytes = cipher.doFinal(Base64.getDecoder().decode(ciphertext));
+            decryptedBytes = getRSAKeyManager().decrypt(Base64.getDecoder().decode(ciphertext));
         } catch (Exception e) {
             log.error("EncryptionUtil######decryptWithRSA 解密异常！", e);
         }
         return new String(decryptedBytes, StandardCharsets.UTF_8);
     }
 
+    /**
+     * 没有通过 {@link #setRSAKeyManager(RsaKeyManager)} 配置时，首次调用生成一个只在当前进程内有效的临时密钥对
+     *
+     * @return RSA 加解密使用的密钥管理器
+     */
+    public static RsaKeyManager getRSAKeyManager() {
+        RsaKeyManager manager = rsaKeyManager;
+        if (manager == null) {
+            synchronized (EncryptionUtil.class) {
+                manager = rsaKeyManager;
+                if (manager == null) {
+                    log.warn("EncryptionUtil######getRSAKeyManager 没有配置 RSA 密钥, 使用临时生成的密钥对, 进程重启后无法解密之前的密文！");
+                    manager = new RsaKeyManager().put(TEMPORARY_RSA_KEY_ID,
+                            RsaKeyManager.generateKeyPair(RsaKeyManager.DEFAULT_KEY_SIZE));
+                    rsaKeyManager = manager;
+                }
+            }
+        }
+        return manager;
+    }
+
+    /**
+     * 设置 RSA 加解密使用的密钥管理器，应在启动阶段加载好密钥后调用
+     *
+     * @param manager 密钥管理器
+     */
+    public static void setRSAKeyManager(RsaKeyManager manager) {
+        ValidateUtil.requireNonNull(manager, ResultCode.PARAMETER_ERROR);
+        rsaKeyManager = manager;
+    }
+
     /**
      * 哈希算法 SHA-256
      *
@@ -103,11 +243,16 @@ public class EncryptionUtil {
      * @return 哈希值
      */
     public static String hashWithSHA256(String plaintext) {
-        MessageDigest digest = getSha256Digest();
+        MessageDigest digest = CryptoPools.sha256Digest();
         byte[] hashBytes = digest.digest(plaintext.getBytes(StandardCharsets.UTF_8));
         return bytesToHex(hashBytes);
     }
 
+    /**
+     * 每次调用都会查找 Provider 并返回新实例，可以长期持有；工具类内部的方法使用按线程缓存的实例
+     *
+     * @return SHA-256 的 MessageDigest
+     */
     public static MessageDigest getSha256Digest() {
         MessageDigest digest = null;
         try {
@@ -141,6 +286,17 @@ public class EncryptionUtil {
         return cipher;
     }
 
+    public static Cipher getRSAOAEPCipher() {
+        Cipher cipher = null;
+        try {
+            cipher = Cipher.getInstance("RSA/ECB/OAEPPadding");
+        } catch (Exception e) {
+            log.warn("EncryptionUtil######getRSAOAEPCipher 加密算法不支持异常 获取 RSA/OAEP 的 Cipher 获取实例失败！", e);
+        }
+        ValidateUtil.requireNonNull(cipher, ResultCode.ENCRYPTION_UTIL_RSA_NOT_SUPPORT_EXCEPTION);
+        return cipher;
+    }
+
     public static Cipher getAESCipher() {
         Cipher cipher = null;
         try {
@@ -152,6 +308,17 @@ public class EncryptionUtil {
         return cipher;
     }
 
+    public static Cipher getAESGCMCipher() {
+        Cipher cipher = null;
+        try {
+            cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (Exception e) {
+            log.warn("EncryptionUtil######getAESGCMCipher 加密算法不支持异常 获取 AES/GCM 的 Cipher 获取实例失败！", e);
+        }
+        ValidateUtil.requireNonNull(cipher, ResultCode.ENCRYPTION_UTIL_ASE_NOT_SUPPORT_EXCEPTION);
+        return cipher;
+    }
+
     public static KeyPairGenerator getRSAKeyPairGenerator() {
         KeyPairGenerator keyPairGenerator = null;
         try {
@@ -164,29 +331,13 @@ public class EncryptionUtil {
     }
 
     /**
-     * 生成AES密钥
+     * 生成AES密钥，由密码的 SHA-256 派生，结果按密码的指纹缓存
      *
      * @param password 密码
      * @return 密钥
      */
     private static SecretKey generateAESKey(String password) {
-        KeyGenerator keyGenerator = getAESKeyGenerator();
-        keyGenerator.init(128);
-        final byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
-        final MessageDigest digest = getSha256Digest();
-        final byte[] keyBytes = digest.digest(passwordBytes);
-        return new SecretKeySpec(keyBytes, "AES");
-    }
-
-    /**
-     * 生成RSA密钥对
-     *
-     * @return 密钥对
-     */
-    private static KeyPair generateRSAKeyPair() {
-        final KeyPairGenerator keyPairGenerator = getRSAKeyPairGenerator();
-        keyPairGenerator.initialize(2048);
-        return keyPairGenerator.generateKeyPair();
+        return aesKeyCache.get(password);
     }
 
     /**
@@ -196,15 +347,12 @@ public class EncryptionUtil {
      * @return 十六进制字符串
      */
     private static String bytesToHex(byte[] bytes) {
-        final StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            final String hex = Integer.toHexString(0xFF & b);
-            if (hex.length() == 1) {
-                sb.append('0');
-            }
-            sb.append(hex);
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     // Base64 编码
@@ -223,7 +371,7 @@ public class EncryptionUtil {
         String pwd = "123455";
 
         String encryptWithRSA = encryptWithRSA(pwd);
-        String decryptWithRSA = decryptWithRSA(pwd);
+        String decryptWithRSA = decryptWithRSA(encryptWithRSA);
 
         System.out.println("pwd=" + pwd + " encryptWithRSA=" + encryptWithRSA);
         System.out.println("pwd=" + pwd + " decryptWithRSA=" + decryptWithRSA);
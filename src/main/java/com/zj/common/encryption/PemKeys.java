@@ -0,0 +1,185 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 读取 PEM 格式的 RSA 密钥，{@link RsaKeyManager} 使用
+ * <p>
+ * 私钥支持 PKCS#8（{@code BEGIN PRIVATE KEY}，OpenSSL 3 的默认格式）和 PKCS#1（{@code BEGIN RSA PRIVATE KEY}），
+ * 公钥支持 X.509（{@code BEGIN PUBLIC KEY}）、PKCS#1（{@code BEGIN RSA PUBLIC KEY}）和证书（{@code BEGIN CERTIFICATE}）。
+ * PKCS#1 格式的密钥补上算法标识转换为 PKCS#8 / X.509 格式后再交给 KeyFactory。不支持加密的私钥，需要密码保护时使用密钥库。
+ *
+ * @author junzhou
+ * @date 2026/10/19 05:20
+ * @since 1.8
+ */
+@Slf4j
+final class PemKeys {
+
+    private static final Pattern PEM = Pattern.compile("-----BEGIN ([A-Z0-9 ]+)-----([^-]*)-----END \\1-----");
+
+    /**
+     * rsaEncryption 的 AlgorithmIdentifier：SEQUENCE { OID 1.2.840.113549.1.1.1, NULL }
+     */
+    private static final byte[] RSA_ALGORITHM_ID = {0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86,
+            (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00};
+
+    private static final byte[] PKCS8_VERSION = {0x02, 0x01, 0x00};
+
+    private PemKeys() {
+    }
+
+    /**
+     * @param pem PEM 文本，使用其中第一个私钥
+     * @return RSA 私钥
+     */
+    static PrivateKey readPrivateKey(String pem) {
+        final Matcher matcher = PEM.matcher(pem);
+        while (matcher.find()) {
+            final String type = matcher.group(1);
+            if ("PRIVATE KEY".equals(type)) {
+                return generatePrivate(decode(matcher.group(2)));
+            }
+            if ("RSA PRIVATE KEY".equals(type)) {
+                // PrivateKeyInfo ::= SEQUENCE { version, AlgorithmIdentifier, OCTET STRING(RSAPrivateKey) }
+                return generatePrivate(der(0x30, PKCS8_VERSION, RSA_ALGORITHM_ID, der(0x04, decode(matcher.group(2)))));
+            }
+        }
+        log.error("PemKeys######readPrivateKey 没有找到 PKCS#8 或 PKCS#1 格式的私钥, 不支持加密的私钥!");
+        throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+    }
+
+    /**
+     * @param pem PEM 文本，使用其中第一个公钥或证书
+     * @return RSA 公钥
+     */
+    static PublicKey readPublicKey(String pem) {
+        final Matcher matcher = PEM.matcher(pem);
+        while (matcher.find()) {
+            final String type = matcher.group(1);
+            if ("PUBLIC KEY".equals(type)) {
+                return generatePublic(decode(matcher.group(2)));
+            }
+            if ("RSA PUBLIC KEY".equals(type)) {
+                // SubjectPublicKeyInfo ::= SEQUENCE { AlgorithmIdentifier, BIT STRING(RSAPublicKey) }
+                final byte[] unusedBits = {0};
+                return generatePublic(der(0x30, RSA_ALGORITHM_ID, der(0x03, unusedBits, decode(matcher.group(2)))));
+            }
+            if ("CERTIFICATE".equals(type)) {
+                return publicKeyOfCertificate(decode(matcher.group(2)));
+            }
+        }
+        log.error("PemKeys######readPublicKey 没有找到公钥或证书!");
+        throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+    }
+
+    /**
+     * @param privateKey RSA 私钥，必须包含公钥指数（PKCS#8 和 PKCS#1 文件中的私钥都包含）
+     * @return 对应的公钥
+     */
+    static PublicKey publicKeyOf(PrivateKey privateKey) {
+        if (!(privateKey instanceof RSAPrivateCrtKey)) {
+            log.error("PemKeys######publicKeyOf 私钥不包含公钥指数, 需要同时提供公钥!");
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+        final RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey) privateKey;
+        try {
+            return KeyFactory.getInstance("RSA")
+                    .generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        } catch (GeneralSecurityException e) {
+            log.error("PemKeys######publicKeyOf 由私钥生成公钥失败!", e);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+    }
+
+    private static PrivateKey generatePrivate(byte[] pkcs8) {
+        try {
+            final PrivateKey key = KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+            if (key instanceof RSAPrivateKey) {
+                return key;
+            }
+        } catch (GeneralSecurityException e) {
+            log.error("PemKeys######generatePrivate 私钥格式不正确或不是 RSA 私钥! error={}", e.toString());
+        }
+        throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+    }
+
+    private static PublicKey generatePublic(byte[] x509) {
+        try {
+            final PublicKey key = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(x509));
+            if (key instanceof RSAPublicKey) {
+                return key;
+            }
+        } catch (GeneralSecurityException e) {
+            log.error("PemKeys######generatePublic 公钥格式不正确或不是 RSA 公钥! error={}", e.toString());
+        }
+        throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+    }
+
+    private static PublicKey publicKeyOfCertificate(byte[] certificate) {
+        try {
+            final PublicKey key = CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(certificate)).getPublicKey();
+            if (key instanceof RSAPublicKey) {
+                return key;
+            }
+            log.error("PemKeys######publicKeyOfCertificate 证书中不是 RSA 公钥! algorithm={}", key.getAlgorithm());
+        } catch (GeneralSecurityException e) {
+            log.error("PemKeys######publicKeyOfCertificate 证书格式不正确! error={}", e.toString());
+        }
+        throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+    }
+
+    private static byte[] decode(String base64) {
+        try {
+            return Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException e) {
+            log.error("PemKeys######decode PEM 内容不是合法的 Base64! error={}", e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+    }
+
+    /**
+     * DER 编码：tag、长度，然后依次拼接 contents
+     */
+    private static byte[] der(int tag, byte[]... contents) {
+        int length = 0;
+        for (byte[] content : contents) {
+            length += content.length;
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            final int lengthBytes = (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | lengthBytes);
+            for (int i = lengthBytes - 1; i >= 0; i--) {
+                out.write(length >>> (i * 8));
+            }
+        }
+        for (byte[] content : contents) {
+            out.write(content, 0, content.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,465 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * RSA 密钥管理和 RSA + AES-GCM 混合加密
+ * <p>
+ * 密钥对从 PKCS12/JKS 密钥库或 PEM 文件加载一次后按密钥 id 缓存。加密使用当前激活的密钥，解密按密文中记录的密钥 id 选择密钥，
+ * 因此用 {@link #rotate(String, KeyPair)} 轮换密钥后旧密文仍然可以解密，旧密钥不再需要时调用 {@link #remove(String)}。
+ * 只有公钥的密钥只能加密。
+ * <p>
+ * 每次加密随机生成 256 位的 AES 数据密钥，用 RSA-OAEP（SHA-256）加密数据密钥，数据用 {@link AesGcmStreams} 的分块 AES-GCM 加密，
+ * 数据多大都只做一次 RSA 运算。密文格式：魔数 {@code ZJRH}、版本号 1、密钥 id 的长度（1 字节）和 UTF-8 字节、
+ * 加密后的数据密钥的长度（2 字节）和内容，之后是 AES-GCM 密文。
+ * <p>
+ * 线程安全，加解密不加锁，修改密钥的方法互斥执行。
+ *
+ * @author junzhou
+ * @date 2026/10/19 05:20
+ * @since 1.8
+ */
+@Slf4j
+public class RsaKeyManager {
+
+    /**
+     * 默认的密钥长度
+     */
+    public static final int DEFAULT_KEY_SIZE = 2048;
+
+    private static final byte[] MAGIC = {'Z', 'J', 'R', 'H'};
+
+    private static final byte VERSION = 1;
+
+    private static final int MAX_KEY_ID_LENGTH = 255;
+
+    /**
+     * 16384 位 RSA 密钥加密的结果长度
+     */
+    private static final int MAX_WRAPPED_KEY_LENGTH = 2048;
+
+    private static final int DATA_KEY_SIZE = 32;
+
+    private static final OAEPParameterSpec OAEP_SHA256 = new OAEPParameterSpec("SHA-256", "MGF1",
+            MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ConcurrentMap<String, KeyPair> keyPairs = new ConcurrentHashMap<>();
+
+    /**
+     * 密钥 id 和密钥对一起替换，加密时不会取到已经被移除的密钥
+     */
+    private volatile ActiveKey activeKey;
+
+    /**
+     * 加载密钥库中所有的 RSA 密钥，别名作为密钥 id，私钥条目加载为密钥对，证书条目只加载公钥。
+     * 还没有激活的密钥时激活按别名排序的第一个私钥条目，否则需要调用 {@link #activate(String)}
+     *
+     * @param path          密钥库文件
+     * @param type          密钥库类型，PKCS12 或 JKS
+     * @param storePassword 密钥库密码
+     * @param keyPassword   私钥密码，为 null 时与密钥库密码相同
+     * @return this
+     * @throws IOException 读取文件失败或密钥库密码错误
+     */
+    public RsaKeyManager loadKeyStore(Path path, String type, char[] storePassword, char[] keyPassword)
+            throws IOException {
+        final KeyStore keyStore;
+        try (InputStream in = Files.newInputStream(path)) {
+            keyStore = KeyStore.getInstance(type);
+            keyStore.load(in, storePassword);
+        } catch (GeneralSecurityException e) {
+            log.error("RsaKeyManager######loadKeyStore 读取密钥库失败! path={}, type={}, error={}", path, type, e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+        final List<String> keyIds = new ArrayList<>();
+        final List<KeyPair> loaded = new ArrayList<>();
+        try {
+            final List<String> aliases = Collections.list(keyStore.aliases());
+            Collections.sort(aliases);
+            for (String alias : aliases) {
+                final Certificate certificate = keyStore.getCertificate(alias);
+                if (certificate == null || !(certificate.getPublicKey() instanceof RSAPublicKey)) {
+                    continue;
+                }
+                PrivateKey privateKey = null;
+                if (keyStore.isKeyEntry(alias)) {
+                    final Key key = keyStore.getKey(alias, keyPassword == null ? storePassword : keyPassword);
+                    if (key instanceof RSAPrivateKey) {
+                        privateKey = (PrivateKey) key;
+                    }
+                }
+                keyIds.add(alias);
+                loaded.add(new KeyPair(certificate.getPublicKey(), privateKey));
+            }
+        } catch (GeneralSecurityException e) {
+            log.error("RsaKeyManager######loadKeyStore 读取私钥失败, 私钥密码错误! path={}, error={}", path, e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+        if (keyIds.isEmpty()) {
+            log.error("RsaKeyManager######loadKeyStore 密钥库中没有 RSA 密钥! path={}", path);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR);
+        }
+        synchronized (this) {
+            // 先放入带私钥的条目，保证自动激活的密钥可以解密自己加密的数据
+            for (int i = 0; i < keyIds.size(); i++) {
+                if (loaded.get(i).getPrivate() != null) {
+                    put(keyIds.get(i), loaded.get(i));
+                }
+            }
+            for (int i = 0; i < keyIds.size(); i++) {
+                if (loaded.get(i).getPrivate() == null) {
+                    put(keyIds.get(i), loaded.get(i));
+                }
+            }
+        }
+        log.info("RsaKeyManager######loadKeyStore 加载密钥 path={} keyIds={}", path, keyIds);
+        return this;
+    }
+
+    /**
+     * 加载 PEM 格式的私钥，公钥由私钥得出。支持 PKCS#8 和 PKCS#1 格式，不支持加密的私钥
+     *
+     * @param keyId         密钥 id
+     * @param privateKeyPem 私钥文件
+     * @return this
+     * @throws IOException 读取文件失败
+     */
+    public RsaKeyManager loadPem(String keyId, Path privateKeyPem) throws IOException {
+        final PrivateKey privateKey = PemKeys.readPrivateKey(readPem(privateKeyPem));
+        put(keyId, new KeyPair(PemKeys.publicKeyOf(privateKey), privateKey));
+        log.info("RsaKeyManager######loadPem 加载私钥 keyId={} path={}", keyId, privateKeyPem);
+        return this;
+    }
+
+    /**
+     * 加载 PEM 格式的公钥或证书，只能用于加密，适合只需要加密、由其他服务解密的场景
+     *
+     * @param keyId        密钥 id
+     * @param publicKeyPem 公钥或证书文件
+     * @return this
+     * @throws IOException 读取文件失败
+     */
+    public RsaKeyManager loadPublicKeyPem(String keyId, Path publicKeyPem) throws IOException {
+        put(keyId, new KeyPair(PemKeys.readPublicKey(readPem(publicKeyPem)), null));
+        log.info("RsaKeyManager######loadPublicKeyPem 加载公钥 keyId={} path={}", keyId, publicKeyPem);
+        return this;
+    }
+
+    /**
+     * 添加或替换密钥，还没有激活的密钥时激活该密钥
+     *
+     * @param keyId   密钥 id，UTF-8 编码后不超过 255 字节
+     * @param keyPair RSA 密钥对，私钥可以为 null
+     * @return this
+     */
+    public synchronized RsaKeyManager put(String keyId, KeyPair keyPair) {
+        checkKeyId(keyId);
+        if (keyPair == null || !(keyPair.getPublic() instanceof RSAPublicKey)
+                || (keyPair.getPrivate() != null && !(keyPair.getPrivate() instanceof RSAPrivateKey))) {
+            log.error("RsaKeyManager######put 必须是 RSA 密钥对! keyId={}", keyId);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        keyPairs.put(keyId, keyPair);
+        if (activeKey == null || activeKey.keyId.equals(keyId)) {
+            activeKey = new ActiveKey(keyId, keyPair);
+        }
+        return this;
+    }
+
+    /**
+     * 之后的加密使用该密钥
+     *
+     * @param keyId 已经添加的密钥 id
+     * @return this
+     */
+    public synchronized RsaKeyManager activate(String keyId) {
+        final KeyPair keyPair = keyId == null ? null : keyPairs.get(keyId);
+        if (keyPair == null) {
+            log.error("RsaKeyManager######activate 密钥不存在! keyId={}", keyId);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        activeKey = new ActiveKey(keyId, keyPair);
+        log.info("RsaKeyManager######activate 激活密钥 keyId={}", keyId);
+        return this;
+    }
+
+    /**
+     * 添加并激活新密钥，原来的密钥保留用于解密旧密文
+     *
+     * @param keyId   新的密钥 id
+     * @param keyPair 新的 RSA 密钥对
+     * @return this
+     */
+    public synchronized RsaKeyManager rotate(String keyId, KeyPair keyPair) {
+        return put(keyId, keyPair).activate(keyId);
+    }
+
+    /**
+     * 移除不再需要的旧密钥，之后用它加密的密文无法解密；不能移除当前激活的密钥
+     *
+     * @param keyId 密钥 id
+     * @return 是否存在该密钥
+     */
+    public synchronized boolean remove(String keyId) {
+        if (activeKey != null && activeKey.keyId.equals(keyId)) {
+            log.error("RsaKeyManager######remove 不能移除当前激活的密钥! keyId={}", keyId);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        return keyPairs.remove(keyId) != null;
+    }
+
+    /**
+     * @return 当前激活的密钥 id，没有密钥时为 null
+     */
+    public String getActiveKeyId() {
+        final ActiveKey active = activeKey;
+        return active == null ? null : active.keyId;
+    }
+
+    /**
+     * @param keyId 密钥 id
+     * @return 对应的公钥，可以分发给加密方，不存在时为 null
+     */
+    public PublicKey getPublicKey(String keyId) {
+        final KeyPair keyPair = keyPairs.get(keyId);
+        return keyPair == null ? null : keyPair.getPublic();
+    }
+
+    /**
+     * @return 所有密钥 id，按字典序排列
+     */
+    public Set<String> getKeyIds() {
+        return Collections.unmodifiableSet(new TreeSet<>(keyPairs.keySet()));
+    }
+
+    /**
+     * 生成新的密钥对，用于测试或者配合 {@link #rotate(String, KeyPair)} 轮换，需要跨进程解密时应当保存到密钥库
+     *
+     * @param keySize 密钥长度，不小于 2048
+     * @return RSA 密钥对
+     */
+    public static KeyPair generateKeyPair(int keySize) {
+        if (keySize < DEFAULT_KEY_SIZE) {
+            log.error("RsaKeyManager######generateKeyPair 密钥长度不能小于 {}! keySize={}", DEFAULT_KEY_SIZE, keySize);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        final KeyPairGenerator keyPairGenerator = EncryptionUtil.getRSAKeyPairGenerator();
+        keyPairGenerator.initialize(keySize);
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    /**
+     * @param plaintext 明文，长度不受 RSA 密钥长度限制
+     * @return 密文
+     */
+    public byte[] encrypt(byte[] plaintext) {
+        final Envelope envelope = seal();
+        final long size = envelope.header.length
+                + AesGcmStreams.encryptedSize(plaintext.length, AesGcmStreams.DEFAULT_CHUNK_SIZE);
+        if (size > Integer.MAX_VALUE - 8) {
+            log.error("RsaKeyManager######encrypt 明文过大, 请使用流式加密! length={}", plaintext.length);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+        final ByteBuffer out = ByteBuffer.allocate((int) size);
+        out.put(envelope.header);
+        AesGcmStreams.encrypt(ByteBuffer.wrap(plaintext), out, envelope.dataKey);
+        return out.array();
+    }
+
+    /**
+     * @param ciphertext {@link #encrypt(byte[])} 或 {@link #encrypt(InputStream, OutputStream)} 的结果
+     * @return 明文
+     * @throws BusinessException 没有对应的私钥、密文被篡改或密钥错误
+     */
+    public byte[] decrypt(byte[] ciphertext) {
+        final ByteArrayInputStream in = new ByteArrayInputStream(ciphertext);
+        final SecretKey dataKey;
+        try {
+            dataKey = open(new DataInputStream(in));
+        } catch (IOException e) {
+            log.error("RsaKeyManager######decrypt 读取密文头失败! error={}", e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        }
+        final int bodySize = in.available();
+        final ByteBuffer plain = ByteBuffer.allocate(Math.max(0, bodySize - AesGcmFormat.HEADER_SIZE));
+        AesGcmStreams.decrypt(ByteBuffer.wrap(ciphertext, ciphertext.length - bodySize, bodySize), plain, dataKey);
+        return Arrays.copyOf(plain.array(), plain.position());
+    }
+
+    /**
+     * 流式加密，内存占用与数据量无关
+     *
+     * @param in  明文输入，不会被关闭
+     * @param out 密文输出，不会被关闭
+     * @return 明文字节数
+     */
+    public long encrypt(InputStream in, OutputStream out) throws IOException {
+        final Envelope envelope = seal();
+        out.write(envelope.header);
+        return AesGcmStreams.encrypt(in, out, envelope.dataKey);
+    }
+
+    /**
+     * 流式解密，失败时已经写出的内容应当丢弃
+     *
+     * @param in  密文输入，不会被关闭
+     * @param out 明文输出，不会被关闭
+     * @return 明文字节数
+     * @throws BusinessException 没有对应的私钥、密文被篡改或密钥错误
+     */
+    public long decrypt(InputStream in, OutputStream out) throws IOException {
+        // DataInputStream 没有缓冲，读完密文头后 in 正好位于 AES-GCM 密文的开头
+        final SecretKey dataKey = open(new DataInputStream(in));
+        return AesGcmStreams.decrypt(in, out, dataKey);
+    }
+
+    /**
+     * 生成数据密钥并用当前激活的公钥加密，返回密文头
+     */
+    private Envelope seal() {
+        final ActiveKey active = activeKey;
+        if (active == null) {
+            log.error("RsaKeyManager######encrypt 没有可用的密钥, 请先加载密钥!");
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_ENCRYPT_ERROR);
+        }
+        final byte[] keyBytes = new byte[DATA_KEY_SIZE];
+        RANDOM.nextBytes(keyBytes);
+        final SecretKey dataKey = new SecretKeySpec(keyBytes, "AES");
+        final byte[] wrappedKey;
+        try {
+            final Cipher cipher = CryptoPools.rsaOaepCipher();
+            cipher.init(Cipher.WRAP_MODE, active.keyPair.getPublic(), OAEP_SHA256, RANDOM);
+            wrappedKey = cipher.wrap(dataKey);
+        } catch (GeneralSecurityException e) {
+            log.error("RsaKeyManager######encrypt 加密数据密钥失败! keyId={}", active.keyId, e);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_ENCRYPT_ERROR);
+        }
+        final ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 4 + active.keyIdBytes.length + wrappedKey.length);
+        header.put(MAGIC).put(VERSION).put((byte) active.keyIdBytes.length).put(active.keyIdBytes)
+                .putShort((short) wrappedKey.length).put(wrappedKey);
+        return new Envelope(header.array(), dataKey);
+    }
+
+    /**
+     * 读取密文头，用密钥 id 对应的私钥解密数据密钥
+     */
+    private SecretKey open(DataInputStream in) throws IOException {
+        final String keyId;
+        final byte[] wrappedKey;
+        try {
+            final byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            final byte version = in.readByte();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                log.error("RsaKeyManager######decrypt 密文头不正确! version={}", version);
+                throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+            }
+            final byte[] keyIdBytes = new byte[in.readUnsignedByte()];
+            in.readFully(keyIdBytes);
+            keyId = new String(keyIdBytes, StandardCharsets.UTF_8);
+            final int wrappedKeyLength = in.readUnsignedShort();
+            if (wrappedKeyLength > MAX_WRAPPED_KEY_LENGTH) {
+                log.error("RsaKeyManager######decrypt 密文头不正确! wrappedKeyLength={}", wrappedKeyLength);
+                throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+            }
+            wrappedKey = new byte[wrappedKeyLength];
+            in.readFully(wrappedKey);
+        } catch (EOFException e) {
+            log.error("RsaKeyManager######decrypt 密文不完整, 缺少密文头!");
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        }
+        final KeyPair keyPair = keyPairs.get(keyId);
+        if (keyPair == null || keyPair.getPrivate() == null) {
+            log.error("RsaKeyManager######decrypt 没有密钥 id 对应的私钥! keyId={}", keyId);
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        }
+        try {
+            final Cipher cipher = CryptoPools.rsaOaepCipher();
+            cipher.init(Cipher.UNWRAP_MODE, keyPair.getPrivate(), OAEP_SHA256);
+            return (SecretKey) cipher.unwrap(wrappedKey, "AES", Cipher.SECRET_KEY);
+        } catch (GeneralSecurityException e) {
+            log.error("RsaKeyManager######decrypt 解密数据密钥失败, 密文被篡改或密钥错误! keyId={}, error={}",
+                    keyId, e.toString());
+            throw new BusinessException(ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        }
+    }
+
+    private static void checkKeyId(String keyId) {
+        if (keyId == null || keyId.isEmpty() || keyId.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_ID_LENGTH) {
+            log.error("RsaKeyManager######checkKeyId 密钥 id 不能为空, UTF-8 编码后不能超过 {} 字节! keyId={}",
+                    MAX_KEY_ID_LENGTH, keyId);
+            throw new BusinessException(ResultCode.PARAMETER_ERROR);
+        }
+    }
+
+    private static String readPem(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII);
+    }
+
+    private static final class ActiveKey {
+
+        private final String keyId;
+
+        private final byte[] keyIdBytes;
+
+        private final KeyPair keyPair;
+
+        private ActiveKey(String keyId, KeyPair keyPair) {
+            this.keyId = keyId;
+            this.keyIdBytes = keyId.getBytes(StandardCharsets.UTF_8);
+            this.keyPair = keyPair;
+        }
+    }
+
+    private static final class Envelope {
+
+        private final byte[] header;
+
+        private final SecretKey dataKey;
+
+        private Envelope(byte[] header, SecretKey dataKey) {
+            this.header = header;
+            this.dataKey = dataKey;
+        }
+    }
+}
@@ -65,6 +65,30 @@ public enum ResultCode {
     ENCRYPTION_UTIL_SHA256_NOT_SUPPORT_EXCEPTION(12, "EncryptionUtil Sha256 Not Supported !"),
     ENCRYPTION_UTIL_RSA_NOT_SUPPORT_EXCEPTION(13, "EncryptionUtil RSA Not Supported !"),
     ENCRYPTION_UTIL_RSA_KEY_PAIR_NOT_SUPPORT_EXCEPTION(13, "EncryptionUtil RSA keyPairGenerator Not Supported !"),
+    /**
+     * json 转换对象异常
+     */
+    JSON_TO_OBJECT_ERROR(14, "json 转换对象异常! "),
+    /**
+     * AES-GCM 加密失败
+     */
+    ENCRYPTION_UTIL_AES_GCM_ENCRYPT_ERROR(15, "EncryptionUtil AES-GCM 加密失败! "),
+    /**
+     * AES-GCM 解密失败，密文被篡改、截断或密钥错误
+     */
+    ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR(16, "EncryptionUtil AES-GCM 解密失败，密文被篡改、截断或密钥错误! "),
+    /**
+     * RSA 密钥加载失败
+     */
+    ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR(17, "EncryptionUtil RSA 密钥加载失败，文件格式不正确或不是 RSA 密钥! "),
+    /**
+     * RSA 加密失败
+     */
+    ENCRYPTION_UTIL_RSA_ENCRYPT_ERROR(18, "EncryptionUtil RSA 加密失败! "),
+    /**
+     * RSA 解密失败，密钥不存在、密文被篡改或密钥错误
+     */
+    ENCRYPTION_UTIL_RSA_DECRYPT_ERROR(19, "EncryptionUtil RSA 解密失败，密钥不存在、密文被篡改或密钥错误! "),
     /**
      * 无权限操作
      */
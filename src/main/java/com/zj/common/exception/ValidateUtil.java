@@ -1,6 +1,5 @@
 package com.zj.common.exception;
 
-import com.zj.common.json.JsonUtil;
 import com.zj.common.web.result.Result;
 import com.zj.common.web.WebUtils;
 import org.springframework.lang.Nullable;
@@ -73,7 +72,7 @@ public class ValidateUtil {
     public static void exceptionByTrue(Boolean flag, ResultCode resultCode, HttpServletResponse response) {
         if (Boolean.TRUE.equals(flag)) {
             Result<Object> fail = Result.fail(resultCode);
-            WebUtils.renderString(response, JsonUtil.toJSONString(fail));
+            WebUtils.renderJson(response, fail);
         }
     }
 
@@ -92,7 +91,7 @@ public class ValidateUtil {
     public static void exceptionByFalse(Boolean flag, ResultCode resultCode, HttpServletResponse response) {
         if (Boolean.FALSE.equals(flag)) {
             Result<Object> fail = Result.fail(resultCode);
-            WebUtils.renderString(response, JsonUtil.toJSONString(fail));
+            WebUtils.renderJson(response, fail);
         }
     }
 
@@ -0,0 +1,127 @@
+package com.zj.common.file;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick 多模式匹配，一次遍历文本即可找出所有模式的出现位置，耗时与模式数量无关
+ * <p>
+ * 构建完成后是只读的，可以在多个线程中共享。
+ *
+ * @author junzhou
+ * @date 2026/10/18 17:10
+ * @since 1.8
+ */
+final class AhoCorasickMatcher {
+
+    /**
+     * 匹配回调
+     */
+    @FunctionalInterface
+    interface MatchHandler {
+
+        /**
+         * @param start   匹配在文本中的起始位置
+         * @param end     匹配在文本中的结束位置（不包含）
+         * @param pattern 匹配到的模式下标
+         */
+        void onMatch(int start, int end, int pattern);
+    }
+
+    private final String[] patterns;
+
+    /**
+     * 每个状态的转移，goto 表
+     */
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+
+    private int[] failure;
+
+    /**
+     * 每个状态结束的模式下标，包括通过失败链接继承的模式
+     */
+    private int[][] outputs;
+
+    AhoCorasickMatcher(List<String> patterns) {
+        this.patterns = patterns.toArray(new String[0]);
+        transitions.add(new HashMap<>());
+        final List<List<Integer>> outputList = new ArrayList<>();
+        outputList.add(new ArrayList<>());
+        for (int i = 0; i < this.patterns.length; i++) {
+            final String pattern = this.patterns[i];
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("匹配模式不能为空");
+            }
+            int state = 0;
+            for (int j = 0; j < pattern.length(); j++) {
+                final Integer next = transitions.get(state).get(pattern.charAt(j));
+                if (next != null) {
+                    state = next;
+                    continue;
+                }
+                transitions.add(new HashMap<>());
+                outputList.add(new ArrayList<>());
+                transitions.get(state).put(pattern.charAt(j), transitions.size() - 1);
+                state = transitions.size() - 1;
+            }
+            outputList.get(state).add(i);
+        }
+        buildFailure(outputList);
+    }
+
+    private void buildFailure(List<List<Integer>> outputList) {
+        failure = new int[transitions.size()];
+        final Deque<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (Map.Entry<Character, Integer> entry : transitions.get(state).entrySet()) {
+                final int child = entry.getValue();
+                int fallback = failure[state];
+                while (fallback != 0 && !transitions.get(fallback).containsKey(entry.getKey())) {
+                    fallback = failure[fallback];
+                }
+                final Integer target = transitions.get(fallback).get(entry.getKey());
+                failure[child] = target == null || target == child ? 0 : target;
+                outputList.get(child).addAll(outputList.get(failure[child]));
+                queue.add(child);
+            }
+        }
+        outputs = new int[outputList.size()][];
+        for (int i = 0; i < outputs.length; i++) {
+            final List<Integer> one = outputList.get(i);
+            outputs[i] = new int[one.size()];
+            for (int j = 0; j < one.size(); j++) {
+                outputs[i][j] = one.get(j);
+            }
+        }
+    }
+
+    String pattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * 查找文本中所有模式的出现位置，按结束位置从小到大回调
+     *
+     * @param text    文本
+     * @param handler 匹配回调
+     */
+    void match(CharSequence text, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            Integer next;
+            while ((next = transitions.get(state).get(c)) == null && state != 0) {
+                state = failure[state];
+            }
+            state = next == null ? 0 : next;
+            for (int pattern : outputs[state]) {
+                handler.onMatch(i + 1 - patterns[pattern].length(), i + 1, pattern);
+            }
+        }
+    }
+}
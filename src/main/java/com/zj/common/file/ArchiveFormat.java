@@ -0,0 +1,42 @@
+package com.zj.common.file;
+
+/**
+ * 目录导出的归档格式
+ *
+ * @author junzhou
+ * @date 2026/10/18 19:30
+ * @since 1.8
+ */
+public enum ArchiveFormat {
+
+    ZIP(".zip"),
+
+    TAR_GZ(".tar.gz");
+
+    private final String extension;
+
+    ArchiveFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 根据文件名判断归档格式，支持 .zip、.tar.gz 和 .tgz
+     *
+     * @param fileName 文件名
+     * @return 归档格式
+     */
+    public static ArchiveFormat fromFileName(String fileName) {
+        final String lower = fileName.toLowerCase();
+        if (lower.endsWith(ZIP.extension)) {
+            return ZIP;
+        }
+        if (lower.endsWith(TAR_GZ.extension) || lower.endsWith(".tgz")) {
+            return TAR_GZ;
+        }
+        throw new IllegalArgumentException("不支持的归档格式: " + fileName);
+    }
+}
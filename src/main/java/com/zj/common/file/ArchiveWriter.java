@@ -0,0 +1,53 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * 按顺序写入归档条目，条目名称使用 / 分隔，目录以 / 结尾由实现负责
+ *
+ * @author junzhou
+ * @date 2026/10/18 19:35
+ * @since 1.8
+ */
+interface ArchiveWriter {
+
+    /**
+     * @param name         相对路径
+     * @param lastModified 最后修改时间
+     * @throws IOException 写出失败
+     */
+    void putDirectory(String name, FileTime lastModified) throws IOException;
+
+    /**
+     * 写入文件条目，读取 size 字节的文件内容
+     *
+     * @param name         相对路径
+     * @param source       文件内容
+     * @param size         条目大小
+     * @param lastModified 最后修改时间
+     * @throws SourceReadException 读取源文件失败，已写出的条目仍然完整，归档可以继续写入
+     * @throws IOException         写出失败，归档已经损坏
+     */
+    void putFile(String name, FileChannel source, long size, FileTime lastModified) throws IOException;
+
+    /**
+     * 写入归档结尾并输出所有数据，不会关闭输出流
+     *
+     * @throws IOException 写出失败
+     */
+    void finish() throws IOException;
+
+    /**
+     * 读取源文件失败，与写出归档失败区分开
+     */
+    final class SourceReadException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        SourceReadException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 文件处理中使用的有界线程池
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:50
+ * @since 1.8
+ */
+@Slf4j
+final class BoundedExecutors {
+
+    private BoundedExecutors() {
+    }
+
+    /**
+     * 创建固定大小、任务队列有界的线程池，队列满时由提交任务的线程自己执行，起到背压的作用
+     *
+     * @param parallelism   线程数
+     * @param queueCapacity 任务队列长度
+     * @param threadPrefix  线程名前缀
+     * @return 线程池
+     */
+    static ThreadPoolExecutor newCallerRunsExecutor(int parallelism, int queueCapacity, String threadPrefix) {
+        final AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, threadPrefix + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 关闭线程池并等待已提交的任务全部完成
+     *
+     * @param executor 线程池
+     */
+    static void shutdownAndAwait(ThreadPoolExecutor executor) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("BoundedExecutors######shutdownAndAwait 等待任务完成, 剩余任务数: {}", executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
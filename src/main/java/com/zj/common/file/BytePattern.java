@@ -0,0 +1,69 @@
+package com.zj.common.file;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 字节序列的 Boyer-Moore-Horspool 匹配，直接在 UTF-8 字节上查找关键字，不需要把内容解码成字符串
+ *
+ * @author junzhou
+ * @date 2026/10/18 13:10
+ * @since 1.8
+ */
+final class BytePattern {
+
+    private final String keyword;
+
+    private final byte[] pattern;
+
+    private final int[] skip = new int[256];
+
+    BytePattern(String keyword) {
+        this.keyword = keyword;
+        this.pattern = keyword.getBytes(StandardCharsets.UTF_8);
+        Arrays.fill(skip, Math.max(1, pattern.length));
+        for (int i = 0; i < pattern.length - 1; i++) {
+            skip[pattern[i] & 0xFF] = pattern.length - 1 - i;
+        }
+    }
+
+    String keyword() {
+        return keyword;
+    }
+
+    int length() {
+        return pattern.length;
+    }
+
+    /**
+     * 在 buffer 的 [from, to) 范围内查找关键字，使用绝对位置读取，不改变 buffer 的 position
+     *
+     * @param buffer 待查找的内容
+     * @param from   起始位置（包含）
+     * @param to     结束位置（不包含）
+     * @return 第一次出现的位置，没有找到返回 -1
+     */
+    int indexOf(ByteBuffer buffer, int from, int to) {
+        final int last = pattern.length - 1;
+        if (last < 0) {
+            return from <= to ? from : -1;
+        }
+        final byte lastByte = pattern[last];
+        int i = from;
+        while (i + last < to) {
+            final byte b = buffer.get(i + last);
+            if (b == lastByte) {
+                int j = last - 1;
+                while (j >= 0 && buffer.get(i + j) == pattern[j]) {
+                    j--;
+                }
+                if (j < 0) {
+                    return i;
+                }
+            }
+            i += skip[b & 0xFF];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,250 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基于 FileChannel 的文件复制
+ * <p>
+ * 1. 按分块调用 {@link FileChannel#transferTo}，数据不经过 Java 堆，大文件也只占用很少的内存；<br>
+ * 2. 先写入目标目录下的临时文件，完成后原子重命名为目标文件，复制中途失败不会留下不完整的目标文件；<br>
+ * 3. 可选地在复制过程中计算内容摘要，此时数据经由直接内存缓冲区读写，只读一遍源文件；<br>
+ * 4. 每复制完一个分块通过 {@link CopyProgressListener} 回调进度；<br>
+ * 5. 与 {@link Files#copy} 一样保留源文件的 POSIX 权限，可执行文件和 0600 的文件复制后权限不变。
+ * <p>
+ * 配置完成后实例是线程安全的，可以交给 {@link ParallelDirectoryCopier} 在多个线程中共享。
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:15
+ * @since 1.8
+ */
+@Slf4j
+public class ChannelFileCopier implements FileCopier {
+
+    /**
+     * 默认分块大小 64MB
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private String checksumAlgorithm;
+
+    private CopyProgressListener progressListener;
+
+    private boolean preserveLastModified;
+
+    private boolean forceOnClose;
+
+    /**
+     * @param chunkSize 每次 transferTo 的字节数
+     * @return this
+     */
+    public ChannelFileCopier chunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("分块大小必须大于 0");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param checksumAlgorithm 摘要算法，如 SHA-256、MD5，为 null 时不计算摘要
+     * @return this
+     */
+    public ChannelFileCopier checksum(String checksumAlgorithm) {
+        if (checksumAlgorithm != null) {
+            // 提前校验算法是否可用
+            FileHashes.newDigest(checksumAlgorithm);
+        }
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    public ChannelFileCopier progressListener(CopyProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * @param preserveLastModified 是否保留源文件的最后修改时间
+     * @return this
+     */
+    public ChannelFileCopier preserveLastModified(boolean preserveLastModified) {
+        this.preserveLastModified = preserveLastModified;
+        return this;
+    }
+
+    /**
+     * @param forceOnClose 重命名之前是否将临时文件刷到磁盘
+     * @return this
+     */
+    public ChannelFileCopier forceOnClose(boolean forceOnClose) {
+        this.forceOnClose = forceOnClose;
+        return this;
+    }
+
+    @Override
+    public void copy(Path source, Path target) throws IOException {
+        transfer(source, target);
+    }
+
+    /**
+     * 复制文件，目标文件已经存在时会被替换
+     *
+     * @param source 源文件
+     * @param target 目标文件
+     * @return 复制结果
+     * @throws IOException 复制失败，此时目标文件保持原样
+     */
+    public TransferResult transfer(Path source, Path target) throws IOException {
+        final Path temp = tempFileOf(target);
+        boolean success = false;
+        try {
+            final TransferResult result;
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                final long size = in.size();
+                result = checksumAlgorithm == null
+                        ? new TransferResult(transferTo(source, in, out, size), null)
+                        : transferWithChecksum(source, in, out, size);
+                if (forceOnClose) {
+                    out.force(true);
+                }
+            }
+            copyPermissions(source, temp);
+            if (preserveLastModified) {
+                Files.setLastModifiedTime(temp, Files.getLastModifiedTime(source));
+            }
+            moveIntoPlace(temp, target);
+            success = true;
+            return result;
+        } finally {
+            if (!success) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    private long transferTo(Path source, FileChannel in, FileChannel out, long size) throws IOException {
+        long position = 0;
+        while (position < size) {
+            beforeChunk(Math.min(chunkSize, size - position));
+            final long transferred = in.transferTo(position, Math.min(chunkSize, size - position), out);
+            if (transferred <= 0 && position >= in.size()) {
+                throw truncated(source, position, size);
+            }
+            position += transferred;
+            notifyProgress(source, position, size);
+        }
+        return position;
+    }
+
+    private TransferResult transferWithChecksum(Path source, FileChannel in, FileChannel out, long size) throws IOException {
+        final MessageDigest digest = FileHashes.newDigest(checksumAlgorithm);
+        final ByteBuffer buffer = FileHashes.buffer();
+        long position = 0;
+        long chunkEnd = 0;
+        while (position < size) {
+            if (position >= chunkEnd) {
+                chunkEnd = position + Math.min(chunkSize, size - position);
+                beforeChunk(chunkEnd - position);
+            }
+            ((Buffer) buffer).clear();
+            if (chunkEnd - position < buffer.capacity()) {
+                ((Buffer) buffer).limit((int) (chunkEnd - position));
+            }
+            final int read = in.read(buffer, position);
+            if (read < 0) {
+                throw truncated(source, position, size);
+            }
+            ((Buffer) buffer).flip();
+            digest.update(buffer);
+            ((Buffer) buffer).rewind();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            position += read;
+            if (position >= chunkEnd) {
+                notifyProgress(source, position, size);
+            }
+        }
+        return new TransferResult(position, FileHashes.toHex(digest.digest()));
+    }
+
+    /**
+     * 复制过程中源文件被截断，抛出异常使临时文件被删除，目标文件保持原样
+     */
+    private static IOException truncated(Path source, long position, long size) {
+        log.error("ChannelFileCopier######transfer 复制过程中源文件被截断! source={}, copied={}, expected={}",
+                source, position, size);
+        return new IOException("复制过程中源文件被截断: " + source + ", 已复制 " + position + " 字节, 应为 " + size + " 字节");
+    }
+
+    /**
+     * 每个分块开始复制之前调用，子类可以在这里做限流等控制
+     *
+     * @param chunkBytes 即将复制的字节数
+     * @throws IOException 中断复制
+     */
+    protected void beforeChunk(long chunkBytes) throws IOException {
+    }
+
+    private void notifyProgress(Path source, long copiedBytes, long totalBytes) {
+        if (progressListener != null) {
+            progressListener.onProgress(source, copiedBytes, totalBytes);
+        }
+    }
+
+    /**
+     * @return 与目标文件位于同一目录下的临时文件路径，保证可以原子重命名
+     */
+    static Path tempFileOf(Path target) {
+        final String name = "." + target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX;
+        return target.resolveSibling(name);
+    }
+
+    /**
+     * 将临时文件重命名为目标文件，文件系统支持时使用原子重命名
+     */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.debug("ChannelFileCopier######moveIntoPlace 文件系统不支持原子重命名 target={}", target);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 将 source 的 POSIX 权限设置到 target 上，临时文件创建时使用默认权限，重命名之前调用；不支持 POSIX 权限的文件系统上不做处理
+     */
+    static void copyPermissions(Path source, Path target) throws IOException {
+        if (Files.getFileStore(source).supportsFileAttributeView(PosixFileAttributeView.class)
+                && Files.getFileStore(target).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+        }
+    }
+
+    static void deleteQuietly(Path temp) {
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("ChannelFileCopier######deleteQuietly 删除临时文件失败 temp={}", temp, e);
+        }
+    }
+}
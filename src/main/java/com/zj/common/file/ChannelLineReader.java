@@ -0,0 +1,153 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 使用定位读按行读取文件中 [start, end) 范围内的内容
+ * <p>
+ * 以 '\n' 作为行分隔符，行尾的 '\r' 会被去掉，内容按 UTF-8 解码。
+ * 只使用定位读，多个 reader 可以共享同一个 channel 并发读取不同的范围。
+ *
+ * @author junzhou
+ * @date 2026/10/18 14:10
+ * @since 1.8
+ */
+final class ChannelLineReader {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte LF = '\n';
+
+    private static final byte CR = '\r';
+
+    private final FileChannel channel;
+
+    private final long end;
+
+    private final ByteBuffer buffer;
+
+    private final byte[] bytes;
+
+    private int position;
+
+    private int limit;
+
+    private long bufferOffset;
+
+    private long nextReadPosition;
+
+    private byte[] line = new byte[256];
+
+    private long lineStart = -1;
+
+    ChannelLineReader(FileChannel channel, long start, long end) {
+        this(channel, start, end, DEFAULT_BUFFER_SIZE);
+    }
+
+    ChannelLineReader(FileChannel channel, long start, long end, int bufferSize) {
+        this.channel = channel;
+        this.end = end;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.bytes = buffer.array();
+        this.nextReadPosition = start;
+        this.bufferOffset = start;
+    }
+
+    /**
+     * @return 下一行的内容（不含换行符），没有更多内容时返回 null
+     * @throws IOException 读取失败
+     */
+    String readLine() throws IOException {
+        int length = 0;
+        boolean consumed = false;
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (!consumed) {
+                    return null;
+                }
+                return decode(line, length);
+            }
+            if (!consumed) {
+                lineStart = bufferOffset + position;
+                consumed = true;
+            }
+            int i = position;
+            while (i < limit && bytes[i] != LF) {
+                i++;
+            }
+            if (i < limit) {
+                final String result;
+                if (length == 0) {
+                    // 整行都在缓冲区内，直接解码，不需要额外复制
+                    result = decode(bytes, position, i - position);
+                } else {
+                    length = append(length, position, i);
+                    result = decode(line, length);
+                }
+                position = i + 1;
+                return result;
+            }
+            length = append(length, position, limit);
+            position = limit;
+        }
+    }
+
+    /**
+     * @return 最近一次 {@link #readLine()} 返回的行在文件中的起始位置
+     */
+    long lineStart() {
+        return lineStart;
+    }
+
+    /**
+     * @return 下一次读取在文件中的位置
+     */
+    long position() {
+        return bufferOffset + position;
+    }
+
+    private boolean fill() throws IOException {
+        if (nextReadPosition >= end) {
+            return false;
+        }
+        ((Buffer) buffer).clear();
+        if (end - nextReadPosition < buffer.capacity()) {
+            ((Buffer) buffer).limit((int) (end - nextReadPosition));
+        }
+        final int read = channel.read(buffer, nextReadPosition);
+        if (read <= 0) {
+            // 读取过程中文件被截断
+            return false;
+        }
+        bufferOffset = nextReadPosition;
+        nextReadPosition += read;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private int append(int length, int from, int to) {
+        final int count = to - from;
+        if (length + count > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, length + count));
+        }
+        System.arraycopy(bytes, from, line, length, count);
+        return length + count;
+    }
+
+    private static String decode(byte[] source, int length) {
+        return decode(source, 0, length);
+    }
+
+    private static String decode(byte[] source, int offset, int length) {
+        if (length > 0 && source[offset + length - 1] == CR) {
+            length--;
+        }
+        return new String(source, offset, length, StandardCharsets.UTF_8);
+    }
+}
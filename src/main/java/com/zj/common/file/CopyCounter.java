@@ -0,0 +1,67 @@
+package com.zj.common.file;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 目录复制过程中多线程共享的计数器，复制结束后转换为 {@link CopyResult}
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:55
+ * @since 1.8
+ */
+@Slf4j
+@Getter
+class CopyCounter {
+
+    private final LongAdder totalFiles = new LongAdder();
+
+    private final LongAdder copiedFiles = new LongAdder();
+
+    private final LongAdder copiedBytes = new LongAdder();
+
+    private final LongAdder createdDirectories = new LongAdder();
+
+    private final LongAdder linkedFiles = new LongAdder();
+
+    private final LongAdder savedBytes = new LongAdder();
+
+    private final LongAdder skippedFiles = new LongAdder();
+
+    private final LongAdder deletedFiles = new LongAdder();
+
+    private final ConcurrentLinkedQueue<CopyResult.Failure> failures = new ConcurrentLinkedQueue<>();
+
+    private final long startMillis = System.currentTimeMillis();
+
+    /**
+     * 记录失败的路径
+     *
+     * @param path 出错的路径
+     * @param e    异常信息
+     */
+    void fail(Path path, Exception e) {
+        log.warn("CopyCounter######fail 复制出错 path={}", path, e);
+        failures.add(new CopyResult.Failure(path.toString(), String.valueOf(e.getMessage())));
+    }
+
+    CopyResult toResult() {
+        final CopyResult result = new CopyResult();
+        result.setTotalFiles(totalFiles.sum());
+        result.setCopiedFiles(copiedFiles.sum());
+        result.setCopiedBytes(copiedBytes.sum());
+        result.setCreatedDirectories(createdDirectories.sum());
+        result.setLinkedFiles(linkedFiles.sum());
+        result.setSavedBytes(savedBytes.sum());
+        result.setSkippedFiles(skippedFiles.sum());
+        result.setDeletedFiles(deletedFiles.sum());
+        result.setFailures(new ArrayList<>(failures));
+        result.setElapsedMillis(System.currentTimeMillis() - startMillis);
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.zj.common.file;
+
+import java.nio.file.Path;
+
+/**
+ * 文件复制进度监听器，每复制完一个分块回调一次
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:05
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface CopyProgressListener {
+
+    /**
+     * 复制进度回调
+     *
+     * @param source      源文件
+     * @param copiedBytes 已经复制的字节数
+     * @param totalBytes  文件总字节数
+     */
+    void onProgress(Path source, long copiedBytes, long totalBytes);
+}
@@ -0,0 +1,96 @@
+package com.zj.common.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 目录复制的结果统计信息，单个文件失败不会中断整个复制过程，失败信息记录在 failures 中
+ *
+ * @author junzhou
+ * @date 2026/10/18 10:15
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+public class CopyResult {
+
+    /**
+     * 遍历到的文件总数
+     */
+    private long totalFiles;
+
+    /**
+     * 成功复制的文件数
+     */
+    private long copiedFiles;
+
+    /**
+     * 成功复制的字节数
+     */
+    private long copiedBytes;
+
+    /**
+     * 与已复制的文件内容相同、在目标目录中以硬链接代替复制的文件数
+     */
+    private long linkedFiles;
+
+    /**
+     * 以硬链接代替复制而节省的字节数
+     */
+    private long savedBytes;
+
+    /**
+     * 内容未变化而跳过的文件数
+     */
+    private long skippedFiles;
+
+    /**
+     * 源目录中已经不存在而从目标目录删除的文件数
+     */
+    private long deletedFiles;
+
+    /**
+     * 创建的目录数
+     */
+    private long createdDirectories;
+
+    /**
+     * 耗时，单位毫秒
+     */
+    private long elapsedMillis;
+
+    /**
+     * 复制失败的文件信息
+     */
+    private List<Failure> failures = new ArrayList<>();
+
+    /**
+     * @return 是否所有文件都复制成功
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * 单个路径的失败信息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+
+        /**
+         * 出错的源路径
+         */
+        private String path;
+
+        /**
+         * 错误信息
+         */
+        private String message;
+    }
+}
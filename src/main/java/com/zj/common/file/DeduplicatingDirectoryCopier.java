@@ -0,0 +1,289 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+/**
+ * 去重复制目录并保持层级结构
+ * <p>
+ * 先遍历源目录并按文件大小分组，大小唯一的文件不可能有重复，直接复制；大小相同的文件先比较前 8KB 的摘要，
+ * 文件头不同的文件直接复制，文件头相同的再流式计算完整摘要确认是否重复，大量大小相同但内容不同的文件（缩略图、定长记录）
+ * 只需多读文件头。每组相同内容只复制第一个文件，其余文件在目标目录中创建指向它的硬链接，不再读写文件内容。
+ * 文件系统不支持硬链接（如跨设备、FAT）时退回普通复制。同一分组内的文件也并行计算摘要和复制。
+ * <p>
+ * 硬链接共享同一份数据，修改目标目录中的任意一个链接会同时影响其他链接，适合只读的镜像目录；
+ * 复制期间源文件不应被修改，否则链接的内容可能是计算摘要之后的旧内容。
+ *
+ * @author junzhou
+ * @date 2026/10/18 19:10
+ * @since 1.8
+ */
+@Slf4j
+public class DeduplicatingDirectoryCopier {
+
+    /**
+     * 每个工作线程对应的排队任务数
+     */
+    private static final int QUEUE_SIZE_PER_WORKER = 64;
+
+    /**
+     * 预筛选时比较的文件头长度
+     */
+    private static final int PREFIX_SIZE = 8 * 1024;
+
+    private final int parallelism;
+
+    private final FileCopier fileCopier;
+
+    private String checksumAlgorithm = FileHashes.DEFAULT_ALGORITHM;
+
+    /**
+     * 文件系统不支持硬链接后不再尝试
+     */
+    private volatile boolean linkUnsupported;
+
+    public DeduplicatingDirectoryCopier() {
+        this(ParallelDirectoryCopier.DEFAULT_PARALLELISM);
+    }
+
+    public DeduplicatingDirectoryCopier(int parallelism) {
+        this(parallelism, new ChannelFileCopier());
+    }
+
+    /**
+     * @param parallelism 并发数
+     * @param fileCopier  不重复文件的复制策略
+     */
+    public DeduplicatingDirectoryCopier(int parallelism, FileCopier fileCopier) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        this.parallelism = parallelism;
+        this.fileCopier = fileCopier == null ? FileCopier.REPLACE_EXISTING : fileCopier;
+    }
+
+    /**
+     * @param checksumAlgorithm 确认重复使用的摘要算法，默认为 SHA-256
+     * @return this
+     */
+    public DeduplicatingDirectoryCopier checksum(String checksumAlgorithm) {
+        FileHashes.newDigest(checksumAlgorithm);
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    /**
+     * 去重复制整个目录并保持层级结构
+     *
+     * @param sourceDir 源目录
+     * @param basePath  要保持的基准路径
+     * @param targetDir 目标文件夹
+     * @return 复制结果，linkedFiles 和 savedBytes 为以硬链接代替复制的文件数和字节数
+     * @throws IOException 遍历源目录失败
+     */
+    public CopyResult copy(Path sourceDir, Path basePath, Path targetDir) throws IOException {
+        final Path source = sourceDir.toAbsolutePath();
+        final Path base = basePath.toAbsolutePath();
+        final Path target = targetDir.toAbsolutePath();
+        if (!source.startsWith(base)) {
+            throw new IllegalArgumentException("源目录不在指定的基准路径下");
+        }
+        final CopyCounter counter = new CopyCounter();
+        // 按大小分组需要先看到所有文件，分组中只保存源路径，目标路径在处理时再计算
+        final Map<Long, List<Path>> sizeGroups = new HashMap<>();
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                try {
+                    Files.createDirectories(target.resolve(base.relativize(dir)));
+                    counter.getCreatedDirectories().increment();
+                    return FileVisitResult.CONTINUE;
+                } catch (IOException e) {
+                    counter.fail(dir, e);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                counter.getTotalFiles().increment();
+                sizeGroups.computeIfAbsent(attrs.size(), key -> new ArrayList<>(1)).add(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                counter.getTotalFiles().increment();
+                counter.fail(file, exc);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        final Function<Path, Path> targetOf = file -> target.resolve(base.relativize(file));
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * QUEUE_SIZE_PER_WORKER, "dedup-copy");
+        try {
+            final List<CompletableFuture<Void>> groups = new ArrayList<>();
+            for (Map.Entry<Long, List<Path>> entry : sizeGroups.entrySet()) {
+                final long size = entry.getKey();
+                final List<Path> group = entry.getValue();
+                if (group.size() == 1 || size == 0) {
+                    for (Path file : group) {
+                        executor.execute(() -> copyOne(file, targetOf.apply(file), size, counter));
+                    }
+                } else {
+                    groups.add(copyGroup(group, size, targetOf, counter, executor));
+                }
+            }
+            // 各分组的后续阶段由线程池中的任务提交，全部完成之后才能关闭线程池
+            for (CompletableFuture<Void> group : groups) {
+                try {
+                    group.join();
+                } catch (CompletionException e) {
+                    counter.fail(source, e);
+                }
+            }
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        final CopyResult result = counter.toResult();
+        log.info("DeduplicatingDirectoryCopier######copy 复制完成 source={}, target={}, total={}, copied={}, linked={}, savedBytes={}, failed={}, elapsed={}ms",
+                source, target, result.getTotalFiles(), result.getCopiedFiles(), result.getLinkedFiles(),
+                result.getSavedBytes(), result.getFailures().size(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 处理大小相同的一组文件：先并行计算文件头的摘要，文件头唯一的文件直接复制；文件头相同的再并行计算完整摘要，
+     * 内容相同的文件复制第一个，其余链接到它。各阶段作为后续任务提交到线程池，工作线程不会阻塞等待
+     */
+    private CompletableFuture<Void> copyGroup(List<Path> group, long size, Function<Path, Path> targetOf,
+                                              CopyCounter counter, Executor executor) {
+        return hashAll(group, Math.min(size, PREFIX_SIZE), counter, executor).thenComposeAsync(prefixGroups -> {
+            final List<CompletableFuture<Void>> stages = new ArrayList<>();
+            for (List<Path> candidates : prefixGroups) {
+                if (candidates.size() == 1) {
+                    stages.add(CompletableFuture.runAsync(() -> copyOne(candidates.get(0),
+                            targetOf.apply(candidates.get(0)), size, counter), executor));
+                } else if (size <= PREFIX_SIZE) {
+                    // 文件头就是全部内容，不需要再计算完整摘要
+                    stages.add(CompletableFuture.runAsync(() -> copyAndLink(candidates, size, targetOf, counter), executor));
+                } else {
+                    stages.add(hashAll(candidates, size, counter, executor).thenComposeAsync(duplicateGroups -> {
+                        final List<CompletableFuture<Void>> copies = new ArrayList<>();
+                        for (List<Path> duplicates : duplicateGroups) {
+                            copies.add(CompletableFuture.runAsync(() -> copyAndLink(duplicates, size, targetOf, counter), executor));
+                        }
+                        return allOf(copies);
+                    }, executor));
+                }
+            }
+            return allOf(stages);
+        }, executor);
+    }
+
+    /**
+     * 并行计算每个文件前 length 字节的摘要，按摘要分组并保持原有顺序，读取失败的文件记为失败
+     */
+    private CompletableFuture<Collection<List<Path>>> hashAll(List<Path> files, long length, CopyCounter counter,
+                                                             Executor executor) {
+        final List<CompletableFuture<String>> hashes = new ArrayList<>(files.size());
+        for (Path file : files) {
+            hashes.add(CompletableFuture.supplyAsync(() -> {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    return FileHashes.hash(channel, 0, length, checksumAlgorithm);
+                } catch (IOException e) {
+                    counter.fail(file, e);
+                    return null;
+                }
+            }, executor));
+        }
+        return allOf(hashes).thenApply(ignored -> {
+            final Map<String, List<Path>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < files.size(); i++) {
+                final String hash = hashes.get(i).join();
+                if (hash != null) {
+                    groups.computeIfAbsent(hash, key -> new ArrayList<>(1)).add(files.get(i));
+                }
+            }
+            return groups.values();
+        });
+    }
+
+    /**
+     * 复制内容相同的一组文件中的第一个，其余链接到它；复制失败时由下一个文件代替
+     */
+    private void copyAndLink(List<Path> duplicates, long size, Function<Path, Path> targetOf, CopyCounter counter) {
+        Path copied = null;
+        for (Path file : duplicates) {
+            final Path fileTarget = targetOf.apply(file);
+            if (copied == null) {
+                if (copyOne(file, fileTarget, size, counter)) {
+                    copied = fileTarget;
+                }
+            } else if (!link(copied, fileTarget, size, counter)) {
+                copyOne(file, fileTarget, size, counter);
+            }
+        }
+    }
+
+    private static CompletableFuture<Void> allOf(List<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    private boolean copyOne(Path source, Path target, long size, CopyCounter counter) {
+        try {
+            fileCopier.copy(source, target);
+            counter.getCopiedFiles().increment();
+            counter.getCopiedBytes().add(size);
+            return true;
+        } catch (Exception e) {
+            counter.fail(source, e);
+            return false;
+        }
+    }
+
+    /**
+     * 先在目标目录中创建临时硬链接再重命名，已存在的目标文件被原子替换
+     *
+     * @return 是否创建成功，失败时由调用方退回普通复制
+     */
+    private boolean link(Path existing, Path target, long size, CopyCounter counter) {
+        if (linkUnsupported) {
+            return false;
+        }
+        final Path temp = ChannelFileCopier.tempFileOf(target);
+        try {
+            Files.createLink(temp, existing);
+            ChannelFileCopier.moveIntoPlace(temp, target);
+            counter.getLinkedFiles().increment();
+            counter.getSavedBytes().add(size);
+            return true;
+        } catch (UnsupportedOperationException e) {
+            log.warn("DeduplicatingDirectoryCopier######link 文件系统不支持硬链接, 退回普通复制 target={}", target);
+            linkUnsupported = true;
+        } catch (IOException e) {
+            log.debug("DeduplicatingDirectoryCopier######link 创建硬链接失败, 退回普通复制 target={}", target, e);
+        }
+        ChannelFileCopier.deleteQuietly(temp);
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.Deflater;
+
+/**
+ * 将目录按相对 basePath 的层级结构直接导出为 zip 或 tar.gz 流
+ * <p>
+ * 遍历目录、读取文件和写出归档在调用线程中按顺序进行，只有压缩在线程池中按块并行执行，
+ * 条目顺序与遍历顺序一致，中间结果不会落盘。读取单个文件失败只会记录到 {@link CopyResult#getFailures()} 中，
+ * 该条目按已读取的内容结束，归档仍然完整；写出失败时直接抛出异常。
+ * <p>
+ * 结果中 copiedFiles 为写入归档的文件数，copiedBytes 为未压缩的字节数，createdDirectories 为目录条目数，
+ * 符号链接等非普通文件计入 skippedFiles。
+ *
+ * @author junzhou
+ * @date 2026/10/18 20:30
+ * @since 1.8
+ */
+@Slf4j
+public class DirectoryArchiver {
+
+    /**
+     * 默认分块大小，与 pigz 一致
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final int parallelism;
+
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    public DirectoryArchiver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 压缩线程数
+     */
+    public DirectoryArchiver(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param blockSize 并行压缩的分块大小，不能小于 32KB，块越小并行度越高，压缩率越低
+     * @return this
+     */
+    public DirectoryArchiver blockSize(int blockSize) {
+        if (blockSize < ParallelDeflater.DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("分块大小不能小于 " + ParallelDeflater.DICTIONARY_SIZE);
+        }
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * @param level 压缩级别 0-9，默认为 {@link Deflater#DEFAULT_COMPRESSION}
+     * @return this
+     */
+    public DirectoryArchiver level(int level) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("压缩级别必须在 0-9 之间");
+        }
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * 导出目录到归档文件，先写入同目录下的临时文件，完成后原子替换
+     *
+     * @param sourceDir   源目录
+     * @param basePath    要保持的基准路径
+     * @param archiveFile 归档文件，格式由扩展名决定
+     * @return 导出结果
+     * @throws IOException 遍历源目录或写出归档失败
+     */
+    public CopyResult export(Path sourceDir, Path basePath, Path archiveFile) throws IOException {
+        final ArchiveFormat format = ArchiveFormat.fromFileName(archiveFile.getFileName().toString());
+        final Path target = archiveFile.toAbsolutePath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        final Path temp = ChannelFileCopier.tempFileOf(target);
+        try {
+            final CopyResult result;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1024 * 1024)) {
+                result = export(sourceDir, basePath, out, format);
+            }
+            ChannelFileCopier.moveIntoPlace(temp, target);
+            return result;
+        } finally {
+            ChannelFileCopier.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 导出目录到输出流
+     *
+     * @param sourceDir 源目录
+     * @param basePath  要保持的基准路径
+     * @param out       输出流，不会被关闭
+     * @param format    归档格式
+     * @return 导出结果
+     * @throws IOException 遍历源目录或写出归档失败
+     */
+    public CopyResult export(Path sourceDir, Path basePath, OutputStream out, ArchiveFormat format) throws IOException {
+        final Path source = sourceDir.toAbsolutePath();
+        final Path base = basePath.toAbsolutePath();
+        if (!source.startsWith(base)) {
+            throw new IllegalArgumentException("源目录不在指定的基准路径下");
+        }
+        final CopyCounter counter = new CopyCounter();
+        try (ParallelDeflater deflater = new ParallelDeflater(out, parallelism, blockSize, level)) {
+            final ArchiveWriter writer = format == ArchiveFormat.ZIP
+                    ? new ZipArchiveWriter(deflater) : new TarGzArchiveWriter(deflater);
+            try {
+                Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                        final String name = entryName(base, dir);
+                        if (!name.isEmpty()) {
+                            try {
+                                writer.putDirectory(name, attrs.lastModifiedTime());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            counter.getCreatedDirectories().increment();
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        counter.getTotalFiles().increment();
+                        if (!attrs.isRegularFile()) {
+                            counter.getSkippedFiles().increment();
+                            return FileVisitResult.CONTINUE;
+                        }
+                        addFile(writer, base, file, attrs, counter);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                        counter.getTotalFiles().increment();
+                        counter.fail(file, exc);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+        }
+        final CopyResult result = counter.toResult();
+        log.info("DirectoryArchiver######export 导出完成 source={}, format={}, files={}, bytes={}, failed={}, elapsed={}ms",
+                source, format, result.getCopiedFiles(), result.getCopiedBytes(), result.getFailures().size(),
+                result.getElapsedMillis());
+        return result;
+    }
+
+    private static void addFile(ArchiveWriter writer, Path base, Path file, BasicFileAttributes attrs,
+                                CopyCounter counter) {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(file);
+        } catch (IOException e) {
+            // 打不开的文件不写入归档
+            counter.fail(file, e);
+            return;
+        }
+        try (FileChannel source = channel) {
+            writer.putFile(entryName(base, file), source, attrs.size(), attrs.lastModifiedTime());
+            counter.getCopiedFiles().increment();
+            counter.getCopiedBytes().add(attrs.size());
+        } catch (ArchiveWriter.SourceReadException e) {
+            counter.fail(file, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String entryName(Path base, Path path) {
+        return base.relativize(path).toString().replace('\\', '/');
+    }
+}
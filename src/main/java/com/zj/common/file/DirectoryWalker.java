@@ -0,0 +1,547 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 带过滤条件的目录遍历
+ * <p>
+ * 1. 按需遍历，结果通过回调或者惰性的 Stream 返回，不会把整棵目录树放进 List；<br>
+ * 2. 支持 glob / 扩展名过滤、最大深度限制，被排除的目录整棵子树都不会进入；<br>
+ * 3. 可选的并行遍历，每个子目录作为一个 fork-join 任务；<br>
+ * 4. 默认遇到 IOException 直接抛出，设置 {@link #onError(BiConsumer)} 后交给处理器并继续遍历；<br>
+ * 5. 跟随符号链接时，指向祖先目录的链接不会进入，与 {@link Files#walkFileTree} 一样以 {@link FileSystemLoopException} 报告。
+ * <p>
+ * glob 中不包含 '/' 时只匹配文件名，否则匹配相对遍历根目录的路径，例如 {@code *.md}、{@code docs/**.md}。
+ * 深度的定义与 {@link Files#walk(Path, int, java.nio.file.FileVisitOption...)} 一致，根目录的深度为 0。
+ *
+ * @author junzhou
+ * @date 2026/10/18 16:30
+ * @since 1.8
+ */
+@Slf4j
+public class DirectoryWalker {
+
+    private final List<Glob> includes = new ArrayList<>();
+
+    private final List<Glob> excludeDirectories = new ArrayList<>();
+
+    private final List<String> extensions = new ArrayList<>();
+
+    private int maxDepth = Integer.MAX_VALUE;
+
+    private boolean includeDirectories;
+
+    private boolean followLinks;
+
+    private BiConsumer<Path, IOException> errorHandler;
+
+    /**
+     * @param globs 文件需要匹配的 glob，多个之间是或的关系
+     * @return this
+     */
+    public DirectoryWalker glob(String... globs) {
+        for (String glob : globs) {
+            includes.add(new Glob(glob));
+        }
+        return this;
+    }
+
+    /**
+     * @param extensions 文件扩展名，如 md、html，不区分大小写，多个之间是或的关系
+     * @return this
+     */
+    public DirectoryWalker extensions(String... extensions) {
+        for (String extension : extensions) {
+            final String normalized = extension.startsWith(".") ? extension : "." + extension;
+            this.extensions.add(normalized.toLowerCase(Locale.ROOT));
+        }
+        return this;
+    }
+
+    /**
+     * @param globs 需要跳过的目录，匹配的目录整棵子树都不会遍历，如 .git、node_modules
+     * @return this
+     */
+    public DirectoryWalker excludeDirectories(String... globs) {
+        for (String glob : globs) {
+            excludeDirectories.add(new Glob(glob));
+        }
+        return this;
+    }
+
+    /**
+     * @param maxDepth 最大遍历深度，1 表示只遍历根目录下的直接子项
+     * @return this
+     */
+    public DirectoryWalker maxDepth(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("最大深度不能小于 0");
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * @param includeDirectories 结果中是否包含目录，包含目录时文件过滤条件同样作用于目录
+     * @return this
+     */
+    public DirectoryWalker includeDirectories(boolean includeDirectories) {
+        this.includeDirectories = includeDirectories;
+        return this;
+    }
+
+    /**
+     * @param followLinks 是否跟随符号链接，跟随时指向祖先目录的链接作为 {@link FileSystemLoopException} 交给错误处理
+     * @return this
+     */
+    public DirectoryWalker followLinks(boolean followLinks) {
+        this.followLinks = followLinks;
+        return this;
+    }
+
+    /**
+     * @param errorHandler 遍历出错时的处理器，设置后出错的路径被跳过，遍历继续进行
+     * @return this
+     */
+    public DirectoryWalker onError(BiConsumer<Path, IOException> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    /**
+     * 遍历目录，每个符合条件的路径回调一次
+     *
+     * @param root     遍历的根目录
+     * @param consumer 路径的处理逻辑
+     * @throws IOException 遍历出错且没有设置错误处理器
+     */
+    public void walk(Path root, Consumer<Path> consumer) throws IOException {
+        try (WalkIterator iterator = new WalkIterator(root)) {
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 惰性遍历目录，使用完毕后需要关闭返回的 Stream
+     *
+     * @param root 遍历的根目录
+     * @return 符合条件的路径，遍历出错且没有设置错误处理器时抛出 {@link UncheckedIOException}
+     * @throws IOException 打开根目录失败
+     */
+    public Stream<Path> stream(Path root) throws IOException {
+        final WalkIterator iterator = new WalkIterator(root);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * 并行遍历目录，每个子目录作为一个独立的任务，回调的顺序不确定，consumer 需要是线程安全的
+     *
+     * @param root        遍历的根目录
+     * @param parallelism 并发数
+     * @param consumer    路径的处理逻辑
+     * @throws IOException 遍历出错且没有设置错误处理器，其余的异常作为 suppressed 附加在第一个异常上
+     */
+    public void walkParallel(Path root, int parallelism, Consumer<Path> consumer) throws IOException {
+        final ConcurrentLinkedQueue<IOException> errors = new ConcurrentLinkedQueue<>();
+        final BiConsumer<Path, IOException> handler = errorHandler != null
+                ? errorHandler : (path, e) -> errors.add(e);
+        final BasicFileAttributes rootAttributes;
+        try {
+            rootAttributes = readAttributes(root);
+        } catch (IOException e) {
+            handle(handler, root, e);
+            throwIfFailed(errors);
+            return;
+        }
+        if (!rootAttributes.isDirectory()) {
+            if (matches(root, root, false)) {
+                consumer.accept(root);
+            }
+            return;
+        }
+        if (includeDirectories && includes.isEmpty() && extensions.isEmpty()) {
+            consumer.accept(root);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new DirectoryTask(root, new Ancestor(root, rootAttributes, null), 0, consumer, handler));
+        } finally {
+            pool.shutdown();
+        }
+        throwIfFailed(errors);
+    }
+
+    private static void throwIfFailed(ConcurrentLinkedQueue<IOException> errors) throws IOException {
+        final IOException first = errors.poll();
+        if (first == null) {
+            return;
+        }
+        IOException other;
+        while ((other = errors.poll()) != null) {
+            first.addSuppressed(other);
+        }
+        throw first;
+    }
+
+    private BasicFileAttributes readAttributes(Path path) throws IOException {
+        return followLinks
+                ? Files.readAttributes(path, BasicFileAttributes.class)
+                : Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private boolean isExcluded(Path root, Path directory) {
+        for (Glob glob : excludeDirectories) {
+            if (glob.matches(root, directory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(Path root, Path path, boolean directory) {
+        if (directory && !includeDirectories) {
+            return false;
+        }
+        if (!extensions.isEmpty()) {
+            final String name = String.valueOf(path.getFileName()).toLowerCase(Locale.ROOT);
+            boolean matched = false;
+            for (String extension : extensions) {
+                if (name.endsWith(extension)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (Glob glob : includes) {
+            if (glob.matches(root, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 跟随符号链接时判断 directory 是否是当前路径上的某个祖先目录；不跟随时符号链接不会被当作目录，不会形成环
+     */
+    private boolean isLoop(Ancestor ancestor, Path directory, BasicFileAttributes attributes) {
+        if (!followLinks) {
+            return false;
+        }
+        final Object fileKey = attributes.fileKey();
+        for (Ancestor current = ancestor; current != null; current = current.parent) {
+            if (fileKey != null && current.fileKey != null) {
+                if (fileKey.equals(current.fileKey)) {
+                    return true;
+                }
+            } else {
+                try {
+                    if (Files.isSameFile(directory, current.directory)) {
+                        return true;
+                    }
+                } catch (IOException e) {
+                    // 无法比较时按不是同一个目录处理，与 Files.walkFileTree 一致
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void handle(BiConsumer<Path, IOException> handler, Path path, IOException e) {
+        if (handler == null) {
+            throw new UncheckedIOException(e);
+        }
+        handler.accept(path, e);
+    }
+
+    /**
+     * glob 匹配，不包含 '/' 时只匹配文件名
+     */
+    private static class Glob {
+        private final String pattern;
+        private final boolean nameOnly;
+        private volatile PathMatcher matcher;
+        private volatile FileSystem fileSystem;
+
+        private Glob(String pattern) {
+            this.pattern = pattern;
+            this.nameOnly = pattern.indexOf('/') < 0;
+        }
+
+        private boolean matches(Path root, Path path) {
+            final Path target = nameOnly ? path.getFileName() : root.relativize(path);
+            return target != null && matcherOf(path.getFileSystem()).matches(target);
+        }
+
+        private PathMatcher matcherOf(FileSystem current) {
+            PathMatcher result = matcher;
+            if (result == null || fileSystem != current) {
+                result = current.getPathMatcher("glob:" + pattern);
+                fileSystem = current;
+                matcher = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 基于目录栈的惰性遍历
+     */
+    private class WalkIterator implements Iterator<Path>, Closeable {
+        private final Path root;
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private Path nextPath;
+        private boolean started;
+
+        private WalkIterator(Path root) throws IOException {
+            this.root = root;
+            // 根目录不可访问时直接抛出
+            readAttributes(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextPath == null) {
+                nextPath = advance();
+            }
+            return nextPath != null;
+        }
+
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Path result = nextPath;
+            nextPath = null;
+            return result;
+        }
+
+        private Path advance() {
+            if (!started) {
+                started = true;
+                final Path first = start();
+                if (first != null) {
+                    return first;
+                }
+            }
+            while (!stack.isEmpty()) {
+                final Frame frame = stack.peek();
+                final Path path;
+                try {
+                    if (!frame.iterator.hasNext()) {
+                        stack.pop().close();
+                        continue;
+                    }
+                    path = frame.iterator.next();
+                } catch (DirectoryIteratorException e) {
+                    stack.pop().close();
+                    handle(errorHandler, frame.directory, e.getCause());
+                    continue;
+                }
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = readAttributes(path);
+                } catch (IOException e) {
+                    handle(errorHandler, path, e);
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    if (isExcluded(root, path)) {
+                        continue;
+                    }
+                    if (frame.depth + 1 < maxDepth) {
+                        if (isLoop(frame.ancestor, path, attributes)) {
+                            handle(errorHandler, path, new FileSystemLoopException(path.toString()));
+                            continue;
+                        }
+                        push(new Ancestor(path, attributes, frame.ancestor), frame.depth + 1);
+                    }
+                    if (matches(root, path, true)) {
+                        return path;
+                    }
+                } else if (matches(root, path, false)) {
+                    return path;
+                }
+            }
+            return null;
+        }
+
+        private Path start() {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = readAttributes(root);
+            } catch (IOException e) {
+                handle(errorHandler, root, e);
+                return null;
+            }
+            if (!attributes.isDirectory()) {
+                return matches(root, root, false) ? root : null;
+            }
+            if (maxDepth > 0) {
+                push(new Ancestor(root, attributes, null), 0);
+            }
+            return includeDirectories && includes.isEmpty() && extensions.isEmpty() ? root : null;
+        }
+
+        private void push(Ancestor directory, int depth) {
+            try {
+                stack.push(new Frame(directory, Files.newDirectoryStream(directory.directory), depth));
+            } catch (IOException e) {
+                handle(errorHandler, directory.directory, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            while (!stack.isEmpty()) {
+                stack.pop().close();
+            }
+        }
+    }
+
+    /**
+     * 从根目录到当前目录路径上的一个目录，fileKey 为 null 的文件系统上用 {@link Files#isSameFile} 比较
+     */
+    private static class Ancestor {
+        private final Path directory;
+        private final Object fileKey;
+        private final Ancestor parent;
+
+        private Ancestor(Path directory, BasicFileAttributes attributes, Ancestor parent) {
+            this.directory = directory;
+            this.fileKey = attributes.fileKey();
+            this.parent = parent;
+        }
+    }
+
+    private static class Frame {
+        private final Path directory;
+        private final Ancestor ancestor;
+        private final DirectoryStream<Path> stream;
+        private final Iterator<Path> iterator;
+        private final int depth;
+
+        private Frame(Ancestor ancestor, DirectoryStream<Path> stream, int depth) {
+            this.directory = ancestor.directory;
+            this.ancestor = ancestor;
+            this.stream = stream;
+            this.iterator = stream.iterator();
+            this.depth = depth;
+        }
+
+        private void close() {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.warn("DirectoryWalker######close 关闭目录失败 directory={}", directory, e);
+            }
+        }
+    }
+
+    /**
+     * 并行遍历时一个目录对应的任务
+     */
+    private class DirectoryTask extends RecursiveAction {
+        private final Path root;
+        private final Ancestor ancestor;
+        private final Path directory;
+        private final int depth;
+        private final Consumer<Path> consumer;
+        private final BiConsumer<Path, IOException> handler;
+
+        private DirectoryTask(Path root, Ancestor ancestor, int depth, Consumer<Path> consumer,
+                              BiConsumer<Path, IOException> handler) {
+            this.root = root;
+            this.ancestor = ancestor;
+            this.directory = ancestor.directory;
+            this.depth = depth;
+            this.consumer = consumer;
+            this.handler = handler;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= maxDepth) {
+                return;
+            }
+            final List<DirectoryTask> subTasks = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    final BasicFileAttributes attributes;
+                    try {
+                        attributes = readAttributes(path);
+                    } catch (IOException e) {
+                        handler.accept(path, e);
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        if (isExcluded(root, path)) {
+                            continue;
+                        }
+                        if (depth + 1 < maxDepth && isLoop(ancestor, path, attributes)) {
+                            handler.accept(path, new FileSystemLoopException(path.toString()));
+                            continue;
+                        }
+                        if (matches(root, path, true)) {
+                            consumer.accept(path);
+                        }
+                        final DirectoryTask task = new DirectoryTask(root, new Ancestor(path, attributes, ancestor),
+                                depth + 1, consumer, handler);
+                        task.fork();
+                        subTasks.add(task);
+                    } else if (matches(root, path, false)) {
+                        consumer.accept(path);
+                    }
+                }
+            } catch (IOException e) {
+                handler.accept(directory, e);
+            } catch (DirectoryIteratorException e) {
+                handler.accept(directory, e.getCause());
+            }
+            for (DirectoryTask task : subTasks) {
+                task.join();
+            }
+        }
+    }
+}
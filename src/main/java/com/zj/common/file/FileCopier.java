@@ -0,0 +1,31 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 单个文件的复制策略，目录复制时每个文件都会交给它来完成
+ *
+ * @author junzhou
+ * @date 2026/10/18 10:12
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface FileCopier {
+
+    /**
+     * 默认的复制策略: Files.copy 覆盖已存在的目标文件
+     */
+    FileCopier REPLACE_EXISTING = (source, target) -> Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+
+    /**
+     * 复制文件，调用方保证目标文件的父目录已经存在
+     *
+     * @param source 源文件
+     * @param target 目标文件
+     * @throws IOException 复制失败
+     */
+    void copy(Path source, Path target) throws IOException;
+}
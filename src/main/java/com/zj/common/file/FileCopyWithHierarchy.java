@@ -10,6 +10,11 @@ import java.nio.file.attribute.BasicFileAttributes;
 @Slf4j
 public class FileCopyWithHierarchy {
 
+    /**
+     * 单文件复制使用的 FileChannel 复制，先写临时文件再原子重命名
+     */
+    private static final ChannelFileCopier CHANNEL_FILE_COPIER = new ChannelFileCopier();
+
     public static void main(String[] args) {
         // 示例用法
         String sourcePath = "/Desktop/tengxun-oss/zbus/blog202406040032944.webp";
@@ -51,7 +56,7 @@ public class FileCopyWithHierarchy {
             Files.createDirectories(target.getParent());
             // 复制文件
             Path source = Paths.get(sourcePath).toAbsolutePath();
-            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            CHANNEL_FILE_COPIER.copy(source, target);
         } catch (Exception e) {
             System.err.println("复制文件时出错: " + e.getMessage());
         }
@@ -85,7 +90,7 @@ public class FileCopyWithHierarchy {
         Files.createDirectories(targetPath.getParent());
 
         // 复制文件
-        Files.copy(source, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        CHANNEL_FILE_COPIER.copy(source, targetPath);
     }
 
     /**
@@ -123,4 +128,87 @@ public class FileCopyWithHierarchy {
             }
         });
     }
+
+    /**
+     * 并行复制整个目录并保持层级结构，单个文件复制失败不会中断复制过程
+     *
+     * @param sourceDir    源目录
+     * @param targetFolder 目标文件夹
+     * @param basePath     要保持的基准路径
+     * @param parallelism  复制文件的并发数
+     * @return 复制结果，包含每个失败文件的错误信息
+     * @throws IOException 遍历源目录失败
+     */
+    public static CopyResult copyDirectoryWithHierarchy(String sourceDir, String targetFolder, String basePath,
+                                                        int parallelism) throws IOException {
+        return new ParallelDirectoryCopier(parallelism)
+                .copy(Paths.get(sourceDir), Paths.get(basePath), Paths.get(targetFolder));
+    }
+
+    /**
+     * 限速并行复制整个目录并保持层级结构，所有复制线程共享 limiter 的速率和并发数，limiter 可在复制过程中调整
+     *
+     * @param sourceDir    源目录
+     * @param targetFolder 目标文件夹
+     * @param basePath     要保持的基准路径
+     * @param parallelism  复制文件的并发数
+     * @param limiter      I/O 限流器
+     * @return 复制结果，包含每个失败文件的错误信息
+     * @throws IOException 遍历源目录失败
+     */
+    public static CopyResult copyDirectoryWithHierarchy(String sourceDir, String targetFolder, String basePath,
+                                                        int parallelism, IoRateLimiter limiter) throws IOException {
+        return new ParallelDirectoryCopier(parallelism, new ThrottledFileCopier(limiter))
+                .copy(Paths.get(sourceDir), Paths.get(basePath), Paths.get(targetFolder));
+    }
+
+    /**
+     * 去重复制整个目录并保持层级结构，内容相同的文件只复制一次，其余以硬链接代替
+     *
+     * @param sourceDir    源目录
+     * @param targetFolder 目标文件夹
+     * @param basePath     要保持的基准路径
+     * @param parallelism  并发数
+     * @return 复制结果，savedBytes 为以硬链接代替复制而节省的字节数
+     * @throws IOException 遍历源目录失败
+     */
+    public static CopyResult copyDirectoryWithDedup(String sourceDir, String targetFolder, String basePath,
+                                                    int parallelism) throws IOException {
+        return new DeduplicatingDirectoryCopier(parallelism)
+                .copy(Paths.get(sourceDir), Paths.get(basePath), Paths.get(targetFolder));
+    }
+
+    /**
+     * 将整个目录按层级结构直接导出为 zip 或 tar.gz 归档，压缩在多个线程中并行执行
+     *
+     * @param sourceDir   源目录
+     * @param archiveFile 归档文件，格式由扩展名 .zip、.tar.gz 或 .tgz 决定
+     * @param basePath    要保持的基准路径
+     * @param parallelism 压缩线程数
+     * @return 导出结果，包含每个读取失败文件的错误信息
+     * @throws IOException 遍历源目录或写出归档失败
+     */
+    public static CopyResult exportDirectoryWithHierarchy(String sourceDir, String archiveFile, String basePath,
+                                                          int parallelism) throws IOException {
+        return new DirectoryArchiver(parallelism)
+                .export(Paths.get(sourceDir), Paths.get(basePath), Paths.get(archiveFile));
+    }
+
+    /**
+     * 增量同步整个目录并保持层级结构，只复制相对上一次同步新增或变化的文件
+     *
+     * @param sourceDir        源目录
+     * @param targetFolder     目标文件夹
+     * @param basePath         要保持的基准路径
+     * @param manifestPath     同步清单文件路径
+     * @param deleteExtraneous 是否删除源目录中已经不存在的目标文件
+     * @return 同步结果
+     * @throws IOException 读取或保存清单失败、遍历源目录失败
+     */
+    public static CopyResult syncDirectoryWithHierarchy(String sourceDir, String targetFolder, String basePath,
+                                                        String manifestPath, boolean deleteExtraneous) throws IOException {
+        return new IncrementalDirectorySync()
+                .deleteExtraneous(deleteExtraneous)
+                .sync(Paths.get(sourceDir), Paths.get(basePath), Paths.get(targetFolder), Paths.get(manifestPath));
+    }
 }
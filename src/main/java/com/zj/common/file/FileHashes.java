@@ -0,0 +1,111 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 文件内容摘要的工具方法
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:10
+ * @since 1.8
+ */
+final class FileHashes {
+
+    /**
+     * 默认的摘要算法
+     */
+    static final String DEFAULT_ALGORITHM = "SHA-256";
+
+    /**
+     * 计算摘要时使用的读缓冲区大小
+     */
+    static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * 每个线程复用一个直接内存缓冲区，避免大文件读取时反复申请堆内存
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private FileHashes() {
+    }
+
+    static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("不支持的摘要算法: " + algorithm, e);
+        }
+    }
+
+    /**
+     * @return 当前线程复用的读缓冲区，已经 clear
+     */
+    static ByteBuffer buffer() {
+        final ByteBuffer buffer = BUFFER.get();
+        ((Buffer) buffer).clear();
+        return buffer;
+    }
+
+    /**
+     * 流式计算整个文件的摘要
+     *
+     * @param path      文件路径
+     * @param algorithm 摘要算法
+     * @return 十六进制摘要
+     * @throws IOException 读取文件失败
+     */
+    static String hash(Path path, String algorithm) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return hash(channel, 0, channel.size(), algorithm);
+        }
+    }
+
+    /**
+     * 使用定位读流式计算文件中一段区域的摘要，多个线程可以共享同一个 channel
+     *
+     * @param channel   文件 channel
+     * @param position  起始位置
+     * @param length    长度
+     * @param algorithm 摘要算法
+     * @return 十六进制摘要
+     * @throws IOException 读取文件失败
+     */
+    static String hash(FileChannel channel, long position, long length, String algorithm) throws IOException {
+        final MessageDigest digest = newDigest(algorithm);
+        final ByteBuffer buffer = buffer();
+        long offset = position;
+        final long end = position + length;
+        while (offset < end) {
+            ((Buffer) buffer).clear();
+            if (end - offset < buffer.capacity()) {
+                ((Buffer) buffer).limit((int) (end - offset));
+            }
+            final int read = channel.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+            ((Buffer) buffer).flip();
+            digest.update(buffer);
+        }
+        return toHex(digest.digest());
+    }
+
+    static String toHex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,218 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 按行流式处理文件，内存占用与文件大小无关
+ * <p>
+ * 与 {@link FileUtils#readLines(String)} 不同，这里的方法不会把整个文件读入 List，读取失败时直接抛出异常。
+ * 并行处理时文件按字节范围切分，每个范围的边界都对齐到行首，各个范围在不同的线程中独立处理。
+ *
+ * @author junzhou
+ * @date 2026/10/18 14:40
+ * @since 1.8
+ */
+public final class FileLines {
+
+    /**
+     * 并行处理时每个分块的最小字节数
+     */
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * 每个线程对应的分块数，分块多一些可以平衡各个线程的负载
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private FileLines() {
+    }
+
+    /**
+     * 逐行处理文件内容
+     *
+     * @param path     文件路径
+     * @param consumer 每一行的处理逻辑
+     * @throws IOException 读取文件失败
+     */
+    public static void forEachLine(Path path, Consumer<String> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ChannelLineReader reader = new ChannelLineReader(channel, 0, channel.size());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                consumer.accept(line);
+            }
+        }
+    }
+
+    /**
+     * 按行惰性读取文件，使用完毕后需要关闭返回的迭代器
+     *
+     * @param path 文件路径
+     * @return 行迭代器
+     * @throws IOException 打开文件失败
+     */
+    public static LineIterator iterator(Path path) throws IOException {
+        return new LineIterator(path);
+    }
+
+    /**
+     * 按行惰性读取文件，使用完毕后需要关闭返回的 Stream，读取失败时抛出 {@link UncheckedIOException}
+     *
+     * @param path 文件路径
+     * @return 行内容组成的 Stream
+     * @throws IOException 打开文件失败
+     */
+    public static Stream<String> stream(Path path) throws IOException {
+        final LineIterator iterator = iterator(path);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * 多线程逐行处理文件内容，行的处理顺序不确定，consumer 需要是线程安全的
+     *
+     * @param path        文件路径
+     * @param parallelism 并发数
+     * @param consumer    每一行的处理逻辑
+     * @throws IOException 读取文件失败
+     */
+    public static void forEachLineParallel(Path path, int parallelism, Consumer<String> consumer) throws IOException {
+        processChunks(path, parallelism, () -> consumer, Consumer::accept);
+    }
+
+    /**
+     * 按行首对齐的字节范围切分文件，多线程处理每个范围，每个范围使用独立的累加器，不需要额外的同步
+     *
+     * @param path        文件路径
+     * @param parallelism 并发数
+     * @param supplier    为每个范围创建累加器
+     * @param accumulator 将一行内容累加到累加器中
+     * @param <R>         累加器类型
+     * @return 每个范围的累加器，按在文件中的顺序排列，调用方自行合并
+     * @throws IOException 读取文件失败
+     */
+    public static <R> List<R> processChunks(Path path, int parallelism, Supplier<R> supplier,
+                                            BiConsumer<R, String> accumulator) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final List<long[]> ranges = split(channel, channel.size(), parallelism * CHUNKS_PER_WORKER);
+            final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                    Math.max(1, ranges.size()), "file-lines");
+            final List<Future<R>> futures = new ArrayList<>(ranges.size());
+            try {
+                for (long[] range : ranges) {
+                    futures.add(executor.submit(() -> {
+                        final R result = supplier.get();
+                        final ChannelLineReader reader = new ChannelLineReader(channel, range[0], range[1]);
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            accumulator.accept(result, line);
+                        }
+                        return result;
+                    }));
+                }
+                final List<R> results = new ArrayList<>(futures.size());
+                for (Future<R> future : futures) {
+                    results.add(getResult(future));
+                }
+                return results;
+            } finally {
+                for (Future<R> future : futures) {
+                    future.cancel(true);
+                }
+                BoundedExecutors.shutdownAndAwait(executor);
+            }
+        }
+    }
+
+    /**
+     * 将文件切分为不超过 chunks 个字节范围，除第一个范围外每个范围都从一行的行首开始
+     *
+     * @return [start, end) 列表
+     */
+    static List<long[]> split(FileChannel channel, long size, int chunks) throws IOException {
+        final List<long[]> ranges = new ArrayList<>();
+        if (size == 0) {
+            return ranges;
+        }
+        final long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+        final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkSize >= size ? size : nextLineStart(channel, start + chunkSize, size, buffer);
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /**
+     * @return from 之后（包含 from）第一个行首的位置，即 from - 1 之后第一个换行符的下一个位置
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer buffer) throws IOException {
+        long position = from - 1;
+        while (position < size) {
+            ((Buffer) buffer).clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return size;
+            }
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static <R> R getResult(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("按行处理文件被中断", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
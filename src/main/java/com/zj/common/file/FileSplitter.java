@@ -0,0 +1,337 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 超大文件的并行分块与合并
+ * <p>
+ * 分块时按固定大小把文件切成若干分块文件，多个线程共享同一个源文件 channel 做定位读，边写分块文件边计算摘要，
+ * 分块文件先写临时文件再原子重命名，全部完成后写出 {@link SplitManifest} 清单。
+ * <p>
+ * 合并时先写入目标文件旁的 {@code .partial} 文件，每个分块在复制的同时校验摘要，多个线程对同一个 channel 做定位写。
+ * 分块文件缺失或校验不通过时保留 {@code .partial} 文件并在结果中给出损坏的分块；重新获取这些分块后再次合并，
+ * 已经写入且校验通过的区域直接复用，只从第一个损坏的分块开始补写。全部分块校验通过后才原子重命名为目标文件。
+ *
+ * @author junzhou
+ * @date 2026/10/18 22:20
+ * @since 1.8
+ */
+@Slf4j
+public class FileSplitter {
+
+    /**
+     * 默认分块大小 64MB
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * 合并过程中的目标文件后缀
+     */
+    public static final String PARTIAL_SUFFIX = ".partial";
+
+    /**
+     * 每个工作线程对应的排队任务数
+     */
+    private static final int QUEUE_SIZE_PER_WORKER = 4;
+
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int parallelism = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private String checksumAlgorithm = FileHashes.DEFAULT_ALGORITHM;
+
+    /**
+     * @param chunkSize 分块大小，默认 64MB
+     * @return this
+     */
+    public FileSplitter chunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("分块大小必须大于 0");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param parallelism 同时读写的分块数，默认为 CPU 核数
+     * @return this
+     */
+    public FileSplitter parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param checksumAlgorithm 分块摘要算法，默认为 SHA-256，合并时使用清单中记录的算法
+     * @return this
+     */
+    public FileSplitter checksum(String checksumAlgorithm) {
+        FileHashes.newDigest(checksumAlgorithm);
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    /**
+     * @param fileName 原文件名
+     * @return 清单文件名 {@code <文件名>.manifest.json}，分块文件名为 {@code <文件名>.partNNNNN}
+     */
+    public static String manifestFileName(String fileName) {
+        return fileName + SplitManifest.SUFFIX;
+    }
+
+    /**
+     * 把文件切成固定大小的分块文件，分块文件和清单写入 outputDir
+     *
+     * @param source    源文件
+     * @param outputDir 输出目录，不存在时自动创建
+     * @return 清单，已经保存为 outputDir 下的 {@code <文件名>.manifest.json}
+     * @throws IOException 读取源文件或写出分块失败，已经写出的分块文件不会删除
+     */
+    public SplitManifest split(Path source, Path outputDir) throws IOException {
+        final long start = System.currentTimeMillis();
+        final String fileName = source.getFileName().toString();
+        Files.createDirectories(outputDir);
+        final SplitManifest manifest = new SplitManifest();
+        manifest.setFileName(fileName);
+        manifest.setChunkSize(chunkSize);
+        manifest.setAlgorithm(checksumAlgorithm);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            final long fileSize = in.size();
+            manifest.setFileSize(fileSize);
+            final int chunkCount = (int) ((fileSize + chunkSize - 1) / chunkSize);
+            final int digits = Math.max(5, String.valueOf(chunkCount - 1).length());
+            for (int i = 0; i < chunkCount; i++) {
+                final long offset = i * chunkSize;
+                final String partName = String.format("%s.part%0" + digits + "d", fileName, i);
+                manifest.getChunks().add(new SplitManifest.Chunk(i, offset,
+                        Math.min(chunkSize, fileSize - offset), null, partName));
+            }
+            final List<Future<String>> futures = new ArrayList<>(chunkCount);
+            final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                    parallelism * QUEUE_SIZE_PER_WORKER, "file-split");
+            try {
+                for (SplitManifest.Chunk chunk : manifest.getChunks()) {
+                    futures.add(executor.submit(() -> writePart(in, chunk, outputDir.resolve(chunk.getFileName()))));
+                }
+                for (int i = 0; i < chunkCount; i++) {
+                    manifest.getChunks().get(i).setHash(await(futures.get(i)));
+                }
+            } finally {
+                futures.forEach(future -> future.cancel(false));
+                BoundedExecutors.shutdownAndAwait(executor);
+            }
+        }
+        manifest.save(outputDir.resolve(manifestFileName(fileName)));
+        log.info("FileSplitter######split 分块完成 source={} chunks={} elapsed={}ms", source,
+                manifest.getChunks().size(), System.currentTimeMillis() - start);
+        return manifest;
+    }
+
+    /**
+     * 按清单校验并合并分块文件，分块文件与清单位于同一目录
+     * <p>
+     * 目标文件旁已经存在 {@code .partial} 文件时视为续传：并行校验其中每个分块区域，通过的直接复用，其余重新写入。
+     *
+     * @param manifestFile 清单文件
+     * @param target       目标文件
+     * @return 合并结果，complete 为 false 时 badChunks 给出需要重新获取的分块
+     * @throws IOException 读取清单或读写目标文件失败
+     */
+    public MergeResult merge(Path manifestFile, Path target) throws IOException {
+        final long start = System.currentTimeMillis();
+        final SplitManifest manifest = SplitManifest.load(manifestFile);
+        checkContiguous(manifest, manifestFile);
+        final Path partDir = manifestFile.toAbsolutePath().getParent();
+        final Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        final List<SplitManifest.Chunk> chunks = manifest.getChunks();
+        final String algorithm = manifest.getAlgorithm() == null ? FileHashes.DEFAULT_ALGORITHM : manifest.getAlgorithm();
+        final MergeResult result = new MergeResult();
+        result.setTotalChunks(chunks.size());
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        final boolean resume = Files.exists(partial);
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * QUEUE_SIZE_PER_WORKER, "file-merge");
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final boolean[] reused = new boolean[chunks.size()];
+            if (resume) {
+                final long existingSize = out.size();
+                final List<Future<Boolean>> futures = new ArrayList<>(chunks.size());
+                for (SplitManifest.Chunk chunk : chunks) {
+                    futures.add(chunk.getOffset() + chunk.getLength() > existingSize ? null : executor.submit(() ->
+                            chunk.getHash().equalsIgnoreCase(FileHashes.hash(out, chunk.getOffset(), chunk.getLength(), algorithm))));
+                }
+                for (int i = 0; i < chunks.size(); i++) {
+                    reused[i] = futures.get(i) != null && await(futures.get(i));
+                }
+            }
+            final List<Future<Boolean>> futures = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                final SplitManifest.Chunk chunk = chunks.get(i);
+                futures.add(reused[i] ? null : executor.submit(() -> writeChunk(partDir.resolve(chunk.getFileName()), chunk, out, algorithm)));
+            }
+            for (int i = 0; i < chunks.size(); i++) {
+                if (reused[i]) {
+                    result.setReusedChunks(result.getReusedChunks() + 1);
+                } else if (await(futures.get(i))) {
+                    result.setWrittenChunks(result.getWrittenChunks() + 1);
+                } else {
+                    result.getBadChunks().add(i);
+                }
+            }
+            if (out.size() > manifest.getFileSize()) {
+                out.truncate(manifest.getFileSize());
+            }
+            if (result.getBadChunks().isEmpty()) {
+                out.force(true);
+            }
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        if (result.getBadChunks().isEmpty()) {
+            ChannelFileCopier.moveIntoPlace(partial, target);
+            result.setComplete(true);
+        } else {
+            result.setFirstBadChunk(result.getBadChunks().get(0));
+            log.error("FileSplitter######merge 存在缺失或损坏的分块 manifest={} badChunks={}", manifestFile, result.getBadChunks());
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * 定位读出源文件中的一个分块写入分块文件，同时计算摘要
+     */
+    private String writePart(FileChannel in, SplitManifest.Chunk chunk, Path part) throws IOException {
+        final Path temp = ChannelFileCopier.tempFileOf(part);
+        try {
+            final String hash;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE)) {
+                hash = copyRange(in, chunk.getOffset(), chunk.getLength(), out, 0, FileHashes.newDigest(checksumAlgorithm));
+                if (hash == null) {
+                    throw new IOException("源文件在分块过程中被截断, 分块: " + chunk.getIndex());
+                }
+            }
+            ChannelFileCopier.moveIntoPlace(temp, part);
+            return hash;
+        } finally {
+            ChannelFileCopier.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 把一个分块文件写入目标文件的对应区域，同时校验长度和摘要
+     *
+     * @return 分块文件存在且校验通过
+     */
+    private boolean writeChunk(Path part, SplitManifest.Chunk chunk, FileChannel out, String algorithm) {
+        try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+            if (in.size() != chunk.getLength()) {
+                log.error("FileSplitter######writeChunk 分块文件长度不符 part={} expected={} actual={}", part,
+                        chunk.getLength(), in.size());
+                return false;
+            }
+            final String hash = copyRange(in, 0, chunk.getLength(), out, chunk.getOffset(), FileHashes.newDigest(algorithm));
+            if (hash == null || !hash.equalsIgnoreCase(chunk.getHash())) {
+                log.error("FileSplitter######writeChunk 分块摘要不符 part={} expected={} actual={}", part, chunk.getHash(), hash);
+                return false;
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            log.error("FileSplitter######writeChunk 分块文件不存在 part={}", part);
+            return false;
+        } catch (IOException e) {
+            log.error("FileSplitter######writeChunk 写入分块失败 part={}", part, e);
+            return false;
+        }
+    }
+
+    /**
+     * 使用定位读写复制一段区域并计算摘要，多个线程可以共享输入和输出 channel
+     *
+     * @return 十六进制摘要，输入提前结束时返回 null
+     */
+    private static String copyRange(FileChannel in, long position, long length, FileChannel out, long outPosition,
+                                    MessageDigest digest) throws IOException {
+        final ByteBuffer buffer = FileHashes.buffer();
+        long copied = 0;
+        while (copied < length) {
+            ((Buffer) buffer).clear();
+            if (length - copied < buffer.capacity()) {
+                ((Buffer) buffer).limit((int) (length - copied));
+            }
+            final int read = in.read(buffer, position + copied);
+            if (read < 0) {
+                return null;
+            }
+            ((Buffer) buffer).flip();
+            digest.update(buffer);
+            ((Buffer) buffer).rewind();
+            long written = outPosition + copied;
+            while (buffer.hasRemaining()) {
+                written += out.write(buffer, written);
+            }
+            copied += read;
+        }
+        return FileHashes.toHex(digest.digest());
+    }
+
+    private static void checkContiguous(SplitManifest manifest, Path manifestFile) throws IOException {
+        long expectedOffset = 0;
+        for (int i = 0; i < manifest.getChunks().size(); i++) {
+            final SplitManifest.Chunk chunk = manifest.getChunks().get(i);
+            if (chunk.getIndex() != i || chunk.getOffset() != expectedOffset || chunk.getLength() < 0
+                    || chunk.getHash() == null || !isPlainFileName(chunk.getFileName())) {
+                throw new IOException("分块清单不连续或缺少字段: " + manifestFile + ", 分块: " + i);
+            }
+            expectedOffset += chunk.getLength();
+        }
+        if (expectedOffset != manifest.getFileSize()) {
+            throw new IOException("分块总长度与文件大小不符: " + manifestFile);
+        }
+    }
+
+    /**
+     * 分块文件名不能包含路径，避免清单引用分块目录之外的文件
+     */
+    private static boolean isPlainFileName(String name) {
+        return name != null && !name.isEmpty() && !".".equals(name) && !"..".equals(name)
+                && name.indexOf('/') < 0 && name.indexOf('\\') < 0;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待分块任务时被中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
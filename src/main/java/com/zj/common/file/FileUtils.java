@@ -2,8 +2,6 @@ package com.zj.common.file;
 
 import com.zj.common.json.JsonUtil;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.util.CollectionUtils;
-import org.springframework.util.StringUtils;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -12,7 +10,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -26,7 +23,32 @@ import java.util.stream.Stream;
 public class FileUtils {
 
     /**
-     * 按行读取文件内容信息
+     * 单文件复制使用的 FileChannel 复制，先写临时文件再原子重命名
+     */
+    private static final ChannelFileCopier CHANNEL_FILE_COPIER = new ChannelFileCopier();
+
+    /**
+     * 基于内存映射的关键字查找
+     */
+    private static final MappedKeywordSearcher KEYWORD_SEARCHER = new MappedKeywordSearcher();
+
+    /**
+     * 需要迁移的图片链接前缀
+     */
+    private static final String FILE_LINK_PREFIX = "https://zj134-file.cpolar.cn/file/";
+
+    /**
+     * 匹配以 FILE_LINK_PREFIX 开头的链接
+     */
+    private static final Pattern FILE_LINK_PATTERN = Pattern.compile(Pattern.quote(FILE_LINK_PREFIX) + "[^\\s\"']+");
+
+    /**
+     * 查找以 FILE_LINK_PREFIX 开头的链接
+     */
+    private static final LinkInventory FILE_LINK_INVENTORY = new LinkInventory(FILE_LINK_PREFIX);
+
+    /**
+     * 按行读取文件内容信息，整个文件会被读入内存，大文件请使用 {@link FileLines} 流式处理
      *
      * @param pathString 读取文件内容信息的 path
      * @return 每一行的内容信息
@@ -54,10 +76,10 @@ public class FileUtils {
      * @param pathString 文件路径
      * @param keyword    查询的关键字
      * @return 在该文件中查询到的文件内容 <行号, 行内容>
-     * 其返回的值，将按照行号排序
+     * 其返回的值，将按照行号排序；持续增长的日志文件请使用 {@link KeywordFollower} 只查找新追加的内容
      */
     public static Map<Integer, String> findContentByKeyWord(String pathString, String keyword) {
-        Map<Integer, String> result = new HashMap<>();
+        Map<Integer, String> result = new TreeMap<>();
         final Path path = Paths.get(pathString);
         // 文件是否存在
         final boolean isExists = Files.exists(path);
@@ -65,88 +87,65 @@ public class FileUtils {
             final String message = String.format("%s 文件不存在！", pathString);
             throw new RuntimeException(message);
         }
-        try (final FileInputStream fileInputStream = new FileInputStream(pathString);
-             final InputStreamReader inputStreamReader = new InputStreamReader(fileInputStream, StandardCharsets.UTF_8);
-             final LineNumberReader reader = new LineNumberReader(inputStreamReader)) {
-            String line = "";
-            while (Objects.nonNull(line = reader.readLine())) {
-                if (line.contains(keyword)) {
-                    result.put(reader.getLineNumber(), line);
-                }
-            }
+        try {
+            final SortedMap<Long, String> lines = KEYWORD_SEARCHER.search(path, Collections.singletonList(keyword));
+            lines.forEach((lineNumber, line) -> result.put(lineNumber.intValue(), line));
         } catch (IOException exception) {
             log.error("findContentByKeyWord: 读取文件发生异常！", exception);
         }
         return result;
     }
 
+    /**
+     * 查询目录下的所有文件和目录路径，大目录请使用 {@link DirectoryWalker} 按需遍历
+     *
+     * @param directoryPath 目录路径
+     * @return 所有文件和目录的路径，包括目录本身
+     */
     public static List<String> findAllFilePaths(String directoryPath) {
         List<String> result = new ArrayList<>();
-        Path startPath = Paths.get(directoryPath);
-        try (Stream<Path> paths = Files.walk(startPath)) {
-            paths.forEach(filePath -> {
-                // 打印文件或目录的路径
-                System.out.println(filePath);
-                result.add(filePath.toString());
-            });
+        try {
+            new DirectoryWalker()
+                    .includeDirectories(true)
+                    .onError((path, e) -> log.warn("findAllFilePaths: 遍历路径发生异常！path={}", path, e))
+                    .walk(Paths.get(directoryPath), filePath -> result.add(filePath.toString()));
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("findAllFilePaths: 遍历目录发生异常！", e);
         }
         return result;
     }
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
         String path = "/Users/zj/IdeaProjects/zj/zj-blogs/blog";
-        List<String> filePathList = findAllFilePaths(path);
-        Set<String> fileList = new HashSet<>();
-        filePathList.forEach(filePath -> {
-            boolean isMdFile = filePath.endsWith(".md");
-            if (!isMdFile) {
-                return;
-            }
-            List<String> allLines = readLines(filePath);
-            if (CollectionUtils.isEmpty(allLines)) {
-                return;
-            }
-            List<String> allLinks = findLinks(filePath);
-            log.info("当前文件: {},中所有的图片链接为: {}", filePath, JsonUtil.toJSONString(allLinks));
-            if (CollectionUtils.isEmpty(allLines)) {
-                return;
-            }
-            replaceLinksInPlace(filePath, "/images");
-//            allLinks.forEach(oneLink -> {
-//                String[] split = oneLink.split("https://zj134-file\\.cpolar\\.cn/file/");
-//                if (split.length == 2) {
-//                    String fileName = split[1];
-//                    if (fileName.endsWith(")")) {
-//                        fileName = fileName.replace(")", "");
-//                    }
-//                    if (StringUtils.hasText(fileName)) {
-//                        fileList.add(fileName);
-//                    }
-//                } else {
-//                    System.out.println("异常 line: " + oneLink);
-//                }
-//            });
-
-        });
-        log.info("图片链接数:{}, 所有链接为: {} ", fileList.size(), JsonUtil.toJSONString(fileList));
-
-//        String path = "/Users/zj/IdeaProjects/zj/zj-blogs/docs/08-面试相关/2024-05-13-00-17-30-redis xiang-guan-mian-shi-ti-gui-zong.md";
-
-//        String basePath = "/Users/zj/Desktop/tengxun-oss";
-//        String targetDirPath = "/Users/zj/IdeaProjects/zj/zj-blogs/static/images";
-//        Set<String> errorSet = new HashSet<>();
-//        fileList.forEach(filePath -> {
-//            log.info("处理当前文件 path: " + filePath);
-//            String baseFilePath = basePath + "/" + filePath;
-//            copyFile(baseFilePath, basePath, targetDirPath, errorSet);
-//        });
-//        log.info("出现异常的文件路径为: {}", JsonUtil.toJSONString(errorSet));
-
+        String basePath = "/Users/zj/Desktop/tengxun-oss";
+        String targetDirPath = "/Users/zj/IdeaProjects/zj/zj-blogs/static/images";
+        MigrationResult result = new ImageMigrationPipeline(FILE_LINK_PREFIX, Paths.get(basePath),
+                Paths.get(targetDirPath), "/images/")
+                .checkpoint(Paths.get(path, ".image-migration.checkpoint"))
+                .run(Paths.get(path));
+        log.info("迁移结果: {}", JsonUtil.toJSONString(result));
     }
 
     public static void copyFile(String sourcePath, String sourceDirPath, String targetDirPath, Set<String> errorSet) {
+        copyFile(sourcePath, sourceDirPath, targetDirPath, errorSet, CHANNEL_FILE_COPIER);
+    }
+
+    /**
+     * 限速复制文件，多次调用共用同一个 limiter 时共享速率配额
+     *
+     * @param sourcePath    源文件路径
+     * @param sourceDirPath 源文件的基准目录
+     * @param targetDirPath 目标目录
+     * @param errorSet      复制失败的源文件路径
+     * @param limiter       I/O 限流器
+     */
+    public static void copyFile(String sourcePath, String sourceDirPath, String targetDirPath, Set<String> errorSet,
+                                IoRateLimiter limiter) {
+        copyFile(sourcePath, sourceDirPath, targetDirPath, errorSet, new ThrottledFileCopier(limiter));
+    }
+
+    private static void copyFile(String sourcePath, String sourceDirPath, String targetDirPath, Set<String> errorSet,
+                                 FileCopier fileCopier) {
         try {
             String[] split = sourcePath.split(sourceDirPath);
             if (split.length != 2) {
@@ -165,7 +164,7 @@ public class FileUtils {
                 log.info("当前文件已经存在了，不进行复制：newPath:{}", newPath);
                 return;
             }
-            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+            fileCopier.copy(source, target);
         } catch (Exception e) {
             log.error("复制文件时出错： sourcePath:{}, sourceDirPath:{}, targetDirPath:{}",
                     sourcePath, sourceDirPath, targetDirPath, e);
@@ -173,59 +172,34 @@ public class FileUtils {
         }
     }
 
+    /**
+     * 查找文件中 https://zj134-file.cpolar.cn/file/ 开头的链接，按 UTF-8 流式读取
+     *
+     * @param filePath 文件路径
+     * @return 去重后的链接，按第一次出现的顺序排列；读取失败时返回已找到的部分
+     */
     public static List<String> findLinks(String filePath) {
-        List<String> result = new ArrayList<>();
-        // 定义正则表达式模式，匹配以 https://img.zbus.top/ 开头的URL
-        String patternString = "https://zj134-file\\.cpolar\\.cn/file/[^\\s\"']+";
-        Pattern pattern = Pattern.compile(patternString);
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                Matcher matcher = pattern.matcher(line);
-                while (matcher.find()) {
-                    result.add(matcher.group());
-                }
-            }
+        final Set<String> links = new LinkedHashSet<>();
+        try {
+            FILE_LINK_INVENTORY.findLinks(Paths.get(filePath), links::add);
         } catch (Exception exception) {
             log.error("findLinks: 读取文件发生异常！", exception);
         }
-        return result;
+        return new ArrayList<>(links);
     }
 
+    /**
+     * 将文件中 https://zj134-file.cpolar.cn/file/ 开头的链接替换为 replacement 开头，流式改写后原子替换原文件
+     *
+     * @param filePath    文件路径
+     * @param replacement 新的链接前缀，如 /images
+     * @return 替换次数，出现异常时返回 0
+     */
     public static int replaceLinksInPlace(String filePath, String replacement) {
         try {
-            // 创建临时备份文件
-            String backupPath = filePath + ".bak";
-            Files.copy(Paths.get(filePath), Paths.get(backupPath), StandardCopyOption.REPLACE_EXISTING);
-
-            // 定义正则表达式模式
-            String patternString = "https://zj134-file\\.cpolar\\.cn/file/[^\\s\"']+";
-            Pattern pattern = Pattern.compile(patternString);
-            int count = 0;
-            // 读取原始文件内容到内存
-            String content = new String(Files.readAllBytes(Paths.get(filePath)));
-            // 执行替换
-            Matcher matcher = pattern.matcher(content);
-            StringBuffer sb = new StringBuffer();
-            while (matcher.find()) {
-                count++;
-                String group = matcher.group();
-                String[] split = group.split("https://zj134-file\\.cpolar\\.cn/file/");
-                if (split.length == 2) {
-                    String fileName = split[1];
-                    String curReplacement = replacement + "/" + fileName;
-                    matcher.appendReplacement(sb, curReplacement);
-                } else {
-                    System.out.println("异常 line: " + group);
-                }
-            }
-            matcher.appendTail(sb);
-            // 将修改后的内容写回原文件
-            Files.write(Paths.get(filePath), sb.toString().getBytes());
-
-            // 删除备份文件（如果成功）
-            Files.deleteIfExists(Paths.get(backupPath));
-            return count;
+            final LinkRewriteRule rule = new LinkRewriteRule(FILE_LINK_PATTERN,
+                    link -> replacement + "/" + link.substring(FILE_LINK_PREFIX.length()));
+            return new LinkRewriter(rule).rewrite(Paths.get(filePath));
         } catch (Exception e) {
             log.error("出现异常了: ", e);
         }
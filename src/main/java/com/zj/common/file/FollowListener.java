@@ -0,0 +1,32 @@
+package com.zj.common.file;
+
+import java.nio.file.Path;
+
+/**
+ * {@link KeywordFollower} 的回调，在调用 poll 的线程或监听线程中执行
+ *
+ * @author junzhou
+ * @date 2026/10/18 21:40
+ * @since 1.8
+ */
+@FunctionalInterface
+public interface FollowListener {
+
+    /**
+     * 新追加的内容中有包含关键字的行
+     *
+     * @param file       文件路径
+     * @param lineNumber 行号，从 1 开始
+     * @param line       行内容，不包含换行符
+     */
+    void onMatch(Path file, long lineNumber, String line);
+
+    /**
+     * 文件被截断或轮转，之后从新文件的开头重新计算行号
+     *
+     * @param file   文件路径
+     * @param reason 原因，truncated 或 rotated
+     */
+    default void onReset(Path file, String reason) {
+    }
+}
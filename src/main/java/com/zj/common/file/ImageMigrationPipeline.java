@@ -0,0 +1,539 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Markdown 图片迁移流水线: 扫描文档 → 提取链接 → 复制图片 → 改写链接
+ * <p>
+ * 各阶段之间通过有界队列连接，下游处理不过来时上游自动阻塞；每个阶段有独立的线程数，
+ * 上游阶段的线程全部结束后向下游放入与下游线程数相同的结束标记，依次关闭整条流水线。
+ * <p>
+ * 文档的所有图片复制成功并改写完成后才会记入检查点文件，中断后再次运行会跳过检查点中的文档。
+ * 任一图片复制失败的文档不会被改写，失败信息按阶段记录在 {@link MigrationResult} 中，修复后重新运行即可。
+ * <p>
+ * 图片的相对路径为链接去掉前缀后的部分（去掉末尾的右括号、查询参数和锚点），
+ * 从 assetSourceDir 复制到 assetTargetDir 的相同相对路径下，目标已存在时跳过。
+ *
+ * @author junzhou
+ * @date 2026/10/18 18:30
+ * @since 1.8
+ */
+@Slf4j
+public class ImageMigrationPipeline {
+
+    public static final String STAGE_SCAN = "scan";
+
+    public static final String STAGE_EXTRACT = "extract";
+
+    public static final String STAGE_COPY = "copy";
+
+    public static final String STAGE_REWRITE = "rewrite";
+
+    private static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+
+    private static final String CHECKPOINT_HEADER = "# zj-migration-checkpoint v1";
+
+    /**
+     * 结束标记
+     */
+    private static final Task POISON = new Task(null, null);
+
+    private final String linkPrefix;
+
+    private final Path assetSourceDir;
+
+    private final Path assetTargetDir;
+
+    private final String replacementPrefix;
+
+    private String[] extensions = {"md"};
+
+    private int extractWorkers = DEFAULT_WORKERS;
+
+    private int copyWorkers = DEFAULT_WORKERS * 2;
+
+    private int rewriteWorkers = DEFAULT_WORKERS;
+
+    private int queueCapacity = 256;
+
+    private Path checkpointFile;
+
+    private FileCopier fileCopier = new ChannelFileCopier();
+
+    /**
+     * @param linkPrefix        需要迁移的链接前缀，如 https://zj134-file.cpolar.cn/file/
+     * @param assetSourceDir    图片所在的本地目录，相对路径与链接去掉前缀后的部分一致
+     * @param assetTargetDir    图片复制到的目录
+     * @param replacementPrefix 改写后的链接前缀，如 /images/
+     */
+    public ImageMigrationPipeline(String linkPrefix, Path assetSourceDir, Path assetTargetDir,
+                                  String replacementPrefix) {
+        this.linkPrefix = linkPrefix;
+        this.assetSourceDir = assetSourceDir.toAbsolutePath().normalize();
+        this.assetTargetDir = assetTargetDir.toAbsolutePath().normalize();
+        this.replacementPrefix = replacementPrefix;
+    }
+
+    /**
+     * @param extensions 需要迁移的文档扩展名，默认为 md
+     * @return this
+     */
+    public ImageMigrationPipeline extensions(String... extensions) {
+        this.extensions = extensions.clone();
+        return this;
+    }
+
+    /**
+     * @param extractWorkers 提取链接的线程数
+     * @return this
+     */
+    public ImageMigrationPipeline extractWorkers(int extractWorkers) {
+        this.extractWorkers = checkPositive(extractWorkers);
+        return this;
+    }
+
+    /**
+     * @param copyWorkers 复制图片的线程数，复制是 IO 密集的，默认为 CPU 核数的 2 倍
+     * @return this
+     */
+    public ImageMigrationPipeline copyWorkers(int copyWorkers) {
+        this.copyWorkers = checkPositive(copyWorkers);
+        return this;
+    }
+
+    /**
+     * @param rewriteWorkers 改写链接的线程数
+     * @return this
+     */
+    public ImageMigrationPipeline rewriteWorkers(int rewriteWorkers) {
+        this.rewriteWorkers = checkPositive(rewriteWorkers);
+        return this;
+    }
+
+    /**
+     * @param queueCapacity 阶段之间队列的长度
+     * @return this
+     */
+    public ImageMigrationPipeline queueCapacity(int queueCapacity) {
+        this.queueCapacity = checkPositive(queueCapacity);
+        return this;
+    }
+
+    /**
+     * @param checkpointFile 检查点文件，为 null 时不记录检查点，每次都全量迁移
+     * @return this
+     */
+    public ImageMigrationPipeline checkpoint(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        return this;
+    }
+
+    /**
+     * @param fileCopier 复制图片的方式，默认为 {@link ChannelFileCopier}
+     * @return this
+     */
+    public ImageMigrationPipeline fileCopier(FileCopier fileCopier) {
+        this.fileCopier = fileCopier;
+        return this;
+    }
+
+    /**
+     * 迁移目录下的所有文档，阻塞直到流水线执行完成
+     *
+     * @param documentDir 文档目录
+     * @return 执行结果
+     * @throws IOException          读写检查点文件失败
+     * @throws InterruptedException 等待时被中断，已启动的线程会被一并中断
+     */
+    public MigrationResult run(Path documentDir) throws IOException, InterruptedException {
+        final long start = System.currentTimeMillis();
+        final Path root = documentDir.toAbsolutePath().normalize();
+        try (Checkpoint checkpoint = new Checkpoint(checkpointFile)) {
+            final Run run = new Run(root, checkpoint);
+            run.execute();
+            final MigrationResult result = run.toResult();
+            result.setElapsedMillis(System.currentTimeMillis() - start);
+            return result;
+        }
+    }
+
+    private static int checkPositive(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("参数必须大于 0");
+        }
+        return value;
+    }
+
+    /**
+     * 在流水线中流转的文档
+     */
+    private static final class Task {
+        private final Path document;
+        private final String relativePath;
+        private List<String> links = Collections.emptyList();
+
+        private Task(Path document, String relativePath) {
+            this.document = document;
+            this.relativePath = relativePath;
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageHandler {
+
+        /**
+         * @param task 待处理的文档
+         * @return 是否交给下一阶段
+         * @throws Exception 处理失败，文档不再交给下一阶段
+         */
+        boolean handle(Task task) throws Exception;
+    }
+
+    /**
+     * 一次流水线执行的状态
+     */
+    private final class Run {
+        private final Path root;
+        private final Checkpoint checkpoint;
+        private final LinkInventory inventory = new LinkInventory(linkPrefix);
+        private final LinkRewriter rewriter = new LinkRewriter(LinkRewriteRule.prefix(linkPrefix, replacementPrefix));
+        private final BlockingQueue<Task> extractQueue = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Task> copyQueue = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Task> rewriteQueue = new ArrayBlockingQueue<>(queueCapacity);
+        /**
+         * 同一张图片被多个文档引用时只复制一次，其余文档等待第一次复制的结果
+         */
+        private final ConcurrentHashMap<Path, CompletableFuture<Boolean>> assets = new ConcurrentHashMap<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final ConcurrentLinkedQueue<String[]> failures = new ConcurrentLinkedQueue<>();
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder resumed = new LongAdder();
+        private final LongAdder migrated = new LongAdder();
+        private final LongAdder copied = new LongAdder();
+        private final LongAdder existing = new LongAdder();
+        private final LongAdder rewritten = new LongAdder();
+
+        private Run(Path root, Checkpoint checkpoint) {
+            this.root = root;
+            this.checkpoint = checkpoint;
+        }
+
+        private void execute() throws InterruptedException {
+            startStage(STAGE_EXTRACT, extractWorkers, extractQueue, copyQueue, copyWorkers, this::extract);
+            startStage(STAGE_COPY, copyWorkers, copyQueue, rewriteQueue, rewriteWorkers, this::copyAssets);
+            startStage(STAGE_REWRITE, rewriteWorkers, rewriteQueue, null, 0, this::rewrite);
+            final Thread scanner = new Thread(this::scan, "migration-" + STAGE_SCAN);
+            scanner.setDaemon(true);
+            threads.add(scanner);
+            scanner.start();
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                threads.forEach(Thread::interrupt);
+                throw e;
+            }
+        }
+
+        private void scan() {
+            try {
+                new DirectoryWalker()
+                        .extensions(extensions)
+                        .onError((path, e) -> fail(STAGE_SCAN, path.toString(), e))
+                        .walk(root, document -> {
+                            scanned.increment();
+                            final String relativePath = toRelative(document);
+                            if (checkpoint.contains(relativePath)) {
+                                resumed.increment();
+                                return;
+                            }
+                            try {
+                                extractQueue.put(new Task(document, relativePath));
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException("扫描文档时被中断", e);
+                            }
+                        });
+            } catch (Exception e) {
+                log.error("ImageMigrationPipeline######scan 扫描文档发生异常 root={}", root, e);
+                fail(STAGE_SCAN, root.toString(), e);
+            } finally {
+                signalEnd(extractQueue, extractWorkers);
+            }
+        }
+
+        private boolean extract(Task task) throws IOException {
+            task.links = inventory.findLinks(task.document);
+            return true;
+        }
+
+        private boolean copyAssets(Task task) throws InterruptedException {
+            boolean success = true;
+            for (String link : task.links) {
+                final Path relative;
+                try {
+                    relative = assetPath(link);
+                } catch (IllegalArgumentException e) {
+                    fail(STAGE_COPY, task.relativePath + " -> " + link, e);
+                    success = false;
+                    continue;
+                }
+                final CompletableFuture<Boolean> future = new CompletableFuture<>();
+                final CompletableFuture<Boolean> existingFuture = assets.putIfAbsent(relative, future);
+                if (existingFuture == null) {
+                    try {
+                        future.complete(copyAsset(relative));
+                    } finally {
+                        // 保证等待同一张图片的其他线程不会一直阻塞
+                        future.complete(false);
+                    }
+                    success &= future.getNow(false);
+                } else {
+                    try {
+                        success &= existingFuture.get();
+                    } catch (ExecutionException e) {
+                        success = false;
+                    }
+                }
+            }
+            if (!success) {
+                log.warn("ImageMigrationPipeline######copyAssets 存在复制失败的图片, 不改写文档 document={}", task.document);
+            }
+            return success;
+        }
+
+        private boolean copyAsset(Path relative) {
+            final Path source = assetSourceDir.resolve(relative);
+            final Path target = assetTargetDir.resolve(relative);
+            try {
+                if (Files.exists(target)) {
+                    existing.increment();
+                    return true;
+                }
+                if (!Files.isRegularFile(source)) {
+                    throw new NoSuchFileException(source.toString());
+                }
+                if (target.getParent() != null) {
+                    Files.createDirectories(target.getParent());
+                }
+                fileCopier.copy(source, target);
+                copied.increment();
+                return true;
+            } catch (Exception e) {
+                log.error("ImageMigrationPipeline######copyAsset 复制图片发生异常 source={}", source, e);
+                fail(STAGE_COPY, source.toString(), e);
+                return false;
+            }
+        }
+
+        private boolean rewrite(Task task) throws IOException {
+            if (!task.links.isEmpty()) {
+                rewritten.add(rewriter.rewrite(task.document));
+            }
+            checkpoint.add(task.relativePath);
+            migrated.increment();
+            return false;
+        }
+
+        /**
+         * 启动一个阶段的所有线程，最后一个结束的线程负责通知下游阶段
+         */
+        private void startStage(String stage, int workers, BlockingQueue<Task> input, BlockingQueue<Task> output,
+                                int downstreamWorkers, StageHandler handler) {
+            final AtomicInteger running = new AtomicInteger(workers);
+            for (int i = 0; i < workers; i++) {
+                final Thread thread = new Thread(() -> {
+                    try {
+                        Task task;
+                        while ((task = input.take()) != POISON) {
+                            try {
+                                if (handler.handle(task) && output != null) {
+                                    output.put(task);
+                                }
+                            } catch (InterruptedException e) {
+                                throw e;
+                            } catch (Exception e) {
+                                log.error("ImageMigrationPipeline######{} 处理文档发生异常 document={}",
+                                        stage, task.document, e);
+                                fail(stage, task.relativePath, e);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        if (running.decrementAndGet() == 0 && output != null) {
+                            signalEnd(output, downstreamWorkers);
+                        }
+                    }
+                }, "migration-" + stage + "-" + (i + 1));
+                thread.setDaemon(true);
+                threads.add(thread);
+                thread.start();
+            }
+        }
+
+        private void signalEnd(BlockingQueue<Task> queue, int workers) {
+            for (int i = 0; i < workers; i++) {
+                try {
+                    queue.put(POISON);
+                } catch (InterruptedException e) {
+                    // 整条流水线已被中断，下游线程同样会被中断退出
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 链接去掉前缀、末尾的右括号、查询参数和锚点后，作为图片的相对路径
+         */
+        private Path assetPath(String link) {
+            String name = link.substring(linkPrefix.length());
+            final int end = indexOfAny(name, '?', '#');
+            if (end >= 0) {
+                name = name.substring(0, end);
+            }
+            while (name.endsWith(")")) {
+                name = name.substring(0, name.length() - 1);
+            }
+            final Path relative = assetSourceDir.getFileSystem().getPath(name).normalize();
+            if (name.isEmpty() || relative.isAbsolute() || relative.startsWith("..")) {
+                throw new IllegalArgumentException("链接不是有效的图片路径: " + link);
+            }
+            return relative;
+        }
+
+        private String toRelative(Path document) {
+            return root.relativize(document.toAbsolutePath().normalize()).toString().replace('\\', '/');
+        }
+
+        private void fail(String stage, String path, Exception e) {
+            failures.add(new String[]{stage, path, String.valueOf(e.getMessage())});
+        }
+
+        private MigrationResult toResult() {
+            final MigrationResult result = new MigrationResult();
+            result.setScannedFiles(scanned.sum());
+            result.setResumedFiles(resumed.sum());
+            result.setMigratedFiles(migrated.sum());
+            result.setCopiedAssets(copied.sum());
+            result.setExistingAssets(existing.sum());
+            result.setRewrittenLinks(rewritten.sum());
+            for (String stage : new String[]{STAGE_SCAN, STAGE_EXTRACT, STAGE_COPY, STAGE_REWRITE}) {
+                result.getFailures().put(stage, new ArrayList<>());
+            }
+            for (String[] failure : failures) {
+                result.addFailure(failure[0], failure[1], failure[2]);
+            }
+            return result;
+        }
+    }
+
+    private static int indexOfAny(String value, char first, char second) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == first || value.charAt(i) == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 检查点文件: 每行一个已完成文档的相对路径，每次追加后立即刷盘，进程被杀掉也最多丢失正在写的一行
+     */
+    private static final class Checkpoint implements Closeable {
+        private final Set<String> completed = new HashSet<>();
+        private final BufferedWriter writer;
+
+        private Checkpoint(Path file) throws IOException {
+            if (file == null) {
+                writer = null;
+                return;
+            }
+            final boolean exists = Files.exists(file) && Files.size(file) > 0;
+            final boolean complete = !exists || endsWithNewline(file);
+            if (exists) {
+                final List<String> lines = new ArrayList<>();
+                FileLines.forEachLine(file, lines::add);
+                if (!complete) {
+                    // 上次运行在写入一行时被中断，残缺的行不算完成
+                    lines.remove(lines.size() - 1);
+                }
+                for (String line : lines) {
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        completed.add(line);
+                    }
+                }
+            }
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (!exists) {
+                writeLine(CHECKPOINT_HEADER);
+            } else if (!complete) {
+                writeLine("");
+            }
+        }
+
+        private boolean contains(String relativePath) {
+            return completed.contains(relativePath);
+        }
+
+        private void add(String relativePath) throws IOException {
+            if (writer != null) {
+                writeLine(relativePath);
+            }
+        }
+
+        private synchronized void writeLine(String line) throws IOException {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        }
+
+        private static boolean endsWithNewline(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file)) {
+                if (channel.size() == 0) {
+                    return true;
+                }
+                final ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, channel.size() - 1);
+                return last.get(0) == '\n';
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 基于清单的增量目录同步，保持相对 basePath 的层级结构
+ * <p>
+ * 每次同步只把源文件的大小、最后修改时间和上一次同步保存的 {@link SyncManifest} 比较，不会访问目标目录，
+ * 两者一致的文件直接跳过。开启内容摘要时，大小一致但修改时间变化的文件会再比较一次摘要，内容没有变化同样跳过。
+ * 因此在目标目录中手工修改或删除的文件不会被发现，需要时删除清单文件即可全量同步一次。
+ * <p>
+ * 开启 deleteExtraneous 后，清单中存在而源目录中已经不存在的文件会从目标目录中删除。
+ *
+ * @author junzhou
+ * @date 2026/10/18 12:20
+ * @since 1.8
+ */
+@Slf4j
+public class IncrementalDirectorySync {
+
+    private int parallelism = ParallelDirectoryCopier.DEFAULT_PARALLELISM;
+
+    private String checksumAlgorithm;
+
+    private boolean deleteExtraneous;
+
+    /**
+     * @param parallelism 复制文件的并发数
+     * @return this
+     */
+    public IncrementalDirectorySync parallelism(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param checksumAlgorithm 内容摘要算法，如 SHA-256，为 null 时只比较大小和最后修改时间
+     * @return this
+     */
+    public IncrementalDirectorySync checksum(String checksumAlgorithm) {
+        if (checksumAlgorithm != null) {
+            FileHashes.newDigest(checksumAlgorithm);
+        }
+        this.checksumAlgorithm = checksumAlgorithm;
+        return this;
+    }
+
+    /**
+     * @param deleteExtraneous 是否删除源目录中已经不存在的目标文件
+     * @return this
+     */
+    public IncrementalDirectorySync deleteExtraneous(boolean deleteExtraneous) {
+        this.deleteExtraneous = deleteExtraneous;
+        return this;
+    }
+
+    /**
+     * 增量同步目录
+     *
+     * @param sourceDir    源目录
+     * @param basePath     要保持的基准路径
+     * @param targetDir    目标文件夹
+     * @param manifestPath 清单文件路径，不存在时进行一次全量同步
+     * @return 同步结果
+     * @throws IOException 读取或保存清单失败、遍历源目录失败
+     */
+    public CopyResult sync(Path sourceDir, Path basePath, Path targetDir, Path manifestPath) throws IOException {
+        final Path source = sourceDir.toAbsolutePath();
+        final Path base = basePath.toAbsolutePath();
+        final Path target = targetDir.toAbsolutePath();
+        if (!source.startsWith(base)) {
+            throw new IllegalArgumentException("源目录不在指定的基准路径下");
+        }
+        final SyncManifest manifest = SyncManifest.load(manifestPath);
+        final Set<String> seen = new HashSet<>(Math.max(16, manifest.size() * 4 / 3 + 1));
+        final ChannelFileCopier copier = new ChannelFileCopier().checksum(checksumAlgorithm);
+        final CopyCounter counter = new CopyCounter();
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * 64, "incremental-sync");
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    counter.getTotalFiles().increment();
+                    final String relativePath = relativePathOf(base, file);
+                    seen.add(relativePath);
+                    final long size = attrs.size();
+                    final long lastModified = attrs.lastModifiedTime().toMillis();
+                    final SyncManifest.Entry old = manifest.get(relativePath);
+                    if (old != null && old.getSize() == size && old.getLastModified() == lastModified) {
+                        counter.getSkippedFiles().increment();
+                        return FileVisitResult.CONTINUE;
+                    }
+                    executor.execute(() -> syncOne(file, target.resolve(relativePath), relativePath, size,
+                            lastModified, old, manifest, copier, counter));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    counter.getTotalFiles().increment();
+                    // 无法读取的文件不当作已删除处理
+                    seen.add(relativePathOf(base, file));
+                    counter.fail(file, exc);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        if (deleteExtraneous) {
+            deleteExtraneous(manifest, seen, target, counter);
+        }
+        manifest.save(manifestPath);
+        final CopyResult result = counter.toResult();
+        log.info("IncrementalDirectorySync######sync 同步完成 source={}, target={}, total={}, copied={}, skipped={}, deleted={}, failed={}, elapsed={}ms",
+                source, target, result.getTotalFiles(), result.getCopiedFiles(), result.getSkippedFiles(),
+                result.getDeletedFiles(), result.getFailures().size(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void syncOne(Path file, Path targetFile, String relativePath, long size, long lastModified,
+                         SyncManifest.Entry old, SyncManifest manifest, ChannelFileCopier copier, CopyCounter counter) {
+        try {
+            if (checksumAlgorithm != null && old != null && old.getSize() == size && old.getHash() != null) {
+                final String hash = FileHashes.hash(file, checksumAlgorithm);
+                if (Objects.equals(hash, old.getHash())) {
+                    // 只是修改时间变化，内容没有变化
+                    manifest.put(relativePath, new SyncManifest.Entry(size, lastModified, hash));
+                    counter.getSkippedFiles().increment();
+                    return;
+                }
+            }
+            Files.createDirectories(targetFile.getParent());
+            final TransferResult transferResult = copier.transfer(file, targetFile);
+            manifest.put(relativePath, new SyncManifest.Entry(size, lastModified, transferResult.getChecksum()));
+            counter.getCopiedFiles().increment();
+            counter.getCopiedBytes().add(transferResult.getBytes());
+        } catch (Exception e) {
+            // 失败的文件从清单中移除，下一次同步时重新复制
+            manifest.remove(relativePath);
+            counter.fail(file, e);
+        }
+    }
+
+    private static void deleteExtraneous(SyncManifest manifest, Set<String> seen, Path target, CopyCounter counter) {
+        final List<String> extraneous = new ArrayList<>();
+        for (String relativePath : manifest.paths()) {
+            if (!seen.contains(relativePath)) {
+                extraneous.add(relativePath);
+            }
+        }
+        for (String relativePath : extraneous) {
+            final Path targetFile = target.resolve(relativePath);
+            try {
+                Files.deleteIfExists(targetFile);
+                manifest.remove(relativePath);
+                counter.getDeletedFiles().increment();
+            } catch (IOException e) {
+                counter.fail(targetFile, e);
+            }
+        }
+    }
+
+    private static String relativePathOf(Path base, Path file) {
+        final String relativePath = base.relativize(file).toString();
+        return File.separatorChar == '/' ? relativePath : relativePath.replace(File.separatorChar, '/');
+    }
+}
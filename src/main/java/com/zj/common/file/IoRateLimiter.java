@@ -0,0 +1,195 @@
+package com.zj.common.file;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * I/O 限流器: 字节数/秒和文件数/秒两个令牌桶，以及同时进行的复制数上限，由所有工作线程共享
+ * <p>
+ * 令牌按速率持续生成，最多积攒 1 秒的量，空闲一段时间后允许短暂的突发。单次申请超过当前可用令牌时立即放行，
+ * 欠下的令牌由后续的申请者等待偿还，因此单次申请的量应远小于每秒的速率，{@link ThrottledFileCopier} 默认按 1MB 分块申请。
+ * <p>
+ * 速率和并发数都可以在运行时调整，正在等待的申请会按新的速率重新计算等待时间。速率小于等于 0 表示不限制。
+ *
+ * @author junzhou
+ * @date 2026/10/18 21:00
+ * @since 1.8
+ */
+public class IoRateLimiter {
+
+    private final TokenBucket bytes;
+
+    private final TokenBucket files;
+
+    private final ResizableSemaphore concurrency = new ResizableSemaphore();
+
+    /**
+     * @param bytesPerSecond 每秒复制的字节数，小于等于 0 表示不限制
+     * @param filesPerSecond 每秒开始复制的文件数，小于等于 0 表示不限制
+     */
+    public IoRateLimiter(long bytesPerSecond, double filesPerSecond) {
+        this.bytes = new TokenBucket(bytesPerSecond);
+        this.files = new TokenBucket(filesPerSecond);
+    }
+
+    /**
+     * @return 不限制速率和并发数的限流器
+     */
+    public static IoRateLimiter unlimited() {
+        return new IoRateLimiter(0, 0);
+    }
+
+    public long getBytesPerSecond() {
+        return (long) bytes.getRate();
+    }
+
+    public void setBytesPerSecond(long bytesPerSecond) {
+        bytes.setRate(bytesPerSecond);
+    }
+
+    public double getFilesPerSecond() {
+        return files.getRate();
+    }
+
+    public void setFilesPerSecond(double filesPerSecond) {
+        files.setRate(filesPerSecond);
+    }
+
+    /**
+     * @return 同时进行的复制数上限，0 表示不限制
+     */
+    public int getMaxConcurrency() {
+        return concurrency.getLimit();
+    }
+
+    /**
+     * 调整同时进行的复制数上限，调小时正在进行的复制不受影响，之后的复制等待数量降到新的上限以下
+     *
+     * @param maxConcurrency 上限，小于等于 0 表示不限制
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        concurrency.setLimit(Math.max(0, maxConcurrency));
+    }
+
+    /**
+     * 申请复制 count 字节，必要时阻塞等待
+     *
+     * @param count 字节数
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquireBytes(long count) throws InterruptedException {
+        bytes.acquire(count);
+    }
+
+    /**
+     * 申请开始复制一个文件，必要时阻塞等待
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void acquireFile() throws InterruptedException {
+        files.acquire(1);
+    }
+
+    /**
+     * 占用一个并发名额，必须与 {@link #release()} 成对调用
+     *
+     * @throws InterruptedException 等待时被中断
+     */
+    public void enter() throws InterruptedException {
+        concurrency.acquire();
+    }
+
+    /**
+     * 归还并发名额
+     */
+    public void release() {
+        concurrency.release();
+    }
+
+    /**
+     * 令牌桶，按需在申请时补充令牌，不需要后台线程
+     * <p>
+     * 令牌数不小于 0 时申请立即放行并扣除令牌，允许扣成负数；令牌数为负时申请者等待补充到 0 以上。
+     * 调整速率时唤醒所有等待者按新的速率重新计算等待时间。
+     */
+    private static final class TokenBucket {
+
+        private static final double BURST_SECONDS = 1.0;
+
+        private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+        private double rate;
+
+        private double tokens;
+
+        private long lastRefillNanos = System.nanoTime();
+
+        private TokenBucket(double rate) {
+            this.rate = Math.max(0, rate);
+        }
+
+        private synchronized double getRate() {
+            return rate;
+        }
+
+        private synchronized void setRate(double rate) {
+            refill();
+            this.rate = Math.max(0, rate);
+            tokens = Math.min(tokens, this.rate * BURST_SECONDS);
+            notifyAll();
+        }
+
+        private synchronized void acquire(double permits) throws InterruptedException {
+            while (true) {
+                refill();
+                if (rate <= 0 || tokens >= 0) {
+                    if (rate > 0) {
+                        tokens -= permits;
+                    }
+                    return;
+                }
+                final long waitNanos = (long) Math.ceil(-tokens / rate * NANOS_PER_SECOND);
+                TimeUnit.NANOSECONDS.timedWait(this, Math.max(waitNanos, 1));
+            }
+        }
+
+        private void refill() {
+            final long now = System.nanoTime();
+            if (rate > 0) {
+                tokens = Math.min(rate * BURST_SECONDS, tokens + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+            } else {
+                tokens = 0;
+            }
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * 可以在运行时调整名额的信号量，上限为 0 时不限制
+     */
+    private static final class ResizableSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        private int limit;
+
+        private ResizableSemaphore() {
+            super(Integer.MAX_VALUE / 2, true);
+        }
+
+        private synchronized int getLimit() {
+            return limit;
+        }
+
+        private synchronized void setLimit(int newLimit) {
+            final int oldPermits = limit == 0 ? Integer.MAX_VALUE / 2 : limit;
+            final int newPermits = newLimit == 0 ? Integer.MAX_VALUE / 2 : newLimit;
+            if (newPermits > oldPermits) {
+                release(newPermits - oldPermits);
+            } else if (newPermits < oldPermits) {
+                reducePermits(oldPermits - newPermits);
+            }
+            limit = newLimit;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 持续跟踪不断增长的文件（如日志），只查找新追加的内容中包含关键字的行
+ * <p>
+ * 每个文件记录已处理到的字节偏移量和下一行的行号，每次 {@link #poll()} 只读取偏移量之后新增的完整行，
+ * 不以换行符结束的最后一行等写完整之后再处理，工作量与新增的数据量成正比。
+ * 文件变小或者已处理部分开头 4KB 的 CRC 发生变化视为被截断（copytruncate 之后在两次 poll 之间又写过了原来的偏移量时文件不会变小），
+ * 文件的 fileKey（inode）变化视为被轮转：轮转时先读完旧文件剩余的内容，再从新文件的开头继续，
+ * 两种情况都会通过 {@link FollowListener#onReset(Path, String)} 通知，行号从 1 重新计算。
+ * <p>
+ * 除了主动调用 poll，也可以通过 {@link #watch(long)} 启动后台线程，由 WatchService 在文件变化时触发，
+ * 同时按间隔兜底轮询一次，避免部分平台上 WatchService 事件延迟或丢失。
+ *
+ * @author junzhou
+ * @date 2026/10/18 21:50
+ * @since 1.8
+ */
+@Slf4j
+public class KeywordFollower implements Closeable {
+
+    public static final String REASON_TRUNCATED = "truncated";
+
+    public static final String REASON_ROTATED = "rotated";
+
+    /**
+     * 默认读取缓冲区大小，遇到更长的行时自动扩大
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * 用于发现截断的文件头长度，与 {@link LineOffsetIndex} 相同
+     */
+    private static final int HEAD_SIZE = 4096;
+
+    private final List<BytePattern> patterns;
+
+    private final FollowListener listener;
+
+    private final Map<Path, FollowState> states = new LinkedHashMap<>();
+
+    private ByteBuffer buffer;
+
+    private final ByteBuffer headBuffer = ByteBuffer.allocate(HEAD_SIZE);
+
+    private WatchService watchService;
+
+    private final Set<Path> watchedDirectories = new HashSet<>();
+
+    private Thread watchThread;
+
+    public KeywordFollower(Collection<String> keywords, FollowListener listener) {
+        this(keywords, listener, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param keywords   关键字，包含任意一个即为命中
+     * @param listener   命中回调
+     * @param bufferSize 读取缓冲区大小
+     */
+    public KeywordFollower(Collection<String> keywords, FollowListener listener, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("缓冲区大小必须大于 0");
+        }
+        this.patterns = MappedKeywordSearcher.compile(keywords);
+        this.listener = listener;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * 开始跟踪文件，文件暂时不存在时等它出现后从头开始处理
+     *
+     * @param file          文件路径
+     * @param fromBeginning 是否处理文件中已有的内容，为 false 时只统计已有的行数，从当前末尾开始跟踪
+     * @throws IOException 读取文件失败
+     */
+    public synchronized void follow(Path file, boolean fromBeginning) throws IOException {
+        final Path path = file.toAbsolutePath().normalize();
+        if (states.containsKey(path)) {
+            return;
+        }
+        final FollowState state = new FollowState(path);
+        if (open(state)) {
+            if (!fromBeginning) {
+                scan(state, Collections.emptyList(), false);
+            }
+        }
+        states.put(path, state);
+        if (watchService != null) {
+            register(path.getParent());
+        }
+    }
+
+    /**
+     * 停止跟踪文件
+     *
+     * @param file 文件路径
+     */
+    public synchronized void unfollow(Path file) {
+        final FollowState state = states.remove(file.toAbsolutePath().normalize());
+        if (state != null) {
+            state.close();
+        }
+    }
+
+    /**
+     * 处理所有文件新增的内容
+     *
+     * @return 命中的行数
+     */
+    public synchronized int poll() {
+        int matches = 0;
+        for (FollowState state : new ArrayList<>(states.values())) {
+            try {
+                matches += poll(state);
+            } catch (IOException e) {
+                log.warn("KeywordFollower######poll 读取文件发生异常 file={}", state.path, e);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * 处理单个文件新增的内容
+     *
+     * @param file 文件路径
+     * @return 命中的行数
+     * @throws IOException 读取文件失败
+     */
+    public synchronized int poll(Path file) throws IOException {
+        final FollowState state = states.get(file.toAbsolutePath().normalize());
+        if (state == null) {
+            throw new IllegalArgumentException("文件没有被跟踪: " + file);
+        }
+        return poll(state);
+    }
+
+    /**
+     * @param file 文件路径
+     * @return 已处理到的字节偏移量，没有被跟踪时返回 -1
+     */
+    public synchronized long getOffset(Path file) {
+        final FollowState state = states.get(file.toAbsolutePath().normalize());
+        return state == null ? -1 : state.offset;
+    }
+
+    /**
+     * @param file 文件路径
+     * @return 下一行的行号，没有被跟踪时返回 -1
+     */
+    public synchronized long getNextLineNumber(Path file) {
+        final FollowState state = states.get(file.toAbsolutePath().normalize());
+        return state == null ? -1 : state.nextLineNumber;
+    }
+
+    /**
+     * 启动后台线程，监听被跟踪文件所在的目录，文件变化时处理新增内容
+     *
+     * @param fallbackIntervalMillis 没有收到事件时兜底轮询的间隔
+     * @throws IOException 创建 WatchService 失败
+     */
+    public synchronized void watch(long fallbackIntervalMillis) throws IOException {
+        if (watchThread != null) {
+            throw new IllegalStateException("已经在监听中");
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path path : states.keySet()) {
+            register(path.getParent());
+        }
+        final WatchService service = watchService;
+        watchThread = new Thread(() -> watchLoop(service, fallbackIntervalMillis), "keyword-follower");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * 停止监听线程并关闭所有文件
+     */
+    @Override
+    public void close() throws IOException {
+        final Thread thread;
+        synchronized (this) {
+            thread = watchThread;
+            if (watchService != null) {
+                watchService.close();
+            }
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            states.values().forEach(FollowState::close);
+            states.clear();
+            watchThread = null;
+            watchService = null;
+            watchedDirectories.clear();
+        }
+    }
+
+    private void watchLoop(WatchService service, long fallbackIntervalMillis) {
+        try {
+            while (true) {
+                final WatchKey key = service.poll(fallbackIntervalMillis, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    poll();
+                    continue;
+                }
+                final Path directory = (Path) key.watchable();
+                final Set<Path> changed = new HashSet<>();
+                boolean overflow = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        overflow = true;
+                    } else {
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+                if (overflow) {
+                    poll();
+                    continue;
+                }
+                synchronized (this) {
+                    for (Path path : changed) {
+                        final FollowState state = states.get(path);
+                        if (state != null) {
+                            try {
+                                poll(state);
+                            } catch (IOException e) {
+                                log.warn("KeywordFollower######watch 读取文件发生异常 file={}", path, e);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("KeywordFollower######watch 监听已关闭");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        if (directory != null && watchedDirectories.add(directory)) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    private int poll(FollowState state) throws IOException {
+        if (state.channel == null && !open(state)) {
+            return 0;
+        }
+        int matches = 0;
+        final Object currentKey = fileKey(state.path);
+        if (currentKey != null && state.fileKey != null && !currentKey.equals(state.fileKey)) {
+            // 文件被轮转: 读完旧文件剩余的内容（包括没有换行符的最后一行），再从新文件的开头开始
+            matches += scan(state, patterns, true);
+            state.close();
+            notifyReset(state, REASON_ROTATED);
+            if (!open(state)) {
+                return matches;
+            }
+        } else if (state.channel.size() < state.offset || crcOfHead(state.channel, state.headLength) != state.headCrc) {
+            state.offset = 0;
+            state.nextLineNumber = 1;
+            state.headLength = 0;
+            state.headCrc = crcOfHead(state.channel, 0);
+            notifyReset(state, REASON_TRUNCATED);
+        }
+        return matches + scan(state, patterns, false);
+    }
+
+    /**
+     * 处理偏移量之后新增的完整行
+     *
+     * @param includePartial 是否把文件末尾没有换行符的内容也作为一行处理
+     * @return 命中的行数
+     */
+    private int scan(FollowState state, List<BytePattern> patterns, boolean includePartial) throws IOException {
+        int matches = 0;
+        final long size = state.channel.size();
+        while (state.offset < size) {
+            ((Buffer) buffer).clear();
+            if (size - state.offset < buffer.capacity()) {
+                ((Buffer) buffer).limit((int) (size - state.offset));
+            }
+            while (buffer.hasRemaining()) {
+                if (state.channel.read(buffer, state.offset + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            final int length = buffer.position();
+            if (length == 0) {
+                break;
+            }
+            int processLength = MappedKeywordSearcher.lastLineEnd(buffer, length);
+            if (processLength == 0) {
+                if (state.offset + length < size) {
+                    // 单行超过了缓冲区大小，扩大缓冲区重新读取
+                    if (buffer.capacity() >= Integer.MAX_VALUE / 2) {
+                        throw new IOException(String.format("%s 中存在超过 %d 字节的行", state.path, buffer.capacity()));
+                    }
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                    continue;
+                }
+                if (!includePartial) {
+                    break;
+                }
+                processLength = length;
+            }
+            final SortedMap<Long, String> hits = new TreeMap<>();
+            state.nextLineNumber = MappedKeywordSearcher.collectLines(buffer, processLength, state.nextLineNumber,
+                    patterns, hits);
+            state.offset += processLength;
+            for (Map.Entry<Long, String> hit : hits.entrySet()) {
+                notifyMatch(state, hit.getKey(), hit.getValue());
+                matches++;
+            }
+        }
+        if (state.headLength < HEAD_SIZE && state.offset > state.headLength) {
+            state.headLength = (int) Math.min(HEAD_SIZE, state.offset);
+            state.headCrc = crcOfHead(state.channel, state.headLength);
+        }
+        return matches;
+    }
+
+    /**
+     * @return 文件开头 length 字节的 CRC32，文件不足 length 字节时只计算已有的部分，结果必然与之前不同
+     */
+    private long crcOfHead(FileChannel channel, int length) throws IOException {
+        ((Buffer) headBuffer).clear();
+        ((Buffer) headBuffer).limit(length);
+        while (headBuffer.hasRemaining()) {
+            if (channel.read(headBuffer, headBuffer.position()) < 0) {
+                break;
+            }
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(headBuffer.array(), 0, headBuffer.position());
+        return crc.getValue();
+    }
+
+    private boolean open(FollowState state) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(state.path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        state.channel = channel;
+        state.fileKey = fileKey(state.path);
+        state.offset = 0;
+        state.nextLineNumber = 1;
+        state.headLength = 0;
+        state.headCrc = crcOfHead(channel, 0);
+        return true;
+    }
+
+    private static Object fileKey(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            // 文件被移走还没有重新创建，继续读取旧文件
+            return null;
+        }
+    }
+
+    private void notifyMatch(FollowState state, long lineNumber, String line) {
+        try {
+            listener.onMatch(state.path, lineNumber, line);
+        } catch (RuntimeException e) {
+            log.warn("KeywordFollower######notifyMatch 回调发生异常 file={}, line={}", state.path, lineNumber, e);
+        }
+    }
+
+    private void notifyReset(FollowState state, String reason) {
+        log.info("KeywordFollower######poll 文件被重置 file={}, reason={}", state.path, reason);
+        try {
+            listener.onReset(state.path, reason);
+        } catch (RuntimeException e) {
+            log.warn("KeywordFollower######notifyReset 回调发生异常 file={}", state.path, e);
+        }
+    }
+
+    /**
+     * 单个文件的跟踪状态
+     */
+    private static final class FollowState {
+        private final Path path;
+        private FileChannel channel;
+        private Object fileKey;
+        private long offset;
+        private long nextLineNumber = 1;
+        /**
+         * 已处理部分开头 headLength 字节的 CRC32
+         */
+        private int headLength;
+        private long headCrc;
+
+        private FollowState(Path path) {
+            this.path = path;
+        }
+
+        private void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    log.warn("KeywordFollower######close 关闭文件发生异常 file={}", path, e);
+                }
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.zj.common.file;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 按行惰性读取文件的迭代器，同一时刻只在内存中保留当前行，使用完毕后需要关闭
+ * <p>
+ * 读取失败时抛出 {@link UncheckedIOException}，不会吞掉异常。
+ *
+ * @author junzhou
+ * @date 2026/10/18 14:30
+ * @since 1.8
+ */
+public class LineIterator implements Iterator<String>, Closeable {
+
+    private final FileChannel channel;
+
+    private final ChannelLineReader reader;
+
+    private String nextLine;
+
+    private boolean finished;
+
+    LineIterator(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.reader = new ChannelLineReader(channel, 0, Long.MAX_VALUE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextLine = reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (nextLine == null) {
+            finished = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String line = nextLine;
+        nextLine = null;
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        channel.close();
+    }
+}
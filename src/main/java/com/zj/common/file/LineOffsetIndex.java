@@ -0,0 +1,465 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 文件的行偏移索引，支持按行号随机读取超大文件
+ * <p>
+ * 索引记录每一行在文件中的起始位置，以变长编码的差值保存在与文件同目录的 {@code <文件名>.lidx} 中，
+ * 通常每行只占 1~2 个字节；内存中每 64 行保留一个绝对位置作为检查点，定位任意一行最多解码 63 个差值。
+ * 文件被追加内容后调用 {@link #refresh()} 只会扫描新增的部分并追加到索引文件中；
+ * 文件被截断或者开头的内容发生变化（例如日志被轮转替换）时会自动重建索引。
+ * <p>
+ * 行号从 1 开始，以 '\n' 作为行分隔符，读取时会去掉行尾的 '\r'。
+ *
+ * @author junzhou
+ * @date 2026/10/18 15:50
+ * @since 1.8
+ */
+@Slf4j
+public class LineOffsetIndex implements Closeable {
+
+    /**
+     * 索引文件后缀
+     */
+    public static final String INDEX_SUFFIX = ".lidx";
+
+    private static final int MAGIC = 0x5A4A4C49;
+
+    private static final byte VERSION = 1;
+
+    /**
+     * magic(4) + version(1) + headLength(4) + headCrc(8) + fileLength(8) + entryCount(8)
+     */
+    private static final int HEADER_SIZE = 33;
+
+    /**
+     * 用于识别文件是否被替换的文件头长度
+     */
+    private static final int HEAD_SIZE = 4096;
+
+    private static final int CHECKPOINT_SHIFT = 6;
+
+    private static final int CHECKPOINT_MASK = (1 << CHECKPOINT_SHIFT) - 1;
+
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path file;
+
+    private final Path indexFile;
+
+    private final FileChannel channel;
+
+    /**
+     * 所有行起始位置的差值，变长编码
+     */
+    private byte[] deltas = new byte[1024];
+
+    private int deltaLength;
+
+    /**
+     * 每 64 个起始位置一个检查点: 绝对位置，以及下一个差值在 deltas 中的位置
+     */
+    private long[] checkpointOffsets = new long[16];
+
+    private int[] checkpointPositions = new int[16];
+
+    /**
+     * 记录的起始位置个数，包括 0 以及每个换行符之后的位置
+     */
+    private long entryCount;
+
+    private long lastEntry;
+
+    private long indexedLength;
+
+    private int headLength;
+
+    private long headCrc;
+
+    private LineOffsetIndex(Path file) throws IOException {
+        this.file = file;
+        this.indexFile = file.resolveSibling(file.getFileName() + INDEX_SUFFIX);
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * 打开文件的行索引，索引文件存在且有效时直接加载并补充新增的内容，否则重新建立索引
+     *
+     * @param file 文件路径
+     * @return 行索引，使用完毕后需要关闭
+     * @throws IOException 读取文件或写入索引失败
+     */
+    public static LineOffsetIndex open(Path file) throws IOException {
+        final LineOffsetIndex index = new LineOffsetIndex(file);
+        try {
+            if (!index.load()) {
+                index.rebuild();
+            } else {
+                index.refresh();
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 重新扫描整个文件建立索引
+     *
+     * @param file 文件路径
+     * @return 行索引，使用完毕后需要关闭
+     * @throws IOException 读取文件或写入索引失败
+     */
+    public static LineOffsetIndex build(Path file) throws IOException {
+        final LineOffsetIndex index = new LineOffsetIndex(file);
+        try {
+            index.rebuild();
+            return index;
+        } catch (IOException | RuntimeException e) {
+            index.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 根据文件的当前状态更新索引: 追加的内容增量索引，被截断或替换时重建
+     *
+     * @return 新增的行数
+     * @throws IOException 读取文件或写入索引失败
+     */
+    public synchronized long refresh() throws IOException {
+        final long size = channel.size();
+        if (size < indexedLength || !headMatches()) {
+            log.info("LineOffsetIndex######refresh 文件被截断或替换，重建索引 file={}", file);
+            final long before = lineCount();
+            rebuild();
+            return lineCount() - before;
+        }
+        if (size == indexedLength) {
+            return 0;
+        }
+        final long before = lineCount();
+        final int deltaStart = deltaLength;
+        scan(indexedLength, size);
+        indexedLength = size;
+        if (headLength < HEAD_SIZE) {
+            computeHead();
+        }
+        appendIndex(deltaStart);
+        return lineCount() - before;
+    }
+
+    /**
+     * @return 已索引的行数
+     */
+    public synchronized long lineCount() {
+        if (entryCount == 0) {
+            return 0;
+        }
+        // 文件以换行符结尾时，最后一个起始位置还没有对应的行
+        return lastEntry == indexedLength ? entryCount - 1 : entryCount;
+    }
+
+    /**
+     * 读取指定行
+     *
+     * @param lineNumber 行号，从 1 开始
+     * @return 行内容，不含换行符
+     * @throws IOException 读取文件失败
+     */
+    public synchronized String readLine(long lineNumber) throws IOException {
+        checkLineNumber(lineNumber);
+        final long start = offsetOf(lineNumber - 1);
+        final long end = lineNumber < entryCount ? offsetOf(lineNumber) : indexedLength;
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException(String.format("%s 第 %d 行超过了 %d 字节", file, lineNumber, Integer.MAX_VALUE));
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        int length = buffer.position();
+        final byte[] bytes = buffer.array();
+        if (length > 0 && bytes[length - 1] == '\n') {
+            length--;
+        }
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取 [from, to] 范围内的行
+     *
+     * @param from 起始行号，从 1 开始
+     * @param to   结束行号（包含），超过总行数时读取到最后一行
+     * @return 行内容
+     * @throws IOException 读取文件失败
+     */
+    public synchronized List<String> readLines(long from, long to) throws IOException {
+        checkLineNumber(from);
+        final long last = Math.min(to, lineCount());
+        final List<String> lines = new ArrayList<>((int) Math.min(Math.max(0, last - from + 1), 1024));
+        if (last < from) {
+            return lines;
+        }
+        final long start = offsetOf(from - 1);
+        final long end = last < entryCount ? offsetOf(last) : indexedLength;
+        final ChannelLineReader reader = new ChannelLineReader(channel, start, end);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    public Path getIndexFile() {
+        return indexFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void checkLineNumber(long lineNumber) {
+        if (lineNumber < 1 || lineNumber > lineCount()) {
+            throw new IndexOutOfBoundsException(String.format("行号 %d 超出范围 [1, %d]", lineNumber, lineCount()));
+        }
+    }
+
+    private void rebuild() throws IOException {
+        deltaLength = 0;
+        entryCount = 0;
+        lastEntry = 0;
+        indexedLength = 0;
+        headLength = 0;
+        headCrc = 0;
+        final long size = channel.size();
+        scan(0, size);
+        indexedLength = size;
+        computeHead();
+        writeIndex();
+    }
+
+    /**
+     * 扫描 [from, to) 中的换行符，记录每个换行符之后的位置
+     */
+    private void scan(long from, long to) throws IOException {
+        if (entryCount == 0 && from < to) {
+            addEntry(0);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        final byte[] bytes = buffer.array();
+        long position = from;
+        while (position < to) {
+            ((Buffer) buffer).clear();
+            if (to - position < bytes.length) {
+                ((Buffer) buffer).limit((int) (to - position));
+            }
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    addEntry(position + i + 1);
+                }
+            }
+            position += read;
+        }
+    }
+
+    private void addEntry(long offset) {
+        final long index = entryCount;
+        if ((index & CHECKPOINT_MASK) == 0) {
+            final int checkpoint = (int) (index >>> CHECKPOINT_SHIFT);
+            if (checkpoint >= checkpointOffsets.length) {
+                checkpointOffsets = Arrays.copyOf(checkpointOffsets, checkpointOffsets.length * 2);
+                checkpointPositions = Arrays.copyOf(checkpointPositions, checkpointPositions.length * 2);
+            }
+            checkpointOffsets[checkpoint] = offset;
+            writeVarint(offset - lastEntry);
+            checkpointPositions[checkpoint] = deltaLength;
+        } else {
+            writeVarint(offset - lastEntry);
+        }
+        lastEntry = offset;
+        entryCount++;
+    }
+
+    private long offsetOf(long index) {
+        final int checkpoint = (int) (index >>> CHECKPOINT_SHIFT);
+        long offset = checkpointOffsets[checkpoint];
+        int position = checkpointPositions[checkpoint];
+        for (long i = 0, n = index & CHECKPOINT_MASK; i < n; i++) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = deltas[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            offset += delta;
+        }
+        return offset;
+    }
+
+    private void writeVarint(long value) {
+        if (deltaLength + 10 > deltas.length) {
+            deltas = Arrays.copyOf(deltas, deltas.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            deltas[deltaLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        deltas[deltaLength++] = (byte) value;
+    }
+
+    private void computeHead() throws IOException {
+        headLength = (int) Math.min(HEAD_SIZE, indexedLength);
+        headCrc = crcOfHead(headLength);
+    }
+
+    private boolean headMatches() throws IOException {
+        return crcOfHead(headLength) == headCrc;
+    }
+
+    private long crcOfHead(int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        return crc.getValue();
+    }
+
+    private ByteBuffer header() {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).putInt(headLength).putLong(headCrc).putLong(indexedLength).putLong(entryCount);
+        ((Buffer) header).flip();
+        return header;
+    }
+
+    private void writeIndex() throws IOException {
+        final Path temp = ChannelFileCopier.tempFileOf(indexFile);
+        boolean success = false;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(out, header(), 0);
+                writeFully(out, ByteBuffer.wrap(deltas, 0, deltaLength), HEADER_SIZE);
+            }
+            ChannelFileCopier.moveIntoPlace(temp, indexFile);
+            success = true;
+        } finally {
+            if (!success) {
+                ChannelFileCopier.deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * 先追加新的差值再更新文件头，中途失败时旧的文件头仍然与已写入的内容一致
+     */
+    private void appendIndex(int deltaStart) throws IOException {
+        if (!Files.exists(indexFile)) {
+            writeIndex();
+            return;
+        }
+        try (FileChannel out = FileChannel.open(indexFile, StandardOpenOption.WRITE)) {
+            writeFully(out, ByteBuffer.wrap(deltas, deltaStart, deltaLength - deltaStart), HEADER_SIZE + (long) deltaStart);
+            out.force(false);
+            writeFully(out, header(), 0);
+        }
+    }
+
+    private boolean load() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_SIZE) {
+                return false;
+            }
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(in, header, 0);
+            ((Buffer) header).flip();
+            if (header.getInt() != MAGIC || header.get() != VERSION) {
+                return false;
+            }
+            final int storedHeadLength = header.getInt();
+            final long storedHeadCrc = header.getLong();
+            final long storedLength = header.getLong();
+            final long storedCount = header.getLong();
+            if (storedLength > channel.size() || in.size() - HEADER_SIZE > Integer.MAX_VALUE) {
+                return false;
+            }
+            final ByteBuffer body = ByteBuffer.allocate((int) (in.size() - HEADER_SIZE));
+            readFully(in, body, HEADER_SIZE);
+            final byte[] bytes = body.array();
+            // 逐个解码差值，重建检查点；文件头之后多余的字节是上一次追加中途失败留下的，忽略即可
+            int position = 0;
+            long offset = 0;
+            for (long i = 0; i < storedCount; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (position >= bytes.length) {
+                        return false;
+                    }
+                    b = bytes[position++];
+                    delta |= (long) (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                offset += delta;
+                addEntry(offset);
+            }
+            indexedLength = storedLength;
+            headLength = storedHeadLength;
+            headCrc = storedHeadCrc;
+            return headMatches();
+        } catch (IOException e) {
+            log.warn("LineOffsetIndex######load 索引文件损坏，重建索引 indexFile={}", indexFile, e);
+            return false;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("索引文件不完整");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 链接清单统计
+ * <p>
+ * 用 {@link AhoCorasickMatcher} 一次遍历同时匹配所有链接前缀，匹配到前缀后向后延伸到空白或引号为止作为完整的链接，
+ * 与正则 {@code 前缀[^\s"']+} 的结果一致，但耗时与前缀数量无关。
+ * 目录扫描时每个文件先在本地去重，再合并到全局的 <链接, 文件编号> 表中，文件路径只保存一份。
+ * 实例是线程安全的。
+ *
+ * @author junzhou
+ * @date 2026/10/18 17:40
+ * @since 1.8
+ */
+@Slf4j
+public class LinkInventory {
+
+    /**
+     * 默认扫描的文件扩展名
+     */
+    private static final String[] DEFAULT_EXTENSIONS = {"md", "markdown", "html", "htm"};
+
+    private final AhoCorasickMatcher matcher;
+
+    private String[] extensions = DEFAULT_EXTENSIONS;
+
+    public LinkInventory(String... prefixes) {
+        this(Arrays.asList(prefixes));
+    }
+
+    public LinkInventory(Collection<String> prefixes) {
+        if (prefixes == null || prefixes.isEmpty()) {
+            throw new IllegalArgumentException("链接前缀不能为空");
+        }
+        this.matcher = new AhoCorasickMatcher(new ArrayList<>(new LinkedHashSet<>(prefixes)));
+    }
+
+    /**
+     * @param extensions 扫描的文件扩展名，默认为 md、markdown、html、htm
+     * @return this
+     */
+    public LinkInventory extensions(String... extensions) {
+        this.extensions = extensions.clone();
+        return this;
+    }
+
+    /**
+     * 查找单个文件中的链接
+     *
+     * @param file 文件路径
+     * @return 去重后的链接，按第一次出现的顺序排列
+     * @throws IOException 读取文件失败
+     */
+    public List<String> findLinks(Path file) throws IOException {
+        final Set<String> links = new LinkedHashSet<>();
+        findLinks(file, links::add);
+        return new ArrayList<>(links);
+    }
+
+    /**
+     * 查找单个文件中的链接，每次出现都回调一次，读取失败前已经找到的链接都已回调
+     *
+     * @param file 文件路径
+     * @param sink 链接的处理逻辑
+     * @throws IOException 读取文件失败
+     */
+    public void findLinks(Path file, Consumer<String> sink) throws IOException {
+        FileLines.forEachLine(file, line -> extractLinks(line, sink));
+    }
+
+    /**
+     * 并行扫描目录下的所有文件，统计每个链接被哪些文件引用
+     *
+     * @param directory   目录
+     * @param parallelism 并发数
+     * @return 链接清单
+     * @throws IOException 遍历目录失败
+     */
+    public LinkReport scan(Path directory, int parallelism) throws IOException {
+        final Map<String, FileRefs> index = new ConcurrentHashMap<>();
+        final List<String> files = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger nextFileId = new AtomicInteger();
+        final LongAdder occurrences = new LongAdder();
+        final ConcurrentLinkedQueue<String[]> failures = new ConcurrentLinkedQueue<>();
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * 16, "link-inventory");
+        try {
+            new DirectoryWalker()
+                    .extensions(extensions)
+                    .onError((path, e) -> failures.add(new String[]{path.toString(), String.valueOf(e.getMessage())}))
+                    .walk(directory, file -> executor.execute(() -> {
+                        final Set<String> links = new LinkedHashSet<>();
+                        try {
+                            FileLines.forEachLine(file, line -> extractLinks(line, link -> {
+                                occurrences.increment();
+                                links.add(link);
+                            }));
+                        } catch (IOException e) {
+                            log.warn("LinkInventory######scan 读取文件发生异常 file={}", file, e);
+                            failures.add(new String[]{file.toString(), String.valueOf(e.getMessage())});
+                            return;
+                        }
+                        final int fileId;
+                        synchronized (files) {
+                            fileId = nextFileId.getAndIncrement();
+                            files.add(file.toString());
+                        }
+                        for (String link : links) {
+                            index.computeIfAbsent(link, key -> new FileRefs()).add(fileId);
+                        }
+                    }));
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        final LinkReport report = new LinkReport();
+        report.setScannedFiles(files.size());
+        report.setOccurrences(occurrences.sum());
+        final Map<String, List<String>> links = new TreeMap<>();
+        index.forEach((link, refs) -> links.put(link, refs.resolve(files)));
+        report.setLinks(links);
+        for (String[] failure : failures) {
+            report.getFailures().put(failure[0], failure[1]);
+        }
+        return report;
+    }
+
+    /**
+     * 提取一行中的所有链接，链接之间不重叠，从前往后依次返回
+     *
+     * @param line 行内容
+     * @param sink 链接的处理逻辑
+     */
+    void extractLinks(String line, Consumer<String> sink) {
+        // 匹配按结束位置回调，这里把 (起始位置, 前缀结束位置) 编码成 long 收集起来，排序后从左到右取不重叠的链接
+        final long[][] matches = {null};
+        final int[] count = {0};
+        matcher.match(line, (start, end, pattern) -> {
+            if (matches[0] == null) {
+                matches[0] = new long[4];
+            } else if (count[0] == matches[0].length) {
+                matches[0] = Arrays.copyOf(matches[0], count[0] * 2);
+            }
+            matches[0][count[0]++] = ((long) start << 32) | end;
+        });
+        if (count[0] == 0) {
+            return;
+        }
+        final long[] sorted = Arrays.copyOf(matches[0], count[0]);
+        Arrays.sort(sorted);
+        int lastEnd = 0;
+        for (long match : sorted) {
+            final int start = (int) (match >>> 32);
+            final int prefixEnd = (int) match;
+            if (start < lastEnd) {
+                continue;
+            }
+            int end = prefixEnd;
+            while (end < line.length() && !isTerminator(line.charAt(end))) {
+                end++;
+            }
+            // 与正则一致，前缀之后至少要有一个字符
+            if (end == prefixEnd) {
+                continue;
+            }
+            sink.accept(line.substring(start, end));
+            lastEnd = end;
+        }
+    }
+
+    private static boolean isTerminator(char c) {
+        switch (c) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\u000B':
+            case '\f':
+            case '\r':
+            case '"':
+            case '\'':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 引用某个链接的文件编号
+     */
+    private static class FileRefs {
+        private int[] ids = new int[2];
+        private int size;
+
+        private synchronized void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private synchronized List<String> resolve(List<String> files) {
+            final int[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            final List<String> result = new ArrayList<>(size);
+            for (int id : sorted) {
+                result.add(files.get(id));
+            }
+            return result;
+        }
+    }
+}
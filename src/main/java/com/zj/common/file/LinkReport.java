@@ -0,0 +1,40 @@
+package com.zj.common.file;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 链接清单: 每个链接以及引用它的文件
+ *
+ * @author junzhou
+ * @date 2026/10/18 17:30
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+public class LinkReport {
+
+    /**
+     * <链接, 引用该链接的文件>，按链接排序，每个文件只出现一次
+     */
+    private Map<String, List<String>> links = new TreeMap<>();
+
+    /**
+     * 扫描的文件数
+     */
+    private long scannedFiles;
+
+    /**
+     * 链接出现的总次数，包括重复出现
+     */
+    private long occurrences;
+
+    /**
+     * 扫描失败的文件及错误信息
+     */
+    private Map<String, String> failures = new TreeMap<>();
+}
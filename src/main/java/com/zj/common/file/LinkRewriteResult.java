@@ -0,0 +1,40 @@
+package com.zj.common.file;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 批量改写链接的结果
+ *
+ * @author junzhou
+ * @date 2026/10/18 15:10
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+public class LinkRewriteResult {
+
+    /**
+     * 每个文件的替换次数，按文件路径排序
+     */
+    private Map<String, Integer> replacements = new TreeMap<>();
+
+    /**
+     * 改写失败的文件及错误信息
+     */
+    private Map<String, String> failures = new TreeMap<>();
+
+    /**
+     * @return 所有文件的替换总次数
+     */
+    public long getTotalReplacements() {
+        long total = 0;
+        for (Integer count : replacements.values()) {
+            total += count;
+        }
+        return total;
+    }
+}
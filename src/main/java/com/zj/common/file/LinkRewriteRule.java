@@ -0,0 +1,56 @@
+package com.zj.common.file;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 链接改写规则: 预编译的匹配模式 + 对匹配内容的替换逻辑
+ *
+ * @author junzhou
+ * @date 2026/10/18 15:05
+ * @since 1.8
+ */
+public class LinkRewriteRule {
+
+    /**
+     * 链接中不允许出现的字符: 空白和引号
+     */
+    private static final String LINK_BODY = "[^\\s\"']+";
+
+    private final Pattern pattern;
+
+    private final Function<String, String> replacer;
+
+    /**
+     * @param pattern  匹配链接的模式
+     * @param replacer 根据匹配到的链接返回替换后的内容，返回 null 表示保持原样
+     */
+    public LinkRewriteRule(Pattern pattern, Function<String, String> replacer) {
+        this.pattern = pattern;
+        this.replacer = replacer;
+    }
+
+    /**
+     * 将以 prefix 开头的链接替换为以 replacementPrefix 开头，链接的其余部分保持不变
+     *
+     * @param prefix            原链接前缀，如 https://zj134-file.cpolar.cn/file/
+     * @param replacementPrefix 新的链接前缀，如 /images/
+     * @return 改写规则
+     */
+    public static LinkRewriteRule prefix(String prefix, String replacementPrefix) {
+        return new LinkRewriteRule(Pattern.compile(Pattern.quote(prefix) + LINK_BODY),
+                link -> replacementPrefix + link.substring(prefix.length()));
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @param link 匹配到的链接
+     * @return 替换后的内容，为 null 时保持原样
+     */
+    public String replace(String link) {
+        return replacer.apply(link);
+    }
+}
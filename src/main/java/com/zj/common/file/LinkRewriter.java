@@ -0,0 +1,191 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.regex.Matcher;
+
+/**
+ * 流式改写文件中的链接
+ * <p>
+ * 文件按 UTF-8 逐行读取，应用所有改写规则后写入同目录下的临时文件，完成后原子重命名替换原文件，
+ * 不需要先复制一份 .bak 备份，中途失败时原文件保持不变；没有任何替换时原文件不会被改动。
+ * 换行符保持原样，替换后的文件保留原文件的 POSIX 权限，有权限时也保留属主和属组。规则在创建时预编译，实例是线程安全的。
+ *
+ * @author junzhou
+ * @date 2026/10/18 15:20
+ * @since 1.8
+ */
+@Slf4j
+public class LinkRewriter {
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final List<LinkRewriteRule> rules;
+
+    public LinkRewriter(LinkRewriteRule... rules) {
+        this(Arrays.asList(rules));
+    }
+
+    public LinkRewriter(List<LinkRewriteRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("链接改写规则不能为空");
+        }
+        this.rules = new ArrayList<>(rules);
+    }
+
+    /**
+     * 改写单个文件
+     *
+     * @param file 文件路径
+     * @return 替换次数
+     * @throws IOException 读写文件失败，或者文件不是合法的 UTF-8 编码
+     */
+    public int rewrite(Path file) throws IOException {
+        final Path temp = ChannelFileCopier.tempFileOf(file);
+        final Matcher[] matchers = new Matcher[rules.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = rules.get(i).getPattern().matcher("");
+        }
+        boolean replaced = false;
+        try {
+            int count = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                 BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                count = rewrite(reader, writer, matchers);
+            }
+            if (count > 0) {
+                ChannelFileCopier.copyPermissions(file, temp);
+                copyOwner(file, temp);
+                ChannelFileCopier.moveIntoPlace(temp, file);
+                replaced = true;
+            }
+            return count;
+        } finally {
+            if (!replaced) {
+                ChannelFileCopier.deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * 临时文件的属主是当前用户，尽量改为原文件的属主和属组；没有权限（非 root 改写其他用户的文件）时保持当前用户
+     */
+    private static void copyOwner(Path source, Path target) {
+        final PosixFileAttributeView sourceView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        final PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+        if (sourceView == null || targetView == null) {
+            return;
+        }
+        try {
+            final PosixFileAttributes attributes = sourceView.readAttributes();
+            targetView.setGroup(attributes.group());
+            targetView.setOwner(attributes.owner());
+        } catch (IOException e) {
+            log.debug("LinkRewriter######copyOwner 无法保留原文件的属主 file={}, error={}", source, e.toString());
+        }
+    }
+
+    /**
+     * 并行改写多个文件，单个文件失败不影响其他文件
+     *
+     * @param files       文件路径
+     * @param parallelism 并发数
+     * @return 每个文件的替换次数以及失败信息
+     */
+    public LinkRewriteResult rewriteAll(Collection<Path> files, int parallelism) {
+        final Map<String, Integer> replacements = new ConcurrentHashMap<>();
+        final Map<String, String> failures = new ConcurrentHashMap<>();
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * 16, "link-rewrite");
+        try {
+            for (Path file : files) {
+                executor.execute(() -> {
+                    try {
+                        replacements.put(file.toString(), rewrite(file));
+                    } catch (Exception e) {
+                        log.warn("LinkRewriter######rewriteAll 改写文件出错 file={}", file, e);
+                        failures.put(file.toString(), String.valueOf(e.getMessage()));
+                    }
+                });
+            }
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        final LinkRewriteResult result = new LinkRewriteResult();
+        result.getReplacements().putAll(replacements);
+        result.getFailures().putAll(failures);
+        return result;
+    }
+
+    private int rewrite(Reader reader, Writer writer, Matcher[] matchers) throws IOException {
+        final char[] buffer = new char[READ_BUFFER_SIZE];
+        final StringBuilder line = new StringBuilder();
+        final StringBuilder output = new StringBuilder();
+        int count = 0;
+        int read;
+        while ((read = reader.read(buffer)) > 0) {
+            int start = 0;
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == '\n') {
+                    line.append(buffer, start, i + 1 - start);
+                    count += rewriteLine(line, output, matchers, writer);
+                    line.setLength(0);
+                    start = i + 1;
+                }
+            }
+            line.append(buffer, start, read - start);
+        }
+        if (line.length() > 0) {
+            count += rewriteLine(line, output, matchers, writer);
+        }
+        return count;
+    }
+
+    /**
+     * 对一行内容依次应用所有规则并写出，行内容包含行尾的换行符
+     */
+    private int rewriteLine(StringBuilder line, StringBuilder output, Matcher[] matchers, Writer writer) throws IOException {
+        CharSequence current = line;
+        int count = 0;
+        for (int i = 0; i < matchers.length; i++) {
+            final Matcher matcher = matchers[i].reset(current);
+            final LinkRewriteRule rule = rules.get(i);
+            int last = 0;
+            int replaced = 0;
+            output.setLength(0);
+            while (matcher.find()) {
+                final String replacement = rule.replace(matcher.group());
+                if (replacement == null) {
+                    continue;
+                }
+                output.append(current, last, matcher.start()).append(replacement);
+                last = matcher.end();
+                replaced++;
+            }
+            if (replaced > 0) {
+                output.append(current, last, current.length());
+                current = output.toString();
+                count += replaced;
+            }
+        }
+        writer.append(current);
+        return count;
+    }
+}
@@ -0,0 +1,254 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Stream;
+
+/**
+ * 基于内存映射的关键字查找
+ * <p>
+ * 文件按窗口映射到内存，窗口总是在换行符处结束，保证一行不会被拆到两个窗口中；
+ * 每个关键字用 {@link BytePattern} 直接在 UTF-8 字节上查找，只有命中的行才会被解码成字符串。
+ * 一次遍历可以同时查找多个关键字，结果按行号排序，行号从 1 开始。
+ *
+ * @author junzhou
+ * @date 2026/10/18 13:20
+ * @since 1.8
+ */
+@Slf4j
+public class MappedKeywordSearcher {
+
+    /**
+     * 默认映射窗口大小 64MB
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static final byte LF = '\n';
+
+    private static final byte CR = '\r';
+
+    private final int windowSize;
+
+    public MappedKeywordSearcher() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize 每次映射的字节数，遇到超过窗口大小的行时会自动扩大
+     */
+    public MappedKeywordSearcher(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("映射窗口大小必须大于 0");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * 在文件中查找包含任意一个关键字的行
+     *
+     * @param path     文件路径
+     * @param keywords 关键字
+     * @return 命中的内容 <行号, 行内容>，按行号排序
+     * @throws IOException 读取文件失败
+     */
+    public SortedMap<Long, String> search(Path path, Collection<String> keywords) throws IOException {
+        final List<BytePattern> patterns = compile(keywords);
+        final SortedMap<Long, String> result = new TreeMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long windowStart = 0;
+            long lineNumber = 1;
+            int currentWindowSize = windowSize;
+            while (windowStart < size) {
+                final int length = (int) Math.min(currentWindowSize, size - windowStart);
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                final boolean lastWindow = windowStart + length >= size;
+                final int processLength = lastWindow ? length : lastLineEnd(buffer, length);
+                if (processLength <= 0) {
+                    // 单行超过了窗口大小，扩大窗口重新映射
+                    if (currentWindowSize >= Integer.MAX_VALUE / 2) {
+                        throw new IOException(String.format("%s 中存在超过 %d 字节的行", path, currentWindowSize));
+                    }
+                    currentWindowSize *= 2;
+                    continue;
+                }
+                lineNumber = collectLines(buffer, processLength, lineNumber, patterns, result);
+                windowStart += processLength;
+                currentWindowSize = windowSize;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 并行查找目录下所有文件中包含任意一个关键字的行
+     *
+     * @param directory   目录
+     * @param keywords    关键字
+     * @param parallelism 并发数
+     * @return <文件路径, <行号, 行内容>>，只包含有命中的文件，按文件路径排序
+     * @throws IOException 遍历目录失败
+     */
+    public SortedMap<Path, SortedMap<Long, String>> searchDirectory(Path directory, Collection<String> keywords,
+                                                                    int parallelism) throws IOException {
+        // 提前校验关键字
+        compile(keywords);
+        final Map<Path, SortedMap<Long, String>> result = new ConcurrentHashMap<>();
+        final ThreadPoolExecutor executor = BoundedExecutors.newCallerRunsExecutor(parallelism,
+                parallelism * 16, "keyword-search");
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile).forEach(file -> executor.execute(() -> {
+                try {
+                    final SortedMap<Long, String> lines = search(file, keywords);
+                    if (!lines.isEmpty()) {
+                        result.put(file, lines);
+                    }
+                } catch (IOException e) {
+                    log.warn("MappedKeywordSearcher######searchDirectory 读取文件发生异常 file={}", file, e);
+                }
+            }));
+        } finally {
+            BoundedExecutors.shutdownAndAwait(executor);
+        }
+        return new TreeMap<>(result);
+    }
+
+    static List<BytePattern> compile(Collection<String> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            throw new IllegalArgumentException("查询的关键字不能为空");
+        }
+        final List<BytePattern> patterns = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            if (keyword == null) {
+                throw new IllegalArgumentException("查询的关键字不能为 null");
+            }
+            patterns.add(new BytePattern(keyword));
+        }
+        return patterns;
+    }
+
+    /**
+     * @return 窗口中最后一个换行符之后的位置，没有换行符时返回 0
+     */
+    static int lastLineEnd(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == LF) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 查找窗口中命中的行，并统计窗口中的行数
+     *
+     * @return 下一个窗口第一行的行号
+     */
+    static long collectLines(ByteBuffer buffer, int length, long firstLineNumber,
+                             List<BytePattern> patterns, SortedMap<Long, String> result) {
+        final int[] hits = findHitPositions(buffer, length, patterns);
+        long lineNumber = firstLineNumber;
+        int cursor = 0;
+        for (int hit : hits) {
+            if (hit < cursor) {
+                // 与上一个命中位置在同一行
+                continue;
+            }
+            int lineStart = cursor;
+            for (int i = cursor; i < hit; i++) {
+                if (buffer.get(i) == LF) {
+                    lineNumber++;
+                    lineStart = i + 1;
+                }
+            }
+            int lineEnd = hit;
+            while (lineEnd < length && buffer.get(lineEnd) != LF) {
+                lineEnd++;
+            }
+            result.put(lineNumber, decode(buffer, lineStart, lineEnd));
+            if (lineEnd < length) {
+                lineNumber++;
+            }
+            cursor = lineEnd + 1;
+        }
+        for (int i = cursor; i < length; i++) {
+            if (buffer.get(i) == LF) {
+                lineNumber++;
+            }
+        }
+        // 最后一个窗口不以换行符结束时，行号不再使用
+        return lineNumber;
+    }
+
+    /**
+     * @return 所有关键字命中位置，已排序；同一个关键字在一行内只记录第一次命中
+     */
+    private static int[] findHitPositions(ByteBuffer buffer, int length, List<BytePattern> patterns) {
+        int[] hits = new int[16];
+        int count = 0;
+        for (BytePattern pattern : patterns) {
+            if (pattern.length() == 0) {
+                // 空关键字匹配每一行
+                int lineStart = 0;
+                while (lineStart < length) {
+                    hits = append(hits, count++, lineStart);
+                    while (lineStart < length && buffer.get(lineStart) != LF) {
+                        lineStart++;
+                    }
+                    lineStart++;
+                }
+                continue;
+            }
+            int from = 0;
+            int position;
+            while ((position = pattern.indexOf(buffer, from, length)) >= 0) {
+                hits = append(hits, count++, position);
+                // 跳到下一行继续查找
+                from = position + pattern.length();
+                while (from < length && buffer.get(from - 1) != LF) {
+                    from++;
+                }
+            }
+        }
+        final int[] sorted = Arrays.copyOf(hits, count);
+        if (patterns.size() > 1) {
+            Arrays.sort(sorted);
+        }
+        return sorted;
+    }
+
+    private static int[] append(int[] array, int index, int value) {
+        final int[] target = index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+        target[index] = value;
+        return target;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        if (end > start && buffer.get(end - 1) == CR) {
+            end--;
+        }
+        final byte[] bytes = new byte[end - start];
+        final ByteBuffer line = buffer.duplicate();
+        ((Buffer) line).position(start);
+        line.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
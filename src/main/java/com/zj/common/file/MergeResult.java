@@ -0,0 +1,48 @@
+package com.zj.common.file;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分块合并的结果
+ *
+ * @author junzhou
+ * @date 2026/10/18 22:15
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+public class MergeResult {
+
+    private int totalChunks;
+
+    /**
+     * 上一次合并中已经写入且校验通过、本次直接复用的分块数
+     */
+    private int reusedChunks;
+
+    /**
+     * 本次写入的分块数
+     */
+    private int writtenChunks;
+
+    /**
+     * 分块文件缺失或校验不通过的分块序号，按序号排序
+     */
+    private List<Integer> badChunks = new ArrayList<>();
+
+    /**
+     * 第一个损坏的分块序号，全部正常时为 -1，重新获取该分块及之后损坏的分块后再次合并即可继续
+     */
+    private int firstBadChunk = -1;
+
+    /**
+     * 是否已经合并完成并放到了目标位置
+     */
+    private boolean complete;
+
+    private long elapsedMillis;
+}
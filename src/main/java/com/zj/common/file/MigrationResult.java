@@ -0,0 +1,66 @@
+package com.zj.common.file;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 图片迁移流水线的执行结果
+ *
+ * @author junzhou
+ * @date 2026/10/18 18:20
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+public class MigrationResult {
+
+    /**
+     * 扫描到的文档数，包括检查点中已完成而跳过的文档
+     */
+    private long scannedFiles;
+
+    /**
+     * 检查点中已完成而跳过的文档数
+     */
+    private long resumedFiles;
+
+    /**
+     * 本次完成迁移的文档数
+     */
+    private long migratedFiles;
+
+    /**
+     * 本次复制的图片数
+     */
+    private long copiedAssets;
+
+    /**
+     * 目标目录中已经存在而跳过复制的图片数
+     */
+    private long existingAssets;
+
+    /**
+     * 改写的链接数
+     */
+    private long rewrittenLinks;
+
+    private long elapsedMillis;
+
+    /**
+     * <阶段名称, 该阶段的失败记录>，阶段按执行顺序排列
+     */
+    private Map<String, List<CopyResult.Failure>> failures = new LinkedHashMap<>();
+
+    public boolean isSuccess() {
+        return failures.values().stream().allMatch(List::isEmpty);
+    }
+
+    void addFailure(String stage, String path, String message) {
+        failures.computeIfAbsent(stage, key -> new ArrayList<>()).add(new CopyResult.Failure(path, message));
+    }
+}
@@ -0,0 +1,310 @@
+package com.zj.common.file;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * 并行分块压缩，按提交顺序把结果写入输出流
+ * <p>
+ * 数据按固定大小分块，每块在线程池中独立压缩为 raw deflate 数据，并以前一块末尾 32KB 作为预设字典，
+ * 除最后一块外都以 SYNC_FLUSH 结束，保证各块的输出可以直接拼接成一个完整的 deflate 流，压缩率与串行压缩接近。
+ * <p>
+ * 输出流中除了压缩块还可以穿插普通字节（如归档的文件头），所有片段严格按提交顺序写出。
+ * 只有提交数据的线程会写输出流，已提交但还未写出的片段数量有上限，超过时提交线程等待最早的片段完成。
+ *
+ * @author junzhou
+ * @date 2026/10/18 19:40
+ * @since 1.8
+ */
+@Slf4j
+final class ParallelDeflater implements Closeable {
+
+    /**
+     * deflate 的最大回溯窗口
+     */
+    static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * 按顺序写出的片段，在轮到它写出时才生成内容，可以读取此时已写出的字节数
+     */
+    @FunctionalInterface
+    interface Segment {
+
+        byte[] bytes() throws IOException;
+    }
+
+    private final OutputStream out;
+
+    private final int blockSize;
+
+    private final int level;
+
+    private final int maxPending;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Deque<Object[]> pending = new ArrayDeque<>();
+
+    private final ConcurrentLinkedQueue<Deflater> idleDeflaters = new ConcurrentLinkedQueue<>();
+
+    private long written;
+
+    /**
+     * @param out         输出流，不会被关闭
+     * @param parallelism 压缩线程数
+     * @param blockSize   分块大小，不能小于 32KB
+     * @param level       压缩级别 0-9
+     */
+    ParallelDeflater(OutputStream out, int parallelism, int blockSize, int level) {
+        if (blockSize < DICTIONARY_SIZE) {
+            throw new IllegalArgumentException("分块大小不能小于 " + DICTIONARY_SIZE);
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+        this.level = level;
+        this.maxPending = parallelism * 2;
+        this.executor = BoundedExecutors.newCallerRunsExecutor(parallelism, maxPending, "parallel-deflate");
+    }
+
+    /**
+     * @return 已写入输出流的字节数
+     */
+    long written() {
+        return written;
+    }
+
+    /**
+     * 追加原样写出的字节
+     */
+    void append(byte[] bytes) throws IOException {
+        append(() -> bytes);
+    }
+
+    /**
+     * 追加在写出时才生成内容的片段
+     */
+    void append(Segment segment) throws IOException {
+        pending.add(new Object[]{segment, null});
+        drain(maxPending);
+    }
+
+    /**
+     * @param onCompressed 每块压缩结果写出时回调其字节数，在提交线程中执行
+     * @return 新的压缩流，多个压缩流的输出互不相关，可以分别作为归档中不同条目的数据
+     */
+    BlockStream newStream(LongConsumer onCompressed) {
+        return new BlockStream(onCompressed);
+    }
+
+    /**
+     * 写出所有已提交的片段
+     */
+    void flush() throws IOException {
+        drain(0);
+        out.flush();
+    }
+
+    private void submit(byte[] data, int length, byte[] dictionary, boolean last, LongConsumer onCompressed)
+            throws IOException {
+        final Future<byte[]> future = executor.submit(() -> deflate(data, length, dictionary, last));
+        pending.add(new Object[]{future, onCompressed});
+        drain(maxPending);
+    }
+
+    /**
+     * 写出队首已经完成的片段，直到剩余片段数不超过 keep
+     */
+    @SuppressWarnings("unchecked")
+    private void drain(int keep) throws IOException {
+        while (!pending.isEmpty()) {
+            final Object[] head = pending.peek();
+            final boolean ready = !(head[0] instanceof Future) || ((Future<byte[]>) head[0]).isDone();
+            if (!ready && pending.size() <= keep) {
+                return;
+            }
+            pending.poll();
+            final byte[] bytes;
+            if (head[0] instanceof Future) {
+                try {
+                    bytes = ((Future<byte[]>) head[0]).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待压缩结果时被中断");
+                } catch (ExecutionException e) {
+                    throw new IOException("压缩数据块失败", e.getCause());
+                }
+            } else {
+                bytes = ((Segment) head[0]).bytes();
+            }
+            out.write(bytes);
+            written += bytes.length;
+            if (head[1] != null) {
+                ((LongConsumer) head[1]).accept(bytes.length);
+            }
+        }
+    }
+
+    private byte[] deflate(byte[] data, int length, byte[] dictionary, boolean last) {
+        Deflater deflater = idleDeflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data, 0, length);
+            if (last) {
+                deflater.finish();
+            }
+            byte[] result = new byte[length + (length >> 6) + 64];
+            int size = 0;
+            while (true) {
+                size += deflater.deflate(result, size, result.length - size,
+                        last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                // SYNC_FLUSH 时输出缓冲区没有写满说明已经全部输出；FINISH 时以 finished 为准
+                if (last ? deflater.finished() : size < result.length) {
+                    return Arrays.copyOf(result, size);
+                }
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+            }
+        } finally {
+            deflater.reset();
+            idleDeflaters.add(deflater);
+        }
+    }
+
+    /**
+     * 放弃未写出的片段并释放线程池和压缩器
+     */
+    @Override
+    public void close() {
+        for (Object[] segment : pending) {
+            if (segment[0] instanceof Future) {
+                ((Future<?>) segment[0]).cancel(false);
+            }
+        }
+        pending.clear();
+        BoundedExecutors.shutdownAndAwait(executor);
+        Deflater deflater;
+        while ((deflater = idleDeflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 一个完整的 deflate 流，写入的数据攒满一块后提交压缩，同时计算未压缩数据的 CRC32 和长度
+     */
+    final class BlockStream {
+
+        private final LongConsumer onCompressed;
+
+        private final CRC32 crc = new CRC32();
+
+        private byte[] block = new byte[blockSize];
+
+        private int position;
+
+        private byte[] dictionary;
+
+        private long total;
+
+        private BlockStream(LongConsumer onCompressed) {
+            this.onCompressed = onCompressed;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            write(bytes, 0, bytes.length);
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            final int end = offset + length;
+            while (offset < end) {
+                final int n = Math.min(end - offset, block.length - position);
+                System.arraycopy(bytes, offset, block, position, n);
+                position += n;
+                offset += n;
+                if (position == block.length) {
+                    submitBlock(false);
+                }
+            }
+        }
+
+        /**
+         * 从文件中读取最多 count 字节写入压缩流
+         *
+         * @return 实际读取的字节数，文件提前结束时小于 count
+         * @throws ArchiveWriter.SourceReadException 读取文件失败
+         * @throws IOException                       写出压缩数据失败
+         */
+        long transferFrom(FileChannel source, long count) throws IOException {
+            long done = 0;
+            while (done < count) {
+                final int n;
+                try {
+                    n = source.read(ByteBuffer.wrap(block, position, (int) Math.min(block.length - position, count - done)));
+                } catch (IOException e) {
+                    throw new ArchiveWriter.SourceReadException(e);
+                }
+                if (n < 0) {
+                    break;
+                }
+                position += n;
+                done += n;
+                if (position == block.length) {
+                    submitBlock(false);
+                }
+            }
+            return done;
+        }
+
+        /**
+         * 提交最后一块并结束 deflate 流
+         */
+        void finish() throws IOException {
+            submitBlock(true);
+        }
+
+        long crc() {
+            return crc.getValue();
+        }
+
+        /**
+         * @return 已写入的未压缩字节数
+         */
+        long total() {
+            return total + position;
+        }
+
+        private void submitBlock(boolean last) throws IOException {
+            final byte[] data = block;
+            final int length = position;
+            crc.update(data, 0, length);
+            total += length;
+            position = 0;
+            submit(data, length, dictionary, last, onCompressed);
+            if (!last) {
+                dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+                block = new byte[blockSize];
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.zj.common.file;
+
+import com.zj.common.json.FastJson;
+import com.zj.common.json.JsonUtil;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文件分块清单，记录原文件的大小以及每个分块的位置、长度和内容摘要，以 JSON 格式保存
+ *
+ * @author junzhou
+ * @date 2026/10/18 22:10
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+@FastJson
+public class SplitManifest {
+
+    /**
+     * 清单文件名的后缀
+     */
+    public static final String SUFFIX = ".manifest.json";
+
+    /**
+     * 原文件名
+     */
+    private String fileName;
+
+    /**
+     * 原文件大小
+     */
+    private long fileSize;
+
+    /**
+     * 分块大小，最后一块可能更小
+     */
+    private long chunkSize;
+
+    /**
+     * 摘要算法
+     */
+    private String algorithm;
+
+    private List<Chunk> chunks = new ArrayList<>();
+
+    /**
+     * 读取清单
+     *
+     * @param manifestFile 清单文件
+     * @return 清单
+     * @throws IOException 读取失败或内容不是有效的清单
+     */
+    public static SplitManifest load(Path manifestFile) throws IOException {
+        final String json = new String(Files.readAllBytes(manifestFile), StandardCharsets.UTF_8);
+        final SplitManifest manifest = JsonUtil.parseObject(json, SplitManifest.class);
+        if (manifest == null || manifest.getFileName() == null || manifest.getChunks() == null) {
+            throw new IOException("无效的分块清单: " + manifestFile);
+        }
+        return manifest;
+    }
+
+    /**
+     * 保存清单，先写临时文件再原子替换
+     *
+     * @param manifestFile 清单文件
+     * @throws IOException 写入失败
+     */
+    public void save(Path manifestFile) throws IOException {
+        final Path temp = ChannelFileCopier.tempFileOf(manifestFile);
+        try {
+            Files.write(temp, JsonUtil.toPrettyJsonString(this).getBytes(StandardCharsets.UTF_8));
+            ChannelFileCopier.moveIntoPlace(temp, manifestFile);
+        } finally {
+            ChannelFileCopier.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * 单个分块
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FastJson
+    public static class Chunk {
+
+        /**
+         * 分块序号，从 0 开始
+         */
+        private int index;
+
+        /**
+         * 在原文件中的偏移量
+         */
+        private long offset;
+
+        private long length;
+
+        /**
+         * 分块内容的摘要，十六进制小写
+         */
+        private String hash;
+
+        /**
+         * 分块文件名，与清单位于同一目录
+         */
+        private String fileName;
+    }
+}
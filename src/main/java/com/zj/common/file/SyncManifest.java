@@ -0,0 +1,170 @@
+package com.zj.common.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量同步使用的清单，记录上一次同步时每个文件的相对路径、大小、最后修改时间以及可选的内容摘要
+ * <p>
+ * 持久化格式为 UTF-8 文本，每行一个文件: {@code size\tlastModified\thash\tpath}，没有摘要时 hash 为 "-"，
+ * 路径中的反斜杠和换行符会被转义。
+ *
+ * @author junzhou
+ * @date 2026/10/18 12:05
+ * @since 1.8
+ */
+public class SyncManifest {
+
+    private static final String HEADER = "# zj-sync-manifest v1";
+
+    private static final String NO_HASH = "-";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 从文件加载清单，文件不存在时返回空清单
+     *
+     * @param manifestPath 清单文件路径
+     * @return 清单
+     * @throws IOException 读取失败或格式错误
+     */
+    public static SyncManifest load(Path manifestPath) throws IOException {
+        final SyncManifest manifest = new SyncManifest();
+        if (!Files.exists(manifestPath)) {
+            return manifest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] fields = line.split("\t", 4);
+                if (fields.length != 4) {
+                    throw new IOException(String.format("同步清单格式错误 %s 第 %d 行", manifestPath, lineNumber));
+                }
+                final String hash = NO_HASH.equals(fields[2]) ? null : fields[2];
+                manifest.entries.put(unescape(fields[3]),
+                        new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), hash));
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 保存清单，先写临时文件再原子重命名，保存中途失败不会破坏旧的清单
+     *
+     * @param manifestPath 清单文件路径
+     * @throws IOException 写入失败
+     */
+    public void save(Path manifestPath) throws IOException {
+        final Path parent = manifestPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final Path temp = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, Entry> one : entries.entrySet()) {
+                final Entry entry = one.getValue();
+                writer.write(Long.toString(entry.getSize()));
+                writer.write('\t');
+                writer.write(Long.toString(entry.getLastModified()));
+                writer.write('\t');
+                writer.write(entry.getHash() == null ? NO_HASH : entry.getHash());
+                writer.write('\t');
+                writer.write(escape(one.getKey()));
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(temp, manifestPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public Entry get(String relativePath) {
+        return entries.get(relativePath);
+    }
+
+    public void put(String relativePath, Entry entry) {
+        entries.put(relativePath, entry);
+    }
+
+    public Entry remove(String relativePath) {
+        return entries.remove(relativePath);
+    }
+
+    public Set<String> paths() {
+        return entries.keySet();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String escape(String path) {
+        if (path.indexOf('\\') < 0 && path.indexOf('\n') < 0 && path.indexOf('\r') < 0) {
+            return path;
+        }
+        return path.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String path) {
+        if (path.indexOf('\\') < 0) {
+            return path;
+        }
+        final StringBuilder sb = new StringBuilder(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            final char c = path.charAt(i);
+            if (c != '\\' || i == path.length() - 1) {
+                sb.append(c);
+                continue;
+            }
+            final char next = path.charAt(++i);
+            sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 清单中单个文件的信息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+
+        /**
+         * 文件大小
+         */
+        private long size;
+
+        /**
+         * 最后修改时间，单位毫秒
+         */
+        private long lastModified;
+
+        /**
+         * 十六进制内容摘要，未开启摘要时为 null
+         */
+        private String hash;
+    }
+}
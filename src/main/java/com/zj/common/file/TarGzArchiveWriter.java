@@ -0,0 +1,204 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * 写出 tar.gz 归档: POSIX ustar 格式的 tar 流经 {@link ParallelDeflater} 并行压缩为单个 gzip 成员
+ * <p>
+ * 名称超过 ustar 字段长度、包含非 ASCII 字符或文件大于 8GB 时，额外写出 PAX 扩展头记录完整信息。
+ *
+ * @author junzhou
+ * @date 2026/10/18 19:50
+ * @since 1.8
+ */
+final class TarGzArchiveWriter implements ArchiveWriter {
+
+    private static final int BLOCK = 512;
+
+    /**
+     * 与 GNU tar 一致，归档总长度补齐到 20 个块
+     */
+    private static final int RECORD = BLOCK * 20;
+
+    /**
+     * ustar 头中 size 字段能表示的最大值
+     */
+    private static final long MAX_USTAR_SIZE = 077777777777L;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 255};
+
+    private static final byte[] ZEROS = new byte[RECORD];
+
+    private final ParallelDeflater deflater;
+
+    private final ParallelDeflater.BlockStream tar;
+
+    private long paxCount;
+
+    TarGzArchiveWriter(ParallelDeflater deflater) throws IOException {
+        this.deflater = deflater;
+        this.tar = deflater.newStream(null);
+        deflater.append(GZIP_HEADER);
+    }
+
+    @Override
+    public void putDirectory(String name, FileTime lastModified) throws IOException {
+        writeHeader(name.endsWith("/") ? name : name + "/", 0, lastModified, '5', 0755);
+    }
+
+    @Override
+    public void putFile(String name, FileChannel source, long size, FileTime lastModified) throws IOException {
+        writeHeader(name, size, lastModified, '0', 0644);
+        final long start = tar.total();
+        try {
+            if (tar.transferFrom(source, size) < size) {
+                throw new SourceReadException(new IOException("文件在打包过程中被截断: " + name));
+            }
+        } finally {
+            // 头中已经声明了大小，读取失败时用 0 补齐，保证后续条目的位置正确
+            writeZeros(size - (tar.total() - start));
+            writeZeros(padding(size));
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeZeros(BLOCK * 2L);
+        writeZeros(padding(tar.total(), RECORD));
+        tar.finish();
+        final long crc = tar.crc();
+        final long total = tar.total();
+        deflater.append(new byte[]{
+                (byte) crc, (byte) (crc >>> 8), (byte) (crc >>> 16), (byte) (crc >>> 24),
+                (byte) total, (byte) (total >>> 8), (byte) (total >>> 16), (byte) (total >>> 24)});
+        deflater.flush();
+    }
+
+    private void writeHeader(String name, long size, FileTime lastModified, char type, int mode) throws IOException {
+        final long mtime = Math.max(0, lastModified.toMillis() / 1000);
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        final boolean ascii = nameBytes.length == name.length();
+        final int split = ascii ? splitPoint(name) : -1;
+        final boolean paxPath = !ascii || (nameBytes.length > 100 && split < 0);
+        final boolean paxSize = size > MAX_USTAR_SIZE;
+        if (paxPath || paxSize) {
+            final StringBuilder records = new StringBuilder();
+            if (paxPath) {
+                records.append(paxRecord("path", name));
+            }
+            if (paxSize) {
+                records.append(paxRecord("size", Long.toString(size)));
+            }
+            final byte[] content = records.toString().getBytes(StandardCharsets.UTF_8);
+            tar.write(header("PaxHeaders/" + (++paxCount), content.length, mtime, 'x', 0644));
+            tar.write(content);
+            writeZeros(padding(content.length));
+        }
+        final String headerName = paxPath ? asciiTail(name) : name;
+        tar.write(header(headerName, paxSize ? 0 : size, mtime, type, mode));
+    }
+
+    /**
+     * 生成 512 字节的 ustar 头，名称超过 100 字节时拆分到 prefix 字段
+     */
+    private static byte[] header(String name, long size, long mtime, char type, int mode) {
+        final byte[] header = new byte[BLOCK];
+        final int split = name.length() > 100 ? splitPoint(name) : -1;
+        if (split >= 0) {
+            putString(header, 0, 100, name.substring(split + 1));
+            putString(header, 345, 155, name.substring(0, split));
+        } else {
+            putString(header, 0, 100, name);
+        }
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, 0);
+        putOctal(header, 116, 8, 0);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, mtime);
+        header[156] = (byte) type;
+        putString(header, 257, 6, "ustar");
+        putString(header, 263, 2, "00");
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        return header;
+    }
+
+    /**
+     * @return 把名称拆分为 prefix(≤155) 和 name(≤100) 的 / 的位置，无法拆分时返回 -1
+     */
+    private static int splitPoint(String name) {
+        if (name.length() <= 100) {
+            return -1;
+        }
+        for (int i = Math.max(0, name.length() - 101); i < name.length() && i <= 155; i++) {
+            if (name.charAt(i) == '/' && i > 0 && name.length() - i - 1 <= 100 && name.length() - i - 1 > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 不支持 PAX 的工具会使用 ustar 头中的名称，这里保留能放下的 ASCII 结尾部分
+     */
+    private static String asciiTail(String name) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = name.length() - 1; i >= 0 && builder.length() < 100; i--) {
+            final char c = name.charAt(i);
+            builder.append(c < 0x80 ? c : '_');
+        }
+        return builder.reverse().toString();
+    }
+
+    /**
+     * PAX 记录格式为 "长度 key=value\n"，长度包括长度字段本身
+     */
+    private static String paxRecord(String key, String value) {
+        final int body = key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length + 3;
+        int length = body + Integer.toString(body).length();
+        if (Integer.toString(length).length() != Integer.toString(body).length()) {
+            length = body + Integer.toString(length).length();
+        }
+        return length + " " + key + "=" + value + "\n";
+    }
+
+    private static void putString(byte[] header, int offset, int length, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        final String octal = Long.toOctalString(value);
+        final int digits = length - 1;
+        for (int i = 0; i < digits; i++) {
+            final int index = octal.length() - digits + i;
+            header[offset + i] = (byte) (index >= 0 ? octal.charAt(index) : '0');
+        }
+        header[offset + digits] = 0;
+    }
+
+    private void writeZeros(long count) throws IOException {
+        while (count > 0) {
+            final int n = (int) Math.min(count, ZEROS.length);
+            tar.write(ZEROS, 0, n);
+            count -= n;
+        }
+    }
+
+    private static long padding(long size) {
+        return padding(size, BLOCK);
+    }
+
+    private static long padding(long size, int unit) {
+        final long remainder = size % unit;
+        return remainder == 0 ? 0 : unit - remainder;
+    }
+}
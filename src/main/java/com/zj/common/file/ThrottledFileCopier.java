@@ -0,0 +1,60 @@
+package com.zj.common.file;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+
+/**
+ * 受 {@link IoRateLimiter} 限制的文件复制，多个线程共用同一个限流器时共享速率和并发数
+ * <p>
+ * 每个文件开始复制前申请一个文件令牌和一个并发名额，每个分块复制前按分块大小申请字节令牌。
+ * 默认分块为 1MB，远小于 {@link ChannelFileCopier} 的 64MB，使磁盘带宽的占用更平滑。
+ *
+ * @author junzhou
+ * @date 2026/10/18 21:20
+ * @since 1.8
+ */
+public class ThrottledFileCopier extends ChannelFileCopier {
+
+    /**
+     * 限流时的默认分块大小
+     */
+    public static final long DEFAULT_THROTTLED_CHUNK_SIZE = 1024 * 1024;
+
+    private final IoRateLimiter limiter;
+
+    public ThrottledFileCopier(IoRateLimiter limiter) {
+        this.limiter = limiter;
+        chunkSize(DEFAULT_THROTTLED_CHUNK_SIZE);
+    }
+
+    public IoRateLimiter getLimiter() {
+        return limiter;
+    }
+
+    @Override
+    public TransferResult transfer(Path source, Path target) throws IOException {
+        try {
+            limiter.acquireFile();
+            limiter.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待复制名额时被中断: " + source);
+        }
+        try {
+            return super.transfer(source, target);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    protected void beforeChunk(long chunkBytes) throws IOException {
+        try {
+            limiter.acquireBytes(chunkBytes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待复制速率配额时被中断");
+        }
+    }
+}
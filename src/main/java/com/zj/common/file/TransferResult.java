@@ -0,0 +1,28 @@
+package com.zj.common.file;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个文件的复制结果
+ *
+ * @author junzhou
+ * @date 2026/10/18 11:08
+ * @since 1.8
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResult {
+
+    /**
+     * 复制的字节数
+     */
+    private long bytes;
+
+    /**
+     * 文件内容的十六进制校验和，未开启校验时为 null
+     */
+    private String checksum;
+}
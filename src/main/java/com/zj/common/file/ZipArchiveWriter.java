@@ -0,0 +1,231 @@
+package com.zj.common.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * 写出 zip 归档，文件内容经 {@link ParallelDeflater} 并行压缩
+ * <p>
+ * JDK 的 ZipOutputStream 只能在当前线程中串行压缩，这里直接按 zip 格式写出本地文件头、压缩数据、
+ * 数据描述符和中央目录。压缩前不知道压缩后的大小，因此文件条目都使用数据描述符（通用标志位 3）记录 CRC 和大小。
+ * 文件名使用 UTF-8 编码（通用标志位 11），超过 4GB 的文件、偏移量和超过 65535 个条目时使用 Zip64 扩展。
+ *
+ * @author junzhou
+ * @date 2026/10/18 20:10
+ * @since 1.8
+ */
+final class ZipArchiveWriter implements ArchiveWriter {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+
+    private static final int DATA_DESCRIPTOR = 0x08074b50;
+
+    private static final int CENTRAL_HEADER = 0x02014b50;
+
+    private static final int ZIP64_END = 0x06064b50;
+
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+
+    private static final int END = 0x06054b50;
+
+    private static final int FLAG_DESCRIPTOR = 1 << 3;
+
+    private static final int FLAG_UTF8 = 1 << 11;
+
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    private static final long MAGIC = 0xFFFFFFFFL;
+
+    /**
+     * 压缩后可能略大于原文件，接近 4GB 的文件也提前使用 Zip64
+     */
+    private static final long ZIP64_THRESHOLD = MAGIC - (1L << 24);
+
+    /**
+     * unix 3, 规范版本 4.5
+     */
+    private static final int VERSION_MADE_BY = (3 << 8) | 45;
+
+    private final ParallelDeflater deflater;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    ZipArchiveWriter(ParallelDeflater deflater) {
+        this.deflater = deflater;
+    }
+
+    @Override
+    public void putDirectory(String name, FileTime lastModified) throws IOException {
+        final Entry entry = new Entry(name.endsWith("/") ? name : name + "/", lastModified, STORED, false);
+        entry.externalAttributes = (040755L << 16) | 0x10;
+        deflater.append(() -> entry.localHeader(deflater.written()));
+        entries.add(entry);
+    }
+
+    @Override
+    public void putFile(String name, FileChannel source, long size, FileTime lastModified) throws IOException {
+        final Entry entry = new Entry(name, lastModified, DEFLATED, size >= ZIP64_THRESHOLD);
+        entry.externalAttributes = 0100644L << 16;
+        deflater.append(() -> entry.localHeader(deflater.written()));
+        final ParallelDeflater.BlockStream data = deflater.newStream(n -> entry.compressedSize += n);
+        try {
+            if (data.transferFrom(source, size) < size) {
+                throw new SourceReadException(new IOException("文件在打包过程中被截断: " + name));
+            }
+        } finally {
+            // 读取失败时以已读取的内容结束条目，CRC 和大小与实际写出的数据一致
+            data.finish();
+            entry.crc = data.crc();
+            entry.size = data.total();
+            deflater.append(entry::dataDescriptor);
+            entries.add(entry);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        deflater.append(this::centralDirectory);
+        deflater.flush();
+    }
+
+    private byte[] centralDirectory() throws ZipException {
+        final long offset = deflater.written();
+        final Bytes bytes = new Bytes();
+        for (Entry entry : entries) {
+            entry.centralHeader(bytes);
+        }
+        final long size = bytes.size();
+        final long count = entries.size();
+        if (count >= 0xFFFF || offset >= MAGIC || size >= MAGIC) {
+            final long zip64End = offset + size;
+            bytes.int32(ZIP64_END).int64(44).int16(VERSION_MADE_BY).int16(45).int32(0).int32(0)
+                    .int64(count).int64(count).int64(size).int64(offset);
+            bytes.int32(ZIP64_LOCATOR).int32(0).int64(zip64End).int32(1);
+            bytes.int32(END).int16(0).int16(0).int16(0xFFFF).int16(0xFFFF).int32(MAGIC).int32(MAGIC).int16(0);
+        } else {
+            bytes.int32(END).int16(0).int16(0).int16(count).int16(count).int32(size).int32(offset).int16(0);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 归档中的一个条目，各字段在提交线程中按写出顺序依次填充
+     */
+    private static final class Entry {
+        private final byte[] name;
+        private final long dosTime;
+        private final int method;
+        private final boolean zip64;
+        private long externalAttributes;
+        private long offset;
+        private long crc;
+        private long size;
+        private long compressedSize;
+
+        private Entry(String name, FileTime lastModified, int method, boolean zip64) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = dosTime(lastModified);
+            this.method = method;
+            this.zip64 = zip64;
+        }
+
+        private int flags() {
+            return method == DEFLATED ? FLAG_UTF8 | FLAG_DESCRIPTOR : FLAG_UTF8;
+        }
+
+        private int versionNeeded() {
+            return zip64 ? 45 : 20;
+        }
+
+        private byte[] localHeader(long offset) {
+            this.offset = offset;
+            final Bytes bytes = new Bytes();
+            bytes.int32(LOCAL_HEADER).int16(versionNeeded()).int16(flags()).int16(method).int32(dosTime)
+                    .int32(0).int32(zip64 ? MAGIC : 0).int32(zip64 ? MAGIC : 0)
+                    .int16(name.length).int16(zip64 ? 20 : 0).bytes(name);
+            if (zip64) {
+                bytes.int16(1).int16(16).int64(0).int64(0);
+            }
+            return bytes.toByteArray();
+        }
+
+        private byte[] dataDescriptor() throws ZipException {
+            final Bytes bytes = new Bytes().int32(DATA_DESCRIPTOR).int32(crc);
+            if (zip64) {
+                bytes.int64(compressedSize).int64(size);
+            } else if (compressedSize >= MAGIC || size >= MAGIC) {
+                throw new ZipException("文件在打包过程中超过了 4GB: " + new String(name, StandardCharsets.UTF_8));
+            } else {
+                bytes.int32(compressedSize).int32(size);
+            }
+            return bytes.toByteArray();
+        }
+
+        private void centralHeader(Bytes bytes) {
+            final boolean offset64 = offset >= MAGIC;
+            final int extraLength = (zip64 ? 16 : 0) + (offset64 ? 8 : 0);
+            bytes.int32(CENTRAL_HEADER).int16(VERSION_MADE_BY).int16(zip64 || offset64 ? 45 : 20)
+                    .int16(flags()).int16(method).int32(dosTime).int32(crc)
+                    .int32(zip64 ? MAGIC : compressedSize).int32(zip64 ? MAGIC : size)
+                    .int16(name.length).int16(extraLength == 0 ? 0 : extraLength + 4).int16(0).int16(0).int16(0)
+                    .int32(externalAttributes).int32(offset64 ? MAGIC : offset).bytes(name);
+            if (extraLength > 0) {
+                bytes.int16(1).int16(extraLength);
+                if (zip64) {
+                    bytes.int64(size).int64(compressedSize);
+                }
+                if (offset64) {
+                    bytes.int64(offset);
+                }
+            }
+        }
+
+        /**
+         * MS-DOS 格式的本地时间，精度为 2 秒，早于 1980 年的时间按 1980 年记录
+         */
+        private static long dosTime(FileTime lastModified) {
+            final LocalDateTime time = LocalDateTime.ofInstant(lastModified.toInstant(), ZoneId.systemDefault());
+            if (time.getYear() < 1980) {
+                return (1 << 21) | (1 << 16);
+            }
+            return ((long) (time.getYear() - 1980) << 25) | ((long) time.getMonthValue() << 21)
+                    | ((long) time.getDayOfMonth() << 16) | ((long) time.getHour() << 11)
+                    | ((long) time.getMinute() << 5) | (time.getSecond() >> 1);
+        }
+    }
+
+    /**
+     * 小端字节序的记录构造器
+     */
+    private static final class Bytes extends ByteArrayOutputStream {
+
+        private Bytes int16(long value) {
+            write((int) value);
+            write((int) (value >>> 8));
+            return this;
+        }
+
+        private Bytes int32(long value) {
+            return int16(value).int16(value >>> 16);
+        }
+
+        private Bytes int64(long value) {
+            return int32(value).int32(value >>> 32);
+        }
+
+        private Bytes bytes(byte[] value) {
+            write(value, 0, value.length);
+            return this;
+        }
+    }
+}
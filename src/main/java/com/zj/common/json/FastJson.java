@@ -0,0 +1,34 @@
+package com.zj.common.json;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译期生成 Gson 适配器的 json 对象类
+ * <p>
+ * 编译时 {@code FastJsonProcessor} 为标记的类生成不使用反射的 TypeAdapterFactory，并登记到
+ * {@code META-INF/services/com.zj.common.json.GeneratedTypeAdapterFactory}，{@link JsonUtil} 的 gson 引擎启动时自动注册，
+ * 序列化结果与 Gson 的反射适配器一致。
+ * <p>
+ * 要求：类为顶层类或静态内部类且不是 private；有可访问的无参构造方法；非 public 字段需要 getter/setter（可以由 lombok 生成）。
+ * 支持父类字段、泛型字段和 {@code @SerializedName}，static 和 transient 字段不参与序列化，final 字段只写出不读取。
+ * 内部类需要单独标记。
+ * <p>
+ * jar 中不登记注解处理器，引用本模块的工程默认不会运行 {@code FastJsonProcessor}。需要时显式启用，lombok 需排在前面：
+ * javac 使用 {@code -processorpath lombok.jar:common.jar -processor
+ * lombok.launch.AnnotationProcessorHider$AnnotationProcessor,com.zj.common.json.processor.FastJsonProcessor}，
+ * maven 在 maven-compiler-plugin 的 {@code annotationProcessorPaths} 中加入 lombok 和 {@code com.zj:common}，
+ * 并在 {@code annotationProcessors} 中按同样顺序列出这两个处理器。
+ *
+ * @author junzhou
+ * @date 2026/10/19 01:00
+ * @since 1.8
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface FastJson {
+}
@@ -0,0 +1,119 @@
+package com.zj.common.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * {@link FastJson} 生成的适配器在运行时使用的方法，读取规则与 Gson 内置的基本类型适配器一致
+ *
+ * @author junzhou
+ * @date 2026/10/19 01:05
+ * @since 1.8
+ */
+public final class FastJsonSupport {
+
+    private FastJsonSupport() {
+    }
+
+    /**
+     * @param type  正在创建适配器的类型
+     * @param count 类型参数个数
+     * @return 实际的类型参数，原始类型时都为 Object，与 Gson 反射适配器的处理一致
+     */
+    public static Type[] typeArguments(TypeToken<?> type, int count) {
+        if (type.getType() instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) type.getType()).getActualTypeArguments();
+            if (arguments.length == count) {
+                return arguments;
+            }
+        }
+        final Type[] arguments = new Type[count];
+        Arrays.fill(arguments, Object.class);
+        return arguments;
+    }
+
+    /**
+     * 写出声明类型可能有子类的字段，与 Gson 的 TypeAdapterRuntimeTypeWrapper 一致：声明类型是 Class 且值的运行时类型不同时，
+     * 使用运行时类型的适配器，否则使用声明类型的适配器
+     *
+     * @param gson         创建适配器的 Gson
+     * @param adapter      声明类型的适配器
+     * @param declaredType 字段的声明类型，类型参数已经替换为实际类型
+     * @param out          输出
+     * @param value        字段值
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeRuntimeType(Gson gson, TypeAdapter<Object> adapter, Type declaredType, JsonWriter out,
+                                        Object value) throws IOException {
+        if (value != null && declaredType instanceof Class && value.getClass() != declaredType) {
+            ((TypeAdapter<Object>) gson.getAdapter(value.getClass())).write(out, value);
+            return;
+        }
+        adapter.write(out, value);
+    }
+
+    /**
+     * @return 下一个值为 null 时消费掉并返回 true
+     */
+    public static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    public static String readString(JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * 调用前需要先用 {@link #skipNull(JsonReader)} 排除 null
+     */
+    public static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * 调用前需要先用 {@link #skipNull(JsonReader)} 排除 null
+     */
+    public static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * 调用前需要先用 {@link #skipNull(JsonReader)} 排除 null
+     */
+    public static long readLong(JsonReader in) throws IOException {
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+}
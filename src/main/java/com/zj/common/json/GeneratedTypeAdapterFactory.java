@@ -0,0 +1,18 @@
+package com.zj.common.json;
+
+import com.google.gson.TypeAdapterFactory;
+
+/**
+ * 由 {@link FastJson} 注解处理器生成的适配器工厂，通过 {@link java.util.ServiceLoader} 发现并注册到 gson 引擎
+ *
+ * @author junzhou
+ * @date 2026/10/19 01:00
+ * @since 1.8
+ */
+public interface GeneratedTypeAdapterFactory extends TypeAdapterFactory {
+
+    /**
+     * @return 适配器对应的类
+     */
+    Class<?> targetType();
+}
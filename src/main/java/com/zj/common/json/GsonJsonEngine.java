@@ -0,0 +1,64 @@
+package com.zj.common.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Gson 的引擎，使用 {@link JsonTypeRegistry} 中缓存的类型和通过 {@link JsonUtil#registerAdapter} 注册的适配器
+ *
+ * @author junzhou
+ * @date 2026/10/19 00:15
+ * @since 1.8
+ */
+public class GsonJsonEngine implements JsonEngine {
+
+    public static final String NAME = "gson";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String toJson(Object object) {
+        return JsonTypeRegistry.gson().toJson(object);
+    }
+
+    @Override
+    public String toPrettyJson(Object object) {
+        return JsonTypeRegistry.prettyGson().toJson(object);
+    }
+
+    @Override
+    public void writeTo(Object object, OutputStream out) throws IOException {
+        final Utf8StreamWriter writer = Utf8StreamWriter.acquire(out);
+        try {
+            JsonTypeRegistry.gson().toJson(object, writer);
+        } finally {
+            writer.release();
+        }
+    }
+
+    @Override
+    public void writeTo(Object object, Writer writer) {
+        JsonTypeRegistry.gson().toJson(object, writer);
+    }
+
+    @Override
+    public <T> T fromJson(String text, Class<T> clazz) {
+        return JsonTypeRegistry.gson().fromJson(text, JsonTypeRegistry.objectType(clazz));
+    }
+
+    @Override
+    public <T> List<T> fromJsonList(String text, Class<T> clazz) {
+        return JsonTypeRegistry.gson().fromJson(text, JsonTypeRegistry.listType(clazz));
+    }
+
+    @Override
+    public Map<Object, Object> fromJsonMap(String text) {
+        return JsonTypeRegistry.gson().fromJson(text, JsonTypeRegistry.MAP_TYPE);
+    }
+}
@@ -0,0 +1,135 @@
+package com.zj.common.json;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于 Jackson 的引擎，序列化直接通过 Jackson 的流式生成器写出，解析使用按类缓存的 ObjectReader
+ * <p>
+ * 为了与 Gson 的输出保持一致，只按字段（包括私有字段）序列化、不使用 getter，默认忽略值为 null 的字段，
+ * 解析时忽略未知字段。与 Gson 的差异：反序列化需要无参构造方法；{@code <}、{@code >} 等 HTML 字符不转义；
+ * 解析为 Map 时整数保持为 Integer/Long 而不是 Double；不使用 {@link JsonUtil#registerAdapter} 注册的适配器。
+ *
+ * @author junzhou
+ * @date 2026/10/19 00:20
+ * @since 1.8
+ */
+public class JacksonJsonEngine implements JsonEngine {
+
+    public static final String NAME = "jackson";
+
+    private final ObjectMapper mapper;
+
+    private final ObjectWriter prettyWriter;
+
+    private final JavaType mapType;
+
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class<?>, ObjectReader> listReaders = new ConcurrentHashMap<>();
+
+    public JacksonJsonEngine() {
+        this(new ObjectMapper()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false));
+    }
+
+    /**
+     * @param mapper 自定义配置的 ObjectMapper，创建引擎之后不应再修改其配置
+     */
+    public JacksonJsonEngine(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.prettyWriter = mapper.writerWithDefaultPrettyPrinter();
+        this.mapType = mapper.getTypeFactory().constructMapType(LinkedHashMap.class, Object.class, Object.class);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String toJson(Object object) throws IOException {
+        return writerOf(object).writeValueAsString(object);
+    }
+
+    @Override
+    public String toPrettyJson(Object object) throws IOException {
+        return prettyWriter.writeValueAsString(object);
+    }
+
+    @Override
+    public void writeTo(Object object, OutputStream out) throws IOException {
+        // Jackson 默认写完后关闭目标，这里交给调用方
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writerOf(object).writeValue(generator, object);
+        }
+    }
+
+    @Override
+    public void writeTo(Object object, Writer writer) throws IOException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writerOf(object).writeValue(generator, object);
+        }
+    }
+
+    @Override
+    public <T> T fromJson(String text, Class<T> clazz) throws IOException {
+        ObjectReader reader = readers.get(clazz);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(clazz, mapper::readerFor);
+        }
+        return reader.readValue(text);
+    }
+
+    @Override
+    public <T> List<T> fromJsonList(String text, Class<T> clazz) throws IOException {
+        ObjectReader reader = listReaders.get(clazz);
+        if (reader == null) {
+            reader = listReaders.computeIfAbsent(clazz,
+                    key -> mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, key)));
+        }
+        return reader.readValue(text);
+    }
+
+    @Override
+    public Map<Object, Object> fromJsonMap(String text) throws IOException {
+        return mapper.readValue(text, mapType);
+    }
+
+    private ObjectWriter writerOf(Object object) {
+        if (object == null) {
+            return mapper.writer();
+        }
+        final Class<?> clazz = object.getClass();
+        ObjectWriter writer = writers.get(clazz);
+        if (writer == null) {
+            writer = writers.computeIfAbsent(clazz, mapper::writerFor);
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,100 @@
+package com.zj.common.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 流式读取 json 数组的迭代器，每次只解析一个元素，内存占用与数组大小无关
+ * <p>
+ * 空输入和顶层的 null 视为空数组，与 {@link JsonUtil#parseArray(String, Class)} 一致。解析失败时抛出
+ * {@link BusinessException}，使用完毕后需要关闭以释放底层输入流。
+ *
+ * @author junzhou
+ * @date 2026/10/18 23:10
+ * @since 1.8
+ */
+@Slf4j
+public class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonReader reader;
+
+    private final TypeAdapter<T> adapter;
+
+    private boolean started;
+
+    private boolean finished;
+
+    JsonArrayIterator(Reader in, Class<T> clazz) {
+        this.reader = new JsonReader(in);
+        this.reader.setLenient(true);
+        this.adapter = JsonTypeRegistry.gson().getAdapter(JsonTypeRegistry.objectType(clazz));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+        try {
+            if (!started) {
+                started = true;
+                final JsonToken token;
+                try {
+                    token = reader.peek();
+                } catch (EOFException e) {
+                    // 空输入
+                    finished = true;
+                    return false;
+                }
+                if (token == JsonToken.NULL) {
+                    reader.nextNull();
+                    finished = true;
+                    return false;
+                }
+                reader.beginArray();
+            }
+            if (reader.peek() == JsonToken.END_ARRAY) {
+                reader.endArray();
+                finished = true;
+            }
+            return !finished;
+        } catch (IOException | RuntimeException e) {
+            throw failed("hasNext", e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return adapter.read(reader);
+        } catch (IOException | RuntimeException e) {
+            throw failed("next", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+
+    private BusinessException failed(String method, Exception e) {
+        finished = true;
+        log.error("JsonArrayIterator######{} 读取 json 数组异常! path={}", method, reader.getPath(), e);
+        return new BusinessException(ResultCode.JSON_TO_OBJECT_ERROR);
+    }
+}
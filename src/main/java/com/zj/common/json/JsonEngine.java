@@ -0,0 +1,46 @@
+package com.zj.common.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * json 序列化引擎，{@link JsonUtil} 的所有字符串和输出流转换都委托给当前引擎
+ * <p>
+ * 内置 {@link GsonJsonEngine#NAME gson}（默认）和 {@link JacksonJsonEngine#NAME jackson} 两个实现，
+ * 其他实现在 {@code META-INF/services/com.zj.common.json.JsonEngine} 中声明后即可按名称使用。
+ * 实现必须是线程安全的，方法出错时直接抛出异常，由 JsonUtil 统一记录日志和处理。
+ *
+ * @author junzhou
+ * @date 2026/10/19 00:10
+ * @since 1.8
+ */
+public interface JsonEngine {
+
+    /**
+     * @return 引擎名称，用于按名称选择引擎
+     */
+    String name();
+
+    String toJson(Object object) throws IOException;
+
+    String toPrettyJson(Object object) throws IOException;
+
+    /**
+     * 直接序列化为 UTF-8 写入输出流，不关闭也不 flush 输出流
+     */
+    void writeTo(Object object, OutputStream out) throws IOException;
+
+    /**
+     * 直接序列化写入 writer，不关闭也不 flush writer
+     */
+    void writeTo(Object object, Writer writer) throws IOException;
+
+    <T> T fromJson(String text, Class<T> clazz) throws IOException;
+
+    <T> List<T> fromJsonList(String text, Class<T> clazz) throws IOException;
+
+    Map<Object, Object> fromJsonMap(String text) throws IOException;
+}
@@ -0,0 +1,113 @@
+package com.zj.common.json;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * json 引擎的注册表
+ * <p>
+ * 启动时通过 {@link ServiceLoader} 加载 {@code META-INF/services/com.zj.common.json.JsonEngine} 中声明的引擎。
+ * 应用级的默认引擎由系统属性 {@value #ENGINE_PROPERTY} 指定，未指定时为 gson，也可以在启动时调用
+ * {@link #setDefault(String)} 切换；单次调用可以通过 {@link JsonUtil#engine(String)} 使用指定的引擎。
+ *
+ * @author junzhou
+ * @date 2026/10/19 00:30
+ * @since 1.8
+ */
+@Slf4j
+public final class JsonEngines {
+
+    /**
+     * 指定默认引擎名称的系统属性
+     */
+    public static final String ENGINE_PROPERTY = "zj.json.engine";
+
+    private static final Map<String, JsonEngine> ENGINES = new ConcurrentHashMap<>();
+
+    private static volatile JsonEngine defaultEngine;
+
+    static {
+        register(new GsonJsonEngine());
+        final Iterator<JsonEngine> iterator = ServiceLoader.load(JsonEngine.class, JsonEngine.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                final JsonEngine engine = iterator.next();
+                ENGINES.putIfAbsent(engine.name(), engine);
+            } catch (ServiceConfigurationError | LinkageError e) {
+                // 例如运行时缺少 jackson-databind，跳过该引擎
+                log.warn("JsonEngines######static 加载 json 引擎失败!", e);
+            }
+        }
+        final String configured = System.getProperty(ENGINE_PROPERTY);
+        defaultEngine = ENGINES.get(GsonJsonEngine.NAME);
+        if (StringUtils.isNotBlank(configured)) {
+            if (ENGINES.containsKey(configured.trim())) {
+                defaultEngine = ENGINES.get(configured.trim());
+            } else {
+                log.error("JsonEngines######static 未知的 json 引擎 {}={}, 使用 gson, 可用的引擎: {}",
+                        ENGINE_PROPERTY, configured, ENGINES.keySet());
+            }
+        }
+    }
+
+    private JsonEngines() {
+    }
+
+    /**
+     * @return 应用级的默认引擎
+     */
+    public static JsonEngine getDefault() {
+        return defaultEngine;
+    }
+
+    /**
+     * 切换应用级的默认引擎，应在启动阶段调用
+     *
+     * @param name 引擎名称
+     */
+    public static void setDefault(String name) {
+        defaultEngine = get(name);
+    }
+
+    /**
+     * @param name 引擎名称
+     * @return 对应的引擎
+     * @throws IllegalArgumentException 没有该名称的引擎
+     */
+    public static JsonEngine get(String name) {
+        final JsonEngine engine = name == null ? null : ENGINES.get(name);
+        if (engine == null) {
+            throw new IllegalArgumentException("未知的 json 引擎: " + name + ", 可用的引擎: " + ENGINES.keySet());
+        }
+        return engine;
+    }
+
+    /**
+     * 注册引擎，同名的引擎会被替换
+     *
+     * @param engine 引擎
+     */
+    public static void register(JsonEngine engine) {
+        ENGINES.put(engine.name(), engine);
+        if (defaultEngine != null && defaultEngine.name().equals(engine.name())) {
+            defaultEngine = engine;
+        }
+    }
+
+    /**
+     * @return 所有可用的引擎名称
+     */
+    public static Set<String> names() {
+        return ENGINES.keySet();
+    }
+}
@@ -0,0 +1,140 @@
+package com.zj.common.json;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 解析好的 json 路径，供 {@link JsonUtil#query(String, String)} 使用
+ * <p>
+ * 语法：字段名用 {@code .} 分隔，数组下标用 {@code [n]}，字段名包含特殊字符时用 {@code ['a.b']} 或 {@code ["a.b"]}，
+ * 可以用 {@code $} 开头表示根节点，例如 {@code result.items[0].id}、{@code $[2]['user.name']}。空路径或 {@code $} 表示整个文档。
+ *
+ * @author junzhou
+ * @date 2026/10/19 02:10
+ * @since 1.8
+ */
+@Slf4j
+final class JsonPath {
+
+    /**
+     * 缓存的路径数量上限，路径通常是常量，超过上限后不再缓存，避免动态拼接的路径占满内存
+     */
+    private static final int MAX_CACHED_PATHS = 1024;
+
+    private static final ConcurrentMap<String, JsonPath> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+
+    /**
+     * 每一级为 String 字段名或 Integer 数组下标
+     */
+    private final List<Object> segments;
+
+    private JsonPath(String path, List<Object> segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * @param path 路径
+     * @return 解析好的路径
+     * @throws BusinessException 路径格式不正确时
+     */
+    static JsonPath compile(String path) {
+        JsonPath compiled = CACHE.get(path);
+        if (compiled == null) {
+            compiled = new JsonPath(path, parse(path));
+            if (CACHE.size() < MAX_CACHED_PATHS) {
+                CACHE.putIfAbsent(path, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    List<Object> segments() {
+        return segments;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static List<Object> parse(String path) {
+        if (path == null) {
+            throw invalid(null, "路径为 null");
+        }
+        final List<Object> segments = new ArrayList<>();
+        final int length = path.length();
+        int i = 0;
+        if (path.startsWith("$")) {
+            i = 1;
+        }
+        // 当前位置是否需要一个字段名，开头和 . 之后为 true
+        boolean expectName = i == 0;
+        while (i < length) {
+            final char c = path.charAt(i);
+            if (c == '[') {
+                final int end = path.indexOf(']', i);
+                if (end < 0) {
+                    throw invalid(path, "缺少 ]");
+                }
+                final char first = i + 1 < end ? path.charAt(i + 1) : ']';
+                if (first == '\'' || first == '"') {
+                    final int close = path.indexOf(first, i + 2);
+                    if (close < 0 || close + 1 >= length || path.charAt(close + 1) != ']') {
+                        throw invalid(path, "字段名的引号不匹配");
+                    }
+                    segments.add(path.substring(i + 2, close));
+                    i = close + 2;
+                } else {
+                    segments.add(parseIndex(path, path.substring(i + 1, end)));
+                    i = end + 1;
+                }
+                expectName = false;
+            } else if (c == '.') {
+                if (expectName || i + 1 >= length) {
+                    throw invalid(path, "字段名为空");
+                }
+                expectName = true;
+                i++;
+            } else {
+                int end = i;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                if (!expectName && !segments.isEmpty()) {
+                    throw invalid(path, "字段名前缺少 .");
+                }
+                segments.add(path.substring(i, end));
+                expectName = false;
+                i = end;
+            }
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    private static Integer parseIndex(String path, String text) {
+        try {
+            final int index = Integer.parseInt(text.trim());
+            if (index >= 0) {
+                return index;
+            }
+        } catch (NumberFormatException e) {
+            // 统一在下面抛出
+        }
+        throw invalid(path, "数组下标不合法: " + text);
+    }
+
+    private static BusinessException invalid(String path, String reason) {
+        log.error("JsonPath######parse json 路径格式错误! path={}, reason={}", path, reason);
+        return new BusinessException(ResultCode.PARAMETER_ERROR);
+    }
+}
@@ -0,0 +1,161 @@
+package com.zj.common.json;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用 {@link JsonReader} 流式提取一组 json 路径的值
+ * <p>
+ * 多个路径合并为一棵前缀树，一次遍历完成提取：不在任何路径上的子树直接 {@link JsonReader#skipValue()} 跳过，
+ * 只有命中路径的值才构建为 {@link JsonElement}，数字保持为 LazilyParsedNumber，不会转换为 Double；
+ * 全部路径都找到后立即停止读取，不再读取剩余的内容。
+ *
+ * @author junzhou
+ * @date 2026/10/19 02:20
+ * @since 1.8
+ */
+final class JsonPathQuery {
+
+    private final Node root = new Node();
+
+    private final JsonElement[] values;
+
+    private int remaining;
+
+    /**
+     * @param paths 要提取的路径
+     */
+    JsonPathQuery(List<JsonPath> paths) {
+        this.values = new JsonElement[paths.size()];
+        this.remaining = paths.size();
+        for (int i = 0; i < paths.size(); i++) {
+            Node node = root;
+            for (Object segment : paths.get(i).segments()) {
+                node = node.child(segment);
+            }
+            node.targets.add(i);
+        }
+    }
+
+    /**
+     * @param in 输入，不会被关闭
+     * @return 与路径顺序一致的值，路径不存在时为 null，值为 json 的 null 时为 {@link com.google.gson.JsonNull}
+     */
+    JsonElement[] execute(Reader in) throws IOException {
+        final JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            // 空输入，所有路径都不存在
+            return values;
+        }
+        if (remaining > 0) {
+            walk(reader, root);
+        }
+        return values;
+    }
+
+    private void walk(JsonReader reader, Node node) throws IOException {
+        if (!node.targets.isEmpty()) {
+            // 命中路径，构建该值，更深的路径直接从构建好的值中取
+            final JsonElement element = JsonParser.parseReader(reader);
+            resolve(element, node);
+            return;
+        }
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT && node.fields != null) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final Node child = node.fields.get(reader.nextName());
+                if (child == null) {
+                    reader.skipValue();
+                } else {
+                    walk(reader, child);
+                }
+                if (remaining == 0) {
+                    return;
+                }
+            }
+            reader.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY && node.indexes != null) {
+            reader.beginArray();
+            int index = 0;
+            while (reader.hasNext()) {
+                final Node child = node.indexes.get(index++);
+                if (child == null) {
+                    reader.skipValue();
+                } else {
+                    walk(reader, child);
+                }
+                if (remaining == 0) {
+                    return;
+                }
+            }
+            reader.endArray();
+        } else {
+            // 类型与路径不符，路径不存在
+            reader.skipValue();
+        }
+    }
+
+    private void resolve(JsonElement element, Node node) {
+        for (int target : node.targets) {
+            if (values[target] == null) {
+                values[target] = element;
+                remaining--;
+            }
+        }
+        if (node.fields != null && element.isJsonObject()) {
+            final JsonObject object = element.getAsJsonObject();
+            node.fields.forEach((name, child) -> {
+                final JsonElement value = object.get(name);
+                if (value != null) {
+                    resolve(value, child);
+                }
+            });
+        }
+        if (node.indexes != null && element.isJsonArray()) {
+            final JsonArray array = element.getAsJsonArray();
+            node.indexes.forEach((index, child) -> {
+                if (index < array.size()) {
+                    resolve(array.get(index), child);
+                }
+            });
+        }
+    }
+
+    private static final class Node {
+
+        private Map<String, Node> fields;
+
+        private Map<Integer, Node> indexes;
+
+        private final List<Integer> targets = new ArrayList<>(1);
+
+        private Node child(Object segment) {
+            if (segment instanceof Integer) {
+                if (indexes == null) {
+                    indexes = new HashMap<>();
+                }
+                return indexes.computeIfAbsent((Integer) segment, key -> new Node());
+            }
+            if (fields == null) {
+                fields = new HashMap<>();
+            }
+            return fields.computeIfAbsent((String) segment, key -> new Node());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.zj.common.json;
+
+import com.google.gson.stream.JsonWriter;
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 流式写出 json 数组或 NDJSON，每次写出一个元素，内存占用与元素总数无关
+ * <p>
+ * 数组模式在第一次写出时输出 {@code [}，关闭时补上 {@code ]}，没有写出任何元素时输出 {@code []}；
+ * NDJSON 模式每个元素单独一行。写出失败时抛出 {@link BusinessException}。
+ *
+ * @author junzhou
+ * @date 2026/10/18 23:30
+ * @since 1.8
+ */
+@Slf4j
+public class JsonStreamWriter implements Closeable, Flushable {
+
+    private final Writer out;
+
+    private final JsonWriter writer;
+
+    private final boolean ndjson;
+
+    private boolean started;
+
+    private boolean closed;
+
+    private long count;
+
+    JsonStreamWriter(Writer out, boolean ndjson) {
+        this.out = out;
+        this.writer = new JsonWriter(out);
+        this.ndjson = ndjson;
+        if (ndjson) {
+            // 多个顶层值需要 lenient，值之间的换行直接写入底层 writer
+            writer.setLenient(true);
+        }
+    }
+
+    /**
+     * 写出一个元素
+     *
+     * @param value 元素，可以为 null
+     * @return this
+     */
+    public JsonStreamWriter write(Object value) {
+        if (closed) {
+            throw new IllegalStateException("JsonStreamWriter 已经关闭");
+        }
+        try {
+            if (!ndjson && !started) {
+                writer.beginArray();
+            }
+            started = true;
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                JsonTypeRegistry.gson().toJson(value, value.getClass(), writer);
+            }
+            if (ndjson) {
+                out.write('\n');
+            }
+            count++;
+            return this;
+        } catch (IOException | RuntimeException e) {
+            log.error("JsonStreamWriter######write 写出 json 异常! count={}, value={}", count, value, e);
+            throw new BusinessException(ResultCode.OBJECT_TO_JSON_ERROR);
+        }
+    }
+
+    /**
+     * @return 已经写出的元素数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * 数组模式下补上结尾的 {@code ]}，然后关闭底层输出流
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!ndjson) {
+                if (!started) {
+                    writer.beginArray();
+                }
+                writer.endArray();
+            }
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.zj.common.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * {@link JsonUtil} 使用的类型和适配器注册表
+ * <p>
+ * 按目标类缓存解析好的 {@link TypeToken}，解析热路径上不再为类型解析分配对象；Gson 内部按 TypeToken 缓存 TypeAdapter，
+ * 预热即提前让 Gson 解析出这些适配器。注册自定义适配器时重建 Gson 实例并重新预热已经预热过的类，
+ * 注册应在启动阶段完成，重建期间的并发解析仍使用旧实例。
+ *
+ * @author junzhou
+ * @date 2026/10/18 22:50
+ * @since 1.8
+ */
+@Slf4j
+final class JsonTypeRegistry {
+
+    /**
+     * {@link JsonUtil#parseMap(String)} 使用的类型，键和值都按 Object 解析，结果为 LinkedHashMap
+     */
+    static final TypeToken<Map<Object, Object>> MAP_TYPE = new TypeToken<Map<Object, Object>>() {
+    };
+
+    private static final ConcurrentMap<Class<?>, TypeToken<?>> OBJECT_TYPES = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<Class<?>, TypeToken<?>> LIST_TYPES = new ConcurrentHashMap<>();
+
+    private static final Set<Class<?>> WARMED_CLASSES = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * {@link FastJson} 生成的适配器工厂，先于手动注册的适配器注册，同一类型以手动注册的为准
+     */
+    private static final List<GeneratedTypeAdapterFactory> GENERATED_FACTORIES = loadGeneratedFactories();
+
+    /**
+     * 已经注册的适配器，重建 Gson 时按注册顺序重放
+     */
+    private static final List<Consumer<GsonBuilder>> REGISTRATIONS = new ArrayList<>();
+
+    private static volatile Gson gson = build(REGISTRATIONS, false);
+
+    private static volatile Gson prettyGson = build(REGISTRATIONS, true);
+
+    private JsonTypeRegistry() {
+    }
+
+    static Gson gson() {
+        return gson;
+    }
+
+    static Gson prettyGson() {
+        return prettyGson;
+    }
+
+    /**
+     * @return clazz 对应的缓存类型
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeToken<T> objectType(Class<T> clazz) {
+        // Java 8 的 computeIfAbsent 在键已存在时也会加锁，命中时先走无锁的 get
+        TypeToken<?> type = OBJECT_TYPES.get(clazz);
+        if (type == null) {
+            type = OBJECT_TYPES.computeIfAbsent(clazz, TypeToken::get);
+        }
+        return (TypeToken<T>) type;
+    }
+
+    /**
+     * @return {@code ArrayList<clazz>} 对应的缓存类型
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeToken<List<T>> listType(Class<T> clazz) {
+        TypeToken<?> type = LIST_TYPES.get(clazz);
+        if (type == null) {
+            type = LIST_TYPES.computeIfAbsent(clazz, key -> TypeToken.getParameterized(ArrayList.class, key));
+        }
+        return (TypeToken<List<T>>) type;
+    }
+
+    /**
+     * 注册适配器，参数与 {@link GsonBuilder#registerTypeAdapter(Type, Object)} 相同
+     */
+    static void registerAdapter(Type type, Object typeAdapter) {
+        register(builder -> builder.registerTypeAdapter(type, typeAdapter));
+    }
+
+    /**
+     * 注册适配器工厂，参数与 {@link GsonBuilder#registerTypeAdapterFactory(TypeAdapterFactory)} 相同
+     */
+    static void registerAdapterFactory(TypeAdapterFactory factory) {
+        register(builder -> builder.registerTypeAdapterFactory(factory));
+    }
+
+    /**
+     * 提前解析这些类及其列表类型的 TypeToken 和 TypeAdapter
+     */
+    static void warmUp(Class<?>... classes) {
+        final Gson current = gson;
+        final Gson currentPretty = prettyGson;
+        for (Class<?> clazz : classes) {
+            WARMED_CLASSES.add(clazz);
+            warmUp(current, currentPretty, clazz);
+        }
+        current.getAdapter(MAP_TYPE);
+    }
+
+    private static synchronized void register(Consumer<GsonBuilder> registration) {
+        final List<Consumer<GsonBuilder>> registrations = new ArrayList<>(REGISTRATIONS);
+        registrations.add(registration);
+        // 先构建新实例，注册参数不合法时抛出异常且不影响已有的注册
+        final Gson newGson = build(registrations, false);
+        final Gson newPrettyGson = build(registrations, true);
+        for (Class<?> clazz : WARMED_CLASSES) {
+            warmUp(newGson, newPrettyGson, clazz);
+        }
+        REGISTRATIONS.add(registration);
+        gson = newGson;
+        prettyGson = newPrettyGson;
+    }
+
+    private static void warmUp(Gson current, Gson currentPretty, Class<?> clazz) {
+        current.getAdapter(objectType(clazz));
+        current.getAdapter(listType(clazz));
+        currentPretty.getAdapter(objectType(clazz));
+    }
+
+    private static List<GeneratedTypeAdapterFactory> loadGeneratedFactories() {
+        final List<GeneratedTypeAdapterFactory> factories = new ArrayList<>();
+        final Iterator<GeneratedTypeAdapterFactory> iterator = ServiceLoader.load(GeneratedTypeAdapterFactory.class,
+                GeneratedTypeAdapterFactory.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                factories.add(iterator.next());
+            } catch (ServiceConfigurationError | LinkageError e) {
+                log.warn("JsonTypeRegistry######loadGeneratedFactories 加载生成的适配器失败, 使用反射适配器!", e);
+            }
+        }
+        log.debug("JsonTypeRegistry######loadGeneratedFactories 加载生成的适配器 {} 个", factories.size());
+        return factories;
+    }
+
+    private static Gson build(List<Consumer<GsonBuilder>> registrations, boolean pretty) {
+        final GsonBuilder builder = new GsonBuilder();
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+        GENERATED_FACTORIES.forEach(builder::registerTypeAdapterFactory);
+        registrations.forEach(registration -> registration.accept(builder));
+        return builder.create();
+    }
+}
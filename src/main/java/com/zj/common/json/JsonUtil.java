@@ -1,15 +1,17 @@
 package com.zj.common.json;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapterFactory;
 import com.zj.common.exception.BusinessException;
 import com.zj.common.exception.ResultCode;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author zhoujun <junzhou134@gmail.com>
@@ -18,18 +20,24 @@ import java.util.*;
 @Slf4j
 public class JsonUtil {
 
-    private static final Gson GSON = new Gson();
-
-    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
-
     /**
      * 将 object 转换为 json
      * @param object 待转换的 json
      * @return 转换之后的 json 串
      */
     public static String toJSONString(Object object) {
+        return toJSONString(object, JsonEngines.getDefault());
+    }
+
+    /**
+     * 使用指定的引擎将 object 转换为 json
+     * @param object 待转换的 json
+     * @param engine json 引擎，见 {@link #engine(String)}
+     * @return 转换之后的 json 串
+     */
+    public static String toJSONString(Object object, JsonEngine engine) {
         try {
-            return Objects.isNull(object) ? null : GSON.toJson(object);
+            return Objects.isNull(object) ? null : engine.toJson(object);
         } catch (Exception e) {
             log.error("GsonUtil######toJSONString 对象转换json异常! object={}", object, e);
             throw new BusinessException(ResultCode.OBJECT_TO_JSON_ERROR);
@@ -42,17 +50,62 @@ public class JsonUtil {
      * @return 转义之后的对象
      */
     public static String toPrettyJsonString(Object object) {
+        return toPrettyJsonString(object, JsonEngines.getDefault());
+    }
+
+    public static String toPrettyJsonString(Object object, JsonEngine engine) {
         try {
-            return Objects.isNull(object) ? null : PRETTY_GSON.toJson(object);
+            return Objects.isNull(object) ? null : engine.toPrettyJson(object);
         } catch (Exception e) {
             log.error("GsonUtil######toJSONString 对象转换json异常! object={}", object, e);
             throw new BusinessException(ResultCode.OBJECT_TO_JSON_ERROR);
         }
     }
+
+    /**
+     * 将 object 直接序列化为 UTF-8 写入输出流，不生成中间的 String，编码缓冲区按线程复用
+     * @param object 待转换的对象，为 null 时写出 null
+     * @param out    输出流，不会被关闭或 flush
+     */
+    public static void writeTo(Object object, OutputStream out) {
+        writeTo(object, out, JsonEngines.getDefault());
+    }
+
+    public static void writeTo(Object object, OutputStream out, JsonEngine engine) {
+        try {
+            engine.writeTo(object, out);
+        } catch (Exception e) {
+            log.error("GsonUtil######writeTo 对象转换json异常! object={}", object, e);
+            throw new BusinessException(ResultCode.OBJECT_TO_JSON_ERROR);
+        }
+    }
+
+    /**
+     * 将 object 直接序列化写入 writer，不生成中间的 String
+     * @param object 待转换的对象，为 null 时写出 null
+     * @param writer 输出，不会被关闭或 flush
+     */
+    public static void writeTo(Object object, Writer writer) {
+        writeTo(object, writer, JsonEngines.getDefault());
+    }
+
+    public static void writeTo(Object object, Writer writer, JsonEngine engine) {
+        try {
+            engine.writeTo(object, writer);
+        } catch (Exception e) {
+            log.error("GsonUtil######writeTo 对象转换json异常! object={}", object, e);
+            throw new BusinessException(ResultCode.OBJECT_TO_JSON_ERROR);
+        }
+    }
+
     public static <T> T parseObject(String text, Class<T> clazz) {
+        return parseObject(text, clazz, JsonEngines.getDefault());
+    }
+
+    public static <T> T parseObject(String text, Class<T> clazz, JsonEngine engine) {
         T result = null;
         try {
-            result = text == null ? null : GSON.fromJson(text, clazz);
+            result = text == null ? null : engine.fromJson(text, clazz);
         } catch (Exception e) {
             log.error("GsonUtil######parseObject 对象转换 json 异常! text={}, clazz={}", text, clazz, e);
         }
@@ -60,12 +113,16 @@ public class JsonUtil {
     }
 
     public static <T> List<T> parseArray(String text, Class<T> clazz) {
+        return parseArray(text, clazz, JsonEngines.getDefault());
+    }
+
+    public static <T> List<T> parseArray(String text, Class<T> clazz, JsonEngine engine) {
         List<T> result = Collections.emptyList();
         try {
             if (StringUtils.isBlank(text)) {
                 text = "[]";
             }
-            result = GSON.fromJson(text, TypeToken.getParameterized(ArrayList.class, new Type[]{clazz}).getType());
+            result = engine.fromJsonList(text, clazz);
         } catch (Exception e) {
             log.error("GsonUtil######parseArray 对象转换 array 异常! text={}, clazz={}", text, clazz, e);
         }
@@ -73,16 +130,229 @@ public class JsonUtil {
     }
 
     public static <K, V> Map<K, V> parseMap(String text) {
+        return parseMap(text, JsonEngines.getDefault());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> parseMap(String text, JsonEngine engine) {
         Map<K, V> result = Collections.emptyMap();
         try {
             if (StringUtils.isBlank(text)) {
                 text = "{}";
             }
-            result = GSON.fromJson(text, new TypeToken<Map<K, V>>() {
-            }.getType());
+            final Map<Object, Object> map = engine.fromJsonMap(text);
+            result = (Map<K, V>) (Map<?, ?>) map;
         } catch (Exception e) {
             log.error("GsonUtil######parseMap 对象转换 map 异常! text={}, clazz={}", text, e);
         }
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * 按名称获取 json 引擎，用于单次调用时指定引擎，例如 {@code JsonUtil.toJSONString(result, JsonUtil.engine("jackson"))}
+     * @param name 引擎名称，内置 gson 和 jackson
+     * @return 引擎
+     */
+    public static JsonEngine engine(String name) {
+        return JsonEngines.get(name);
+    }
+
+    /**
+     * 注册自定义的序列化/反序列化适配器，之后使用 gson 引擎的方法和流式读写都使用该适配器，应在启动阶段调用
+     * @param type        目标类型
+     * @param typeAdapter TypeAdapter、JsonSerializer、JsonDeserializer 或 InstanceCreator
+     */
+    public static void registerAdapter(Type type, Object typeAdapter) {
+        JsonTypeRegistry.registerAdapter(type, typeAdapter);
+    }
+
+    /**
+     * 注册自定义的适配器工厂，应在启动阶段调用
+     * @param factory 适配器工厂
+     */
+    public static void registerAdapterFactory(TypeAdapterFactory factory) {
+        JsonTypeRegistry.registerAdapterFactory(factory);
+    }
+
+    /**
+     * 预热这些类的类型和适配器，避免首次请求时解析
+     * @param classes 常用的 json 对象类
+     */
+    public static void warmUp(Class<?>... classes) {
+        JsonTypeRegistry.warmUp(classes);
+    }
+
+    /**
+     * 流式读取 UTF-8 编码的 json 数组，每次只解析一个元素，适合读取很大的导出文件
+     * @param in    输入流，关闭迭代器时一并关闭
+     * @param clazz 元素类型
+     * @return 迭代器，使用完毕后需要关闭
+     */
+    public static <T> JsonArrayIterator<T> iterateArray(InputStream in, Class<T> clazz) {
+        return new JsonArrayIterator<>(new InputStreamReader(in, StandardCharsets.UTF_8), clazz);
+    }
+
+    /**
+     * 流式读取 UTF-8 编码的 json 数组，依次交给 consumer 处理
+     * @param in       输入流，不会被关闭
+     * @param clazz    元素类型
+     * @param consumer 元素处理
+     * @return 元素数
+     */
+    public static <T> long forEachInArray(InputStream in, Class<T> clazz, Consumer<? super T> consumer) {
+        final JsonArrayIterator<T> iterator = iterateArray(in, clazz);
+        long count = 0;
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 流式读取 UTF-8 编码的 NDJSON（每行一个 json 值），空白行跳过
+     * @param in    输入流，关闭迭代器时一并关闭
+     * @param clazz 元素类型
+     * @return 迭代器，使用完毕后需要关闭
+     */
+    public static <T> NdjsonIterator<T> iterateNdjson(InputStream in, Class<T> clazz) {
+        return new NdjsonIterator<>(newReader(in), clazz);
+    }
+
+    /**
+     * 流式读取 UTF-8 编码的 NDJSON，按行的顺序依次交给 consumer 处理
+     * @param in       输入流，不会被关闭
+     * @param clazz    元素类型
+     * @param consumer 元素处理
+     * @return 元素数
+     */
+    public static <T> long forEachNdjson(InputStream in, Class<T> clazz, Consumer<? super T> consumer) {
+        final NdjsonIterator<T> iterator = iterateNdjson(in, clazz);
+        long count = 0;
+        while (iterator.hasNext()) {
+            consumer.accept(iterator.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 多线程并行解析 UTF-8 编码的 NDJSON，consumer 会在多个线程中被并发调用，不保证顺序，需要自行保证线程安全
+     * @param in          输入流，不会被关闭
+     * @param clazz       元素类型
+     * @param consumer    元素处理
+     * @param parallelism 解析线程数
+     * @return 元素数
+     */
+    public static <T> long forEachNdjson(InputStream in, Class<T> clazz, Consumer<? super T> consumer, int parallelism) {
+        return ParallelNdjsonDecoder.decode(newReader(in), clazz, consumer, parallelism);
+    }
+
+    /**
+     * 以 UTF-8 流式写出 json 数组
+     * @param out 输出流，关闭 writer 时一并关闭
+     * @return writer，写完后需要关闭以补上结尾的 ]
+     */
+    public static JsonStreamWriter arrayWriter(OutputStream out) {
+        return new JsonStreamWriter(newWriter(out), false);
+    }
+
+    /**
+     * 以 UTF-8 流式写出 NDJSON，每个元素一行
+     * @param out 输出流，关闭 writer 时一并关闭
+     * @return writer，写完后需要关闭
+     */
+    public static JsonStreamWriter ndjsonWriter(OutputStream out) {
+        return new JsonStreamWriter(newWriter(out), true);
+    }
+
+    /**
+     * 流式提取 json 中一个路径的值，跳过不需要的子树，找到后立即停止读取，不构建整个对象
+     * @param text json 串
+     * @param path 路径，字段名用 . 分隔，数组下标用 [n]，特殊字段名用 ['a.b']，例如 {@code result.items[0].id}
+     * @return 路径的值，路径不存在或 json 格式错误时为 null，值为 json 的 null 时为 JsonNull
+     */
+    public static JsonElement query(String text, String path) {
+        return queryAll(text, path).get(path);
+    }
+
+    /**
+     * 流式提取 json 中一个路径的值并转换为 clazz
+     * @param text  json 串
+     * @param path  路径
+     * @param clazz 值的类型
+     * @return 转换后的值，路径不存在或转换失败时为 null
+     */
+    public static <T> T query(String text, String path, Class<T> clazz) {
+        final JsonElement element = query(text, path);
+        T result = null;
+        try {
+            result = element == null ? null : JsonTypeRegistry.gson().fromJson(element, JsonTypeRegistry.objectType(clazz));
+        } catch (Exception e) {
+            log.error("GsonUtil######query 路径的值转换对象异常! path={}, value={}, clazz={}", path, element, clazz, e);
+        }
+        return result;
+    }
+
+    /**
+     * 一次遍历提取 json 中多个路径的值
+     * @param text  json 串
+     * @param paths 路径
+     * @return 路径到值的映射，按参数顺序，不包含不存在的路径
+     */
+    public static Map<String, JsonElement> queryAll(String text, String... paths) {
+        return query(text == null ? null : new StringReader(text), text, paths);
+    }
+
+    /**
+     * 流式提取 UTF-8 编码的 json 中一个路径的值，适合只需要大报文中个别字段的场景
+     * @param in   输入流，不会被关闭，找到后不再继续读取
+     * @param path 路径
+     * @return 路径的值，路径不存在或 json 格式错误时为 null
+     */
+    public static JsonElement query(InputStream in, String path) {
+        return queryAll(in, path).get(path);
+    }
+
+    /**
+     * 一次遍历提取 UTF-8 编码的 json 中多个路径的值
+     * @param in    输入流，不会被关闭，全部找到后不再继续读取
+     * @param paths 路径
+     * @return 路径到值的映射，按参数顺序，不包含不存在的路径
+     */
+    public static Map<String, JsonElement> queryAll(InputStream in, String... paths) {
+        return query(in == null ? null : newReader(in), "<stream>", paths);
+    }
+
+    private static Map<String, JsonElement> query(Reader in, String source, String... paths) {
+        // 路径格式错误属于调用方的问题，直接抛出
+        final List<JsonPath> compiled = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            compiled.add(JsonPath.compile(path));
+        }
+        final Map<String, JsonElement> result = new LinkedHashMap<>();
+        if (in == null) {
+            return result;
+        }
+        try {
+            final JsonElement[] values = new JsonPathQuery(compiled).execute(in);
+            for (int i = 0; i < paths.length; i++) {
+                if (values[i] != null) {
+                    result.put(paths[i], values[i]);
+                }
+            }
+        } catch (Exception e) {
+            log.error("GsonUtil######query 提取 json 路径异常! text={}, paths={}", source, Arrays.toString(paths), e);
+            result.clear();
+        }
+        return result;
+    }
+
+    private static BufferedReader newReader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static Writer newWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,108 @@
+package com.zj.common.json;
+
+import com.google.gson.reflect.TypeToken;
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 流式读取 NDJSON（每行一个 json 值）的迭代器，每次只读取并解析一行，空白行跳过
+ * <p>
+ * 解析失败时抛出 {@link BusinessException}，日志中给出出错的行号，使用完毕后需要关闭以释放底层输入流。
+ *
+ * @author junzhou
+ * @date 2026/10/18 23:20
+ * @since 1.8
+ */
+@Slf4j
+public class NdjsonIterator<T> implements Iterator<T>, Closeable {
+
+    private final BufferedReader reader;
+
+    private final TypeToken<T> type;
+
+    private String nextLine;
+
+    private long lineNumber;
+
+    private boolean finished;
+
+    NdjsonIterator(BufferedReader reader, Class<T> clazz) {
+        this.reader = reader;
+        this.type = JsonTypeRegistry.objectType(clazz);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isNotBlank(line)) {
+                    nextLine = line;
+                    return true;
+                }
+            }
+            finished = true;
+            return false;
+        } catch (IOException e) {
+            finished = true;
+            log.error("NdjsonIterator######hasNext 读取 NDJSON 异常! lineNumber={}", lineNumber, e);
+            throw new BusinessException(ResultCode.JSON_TO_OBJECT_ERROR);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String line = nextLine;
+        nextLine = null;
+        try {
+            return parseLine(line, lineNumber, type);
+        } catch (BusinessException e) {
+            finished = true;
+            throw e;
+        }
+    }
+
+    /**
+     * @return 最近读取的一行的行号，从 1 开始
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        nextLine = null;
+        reader.close();
+    }
+
+    /**
+     * 解析 NDJSON 中的一行
+     */
+    static <T> T parseLine(String line, long lineNumber, TypeToken<T> type) {
+        try {
+            return JsonTypeRegistry.gson().fromJson(line, type);
+        } catch (RuntimeException e) {
+            log.error("NdjsonIterator######parseLine 解析 NDJSON 异常! lineNumber={}, type={}", lineNumber, type, e);
+            throw new BusinessException(ResultCode.JSON_TO_OBJECT_ERROR);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.zj.common.json;
+
+import com.google.gson.reflect.TypeToken;
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 并行解析 NDJSON
+ * <p>
+ * 调用线程按行读取并按批提交给固定数量的工作线程解析，任务队列有界，队列满时由调用线程自己解析一批，
+ * 同一时刻在内存中的行数不超过 (线程数 * 3 + 2) * 批大小。任一行解析失败或 consumer 抛出异常后停止读取，
+ * 等待已经提交的批次结束后抛出第一个异常；等待期间调用线程被中断时未完成的批次被取消，同样抛出异常，不会返回不完整的计数。
+ *
+ * @author junzhou
+ * @date 2026/10/18 23:40
+ * @since 1.8
+ */
+@Slf4j
+final class ParallelNdjsonDecoder {
+
+    /**
+     * 每批提交的行数
+     */
+    static final int BATCH_SIZE = 256;
+
+    private ParallelNdjsonDecoder() {
+    }
+
+    /**
+     * @return 解析的元素数
+     */
+    static <T> long decode(BufferedReader reader, Class<T> clazz, Consumer<? super T> consumer, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("并发数必须大于 0");
+        }
+        final TypeToken<T> type = JsonTypeRegistry.objectType(clazz);
+        final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        final ThreadPoolExecutor executor = newExecutor(parallelism);
+        long count = 0;
+        long lineNumber = 0;
+        try {
+            List<String> batch = new ArrayList<>(BATCH_SIZE);
+            long[] lineNumbers = new long[BATCH_SIZE];
+            String line;
+            while (failure.get() == null && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (StringUtils.isBlank(line)) {
+                    continue;
+                }
+                lineNumbers[batch.size()] = lineNumber;
+                batch.add(line);
+                count++;
+                if (batch.size() == BATCH_SIZE) {
+                    submit(executor, batch, lineNumbers, type, consumer, failure);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    lineNumbers = new long[BATCH_SIZE];
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                submit(executor, batch, lineNumbers, type, consumer, failure);
+            }
+        } catch (IOException e) {
+            log.error("ParallelNdjsonDecoder######decode 读取 NDJSON 异常! lineNumber={}", lineNumber, e);
+            failure.compareAndSet(null, new BusinessException(ResultCode.JSON_TO_OBJECT_ERROR));
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor, failure);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return count;
+    }
+
+    private static <T> void submit(ThreadPoolExecutor executor, List<String> batch, long[] lineNumbers, TypeToken<T> type,
+                                   Consumer<? super T> consumer, AtomicReference<RuntimeException> failure) {
+        executor.execute(() -> {
+            for (int i = 0; i < batch.size(); i++) {
+                if (failure.get() != null) {
+                    return;
+                }
+                try {
+                    consumer.accept(NdjsonIterator.parseLine(batch.get(i), lineNumbers[i], type));
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    return;
+                }
+            }
+        });
+    }
+
+    private static ThreadPoolExecutor newExecutor(int parallelism) {
+        final AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism * 2),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "ndjson-decode-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static void awaitTermination(ThreadPoolExecutor executor, AtomicReference<RuntimeException> failure) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("ParallelNdjsonDecoder######awaitTermination 等待解析完成, 剩余批次: {}", executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            final int dropped = executor.shutdownNow().size();
+            Thread.currentThread().interrupt();
+            log.error("ParallelNdjsonDecoder######awaitTermination 等待解析时被中断, 未处理的批次: {}", dropped);
+            failure.compareAndSet(null, new BusinessException(ResultCode.JSON_TO_OBJECT_ERROR));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.zj.common.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * 把字符直接编码为 UTF-8 写入输出流的 Writer，字节缓冲区在同一线程内反复使用
+ * <p>
+ * 与 OutputStreamWriter 相比不再为每次写出创建编码器和缓冲区。每次通过 {@link #acquire(OutputStream)} 创建一个轻量的实例，
+ * 字节缓冲区按线程缓存，使用完毕后调用 {@link #release()} 把缓冲区中的字节写入输出流并归还；同一线程嵌套使用时临时创建新的缓冲区。
+ * ThreadLocal 中只保存 byte[]，servlet 容器的工作线程不会持有本库的类，重新部署 webapp 时不会导致类加载器泄漏。
+ * 不会关闭或 flush 底层输出流。
+ *
+ * @author junzhou
+ * @date 2026/10/18 23:55
+ * @since 1.8
+ */
+final class Utf8StreamWriter extends Writer {
+
+    static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * 当前线程空闲的缓冲区，被取走时为 null
+     */
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+    private final byte[] buffer;
+
+    private int position;
+
+    private OutputStream out;
+
+    /**
+     * 上一次写入结尾未配对的高代理字符
+     */
+    private char pendingHighSurrogate;
+
+    private Utf8StreamWriter(OutputStream out, byte[] buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    static Utf8StreamWriter acquire(OutputStream out) {
+        byte[] buffer = BUFFERS.get();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        } else {
+            BUFFERS.set(null);
+        }
+        return new Utf8StreamWriter(out, buffer);
+    }
+
+    /**
+     * 把缓冲区中剩余的字节写入输出流并归还，写入失败时同样归还
+     */
+    void release() throws IOException {
+        try {
+            if (pendingHighSurrogate != 0) {
+                pendingHighSurrogate = 0;
+                writeReplacement();
+            }
+            drain();
+        } finally {
+            out = null;
+            BUFFERS.set(buffer);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            encode(chars[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (int i = off, end = off + len; i < end; i++) {
+            encode(str.charAt(i));
+        }
+    }
+
+    /**
+     * 只把缓冲区写入输出流，不 flush 底层输出流
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+    }
+
+    private void encode(char c) throws IOException {
+        if (position > BUFFER_SIZE - 4) {
+            drain();
+        }
+        if (pendingHighSurrogate != 0) {
+            final char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            writeReplacement();
+            if (position > BUFFER_SIZE - 4) {
+                drain();
+            }
+        }
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            writeReplacement();
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * 不成对的代理字符按 OutputStreamWriter 的做法替换为 '?'
+     */
+    private void writeReplacement() {
+        buffer[position++] = '?';
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
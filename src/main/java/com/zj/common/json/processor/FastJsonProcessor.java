@@ -0,0 +1,560 @@
+package com.zj.common.json.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@code @FastJson} 注解处理器，为每个标记的类生成 {@code <类名>_FastJsonAdapterFactory}，
+ * 并把所有生成的工厂写入 {@code META-INF/services/com.zj.common.json.GeneratedTypeAdapterFactory}
+ * <p>
+ * 生成的适配器按 Gson 反射适配器的规则读写字段：子类字段在前、父类字段在后，跳过 static 和 transient 字段，
+ * 支持 {@code @SerializedName} 的名称和备用名称，值为 null 的字段是否写出由 Gson 的 serializeNulls 配置决定。
+ * 与 Gson 一样，声明类型不是参数化类型的非 final 字段写出时按值的运行时类型选择适配器，子类字段不会丢失。
+ * 本处理器不依赖 lombok，与 lombok 一起使用时 lombok 需要排在前面；找不到 getter/setter 时按 lombok 的命名规则调用。
+ *
+ * @author junzhou
+ * @date 2026/10/19 01:10
+ * @since 1.8
+ */
+@SupportedAnnotationTypes(FastJsonProcessor.ANNOTATION)
+public class FastJsonProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.zj.common.json.FastJson";
+
+    static final String FACTORY_SUFFIX = "_FastJsonAdapterFactory";
+
+    static final String SERVICE_FILE = "META-INF/services/com.zj.common.json.GeneratedTypeAdapterFactory";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+
+    private static final Set<String> LOMBOK_ACCESSORS = new HashSet<>(Arrays.asList(
+            "lombok.Data", "lombok.Getter", "lombok.Setter", "lombok.Value"));
+
+    private static final Set<String> LOMBOK_NO_ARGS = new HashSet<>(Arrays.asList(
+            "lombok.NoArgsConstructor", "lombok.Data"));
+
+    private final Set<String> factories = new TreeSet<>();
+
+    private Elements elements;
+
+    private Types types;
+
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        final TypeElement annotation = elements.getTypeElement(ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            try {
+                final TypeElement type = checkType(element);
+                factories.add(generate(type));
+            } catch (InvalidElementException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@FastJson: " + e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@FastJson 生成适配器失败: " + e, element);
+            }
+        }
+        return false;
+    }
+
+    private TypeElement checkType(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            throw new InvalidElementException(element, "只能标记在类上");
+        }
+        final TypeElement type = (TypeElement) element;
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new InvalidElementException(element, "不能标记抽象类");
+        }
+        for (Element current = type; current.getKind().isClass(); current = current.getEnclosingElement()) {
+            final TypeElement currentType = (TypeElement) current;
+            if (currentType.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new InvalidElementException(element, "类及其外部类不能是 private");
+            }
+            if (currentType.getNestingKind() == NestingKind.MEMBER && !currentType.getModifiers().contains(Modifier.STATIC)) {
+                throw new InvalidElementException(element, "内部类必须是 static");
+            }
+            if (currentType.getNestingKind() == NestingKind.LOCAL || currentType.getNestingKind() == NestingKind.ANONYMOUS) {
+                throw new InvalidElementException(element, "不支持局部类和匿名类");
+            }
+        }
+        boolean hasNoArgs = hasAnnotation(type, LOMBOK_NO_ARGS);
+        final List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            hasNoArgs |= constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE);
+        }
+        if (!hasNoArgs && !constructors.isEmpty()) {
+            throw new InvalidElementException(element, "需要非 private 的无参构造方法");
+        }
+        return type;
+    }
+
+    /**
+     * @return 生成的工厂类全名
+     */
+    private String generate(TypeElement type) throws IOException {
+        final String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        final String factoryName = flatName(type) + FACTORY_SUFFIX;
+        final String qualifiedFactoryName = packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+        final List<Property> properties = properties(type, packageName);
+        final String target = type.getQualifiedName().toString();
+
+        final StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n * 由 FastJsonProcessor 根据 {@link ").append(target).append("} 生成，请勿修改\n */\n");
+        code.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+        code.append("public final class ").append(factoryName).append(" implements com.zj.common.json.GeneratedTypeAdapterFactory {\n\n");
+        code.append("    @Override\n    public Class<?> targetType() {\n        return ").append(target).append(".class;\n    }\n\n");
+        code.append("    @Override\n");
+        code.append("    public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, com.google.gson.reflect.TypeToken<T> type) {\n");
+        code.append("        if (type.getRawType() != ").append(target).append(".class) {\n            return null;\n        }\n");
+        code.append("        return (com.google.gson.TypeAdapter<T>) new Adapter(gson, com.zj.common.json.FastJsonSupport.typeArguments(type, ")
+                .append(type.getTypeParameters().size()).append("));\n    }\n\n");
+
+        code.append("    private static final class Adapter extends com.google.gson.TypeAdapter<").append(target).append("> {\n\n");
+        code.append("        private final com.google.gson.Gson gson;\n\n");
+        for (Property property : properties) {
+            if (property.usesAdapter()) {
+                code.append("        private final java.lang.reflect.Type ").append(property.typeField()).append(";\n\n");
+                code.append("        private final com.google.gson.TypeAdapter<Object> ").append(property.adapterField()).append(";\n\n");
+            }
+        }
+        code.append("        private Adapter(com.google.gson.Gson gson, java.lang.reflect.Type[] typeArgs) {\n");
+        code.append("            this.gson = gson;\n");
+        for (Property property : properties) {
+            if (property.usesAdapter()) {
+                code.append("            this.").append(property.typeField()).append(" = ").append(typeExpression(property.type, type)).append(";\n");
+                code.append("            this.").append(property.adapterField())
+                        .append(" = (com.google.gson.TypeAdapter<Object>) gson.getAdapter(com.google.gson.reflect.TypeToken.get(")
+                        .append(property.typeField()).append("));\n");
+            }
+        }
+        code.append("        }\n\n");
+
+        code.append("        @Override\n        public void write(com.google.gson.stream.JsonWriter out, ").append(target)
+                .append(" value) throws java.io.IOException {\n");
+        code.append("            if (value == null) {\n                out.nullValue();\n                return;\n            }\n");
+        code.append("            out.beginObject();\n");
+        for (Property property : properties) {
+            code.append("            out.name(\"").append(escape(property.name)).append("\");\n");
+            if (property.usesAdapter() && isRuntimeTyped(property.type)) {
+                code.append("            com.zj.common.json.FastJsonSupport.writeRuntimeType(gson, ").append(property.adapterField())
+                        .append(", ").append(property.typeField()).append(", out, ").append(property.getter).append(");\n");
+            } else if (property.usesAdapter()) {
+                code.append("            ").append(property.adapterField()).append(".write(out, ").append(property.getter).append(");\n");
+            } else {
+                code.append("            out.value(").append(property.getter).append(");\n");
+            }
+        }
+        code.append("            out.endObject();\n        }\n\n");
+
+        code.append("        @Override\n        public ").append(target)
+                .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        code.append("            if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n                in.nextNull();\n                return null;\n            }\n");
+        code.append("            final ").append(target).append(" value = new ").append(target).append("();\n");
+        code.append("            try {\n                in.beginObject();\n            } catch (IllegalStateException e) {\n")
+                .append("                throw new com.google.gson.JsonSyntaxException(e);\n            }\n");
+        code.append("            while (in.hasNext()) {\n                switch (in.nextName()) {\n");
+        for (Property property : properties) {
+            for (String name : property.readNames) {
+                code.append("                    case \"").append(escape(name)).append("\":\n");
+            }
+            code.append("                        ").append(readStatement(property)).append("\n");
+            code.append("                        break;\n");
+        }
+        code.append("                    default:\n                        in.skipValue();\n                }\n            }\n");
+        code.append("            in.endObject();\n            return value;\n        }\n    }\n}\n");
+
+        try (Writer writer = filer.createSourceFile(qualifiedFactoryName, type).openWriter()) {
+            writer.write(code.toString());
+        }
+        return qualifiedFactoryName;
+    }
+
+    private String readStatement(Property property) {
+        if (property.setter == null) {
+            return "in.skipValue();";
+        }
+        switch (property.type.getKind()) {
+            case INT:
+                return "if (!com.zj.common.json.FastJsonSupport.skipNull(in)) { "
+                        + property.set("com.zj.common.json.FastJsonSupport.readInt(in)") + " }";
+            case LONG:
+                return "if (!com.zj.common.json.FastJsonSupport.skipNull(in)) { "
+                        + property.set("com.zj.common.json.FastJsonSupport.readLong(in)") + " }";
+            case BOOLEAN:
+                return "if (!com.zj.common.json.FastJsonSupport.skipNull(in)) { "
+                        + property.set("com.zj.common.json.FastJsonSupport.readBoolean(in)") + " }";
+            default:
+                break;
+        }
+        if (property.isString()) {
+            return property.set("com.zj.common.json.FastJsonSupport.readString(in)");
+        }
+        final String castType = property.type.getKind().isPrimitive()
+                ? types.boxedClass((PrimitiveType) property.type).getQualifiedName().toString()
+                : types.erasure(property.type).toString();
+        if (property.type.getKind().isPrimitive()) {
+            return "{ final Object v = " + property.adapterField() + ".read(in); if (v != null) { "
+                    + property.set("(" + castType + ") v") + " } }";
+        }
+        return property.set("(" + castType + ") " + property.adapterField() + ".read(in)");
+    }
+
+    /**
+     * 值的运行时类型可能是声明类型的子类，且声明类型不是参数化类型时，写出时需要按运行时类型选择适配器，与 Gson 的
+     * TypeAdapterRuntimeTypeWrapper 一致；类型变量要到运行时才知道实际类型，由 {@code FastJsonSupport} 判断
+     */
+    private boolean isRuntimeTyped(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return true;
+            case DECLARED:
+                return ((DeclaredType) type).getTypeArguments().isEmpty()
+                        && !types.asElement(type).getModifiers().contains(Modifier.FINAL);
+            case ARRAY:
+                final TypeMirror component = ((ArrayType) type).getComponentType();
+                return !component.getKind().isPrimitive() && isRuntimeTyped(component);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 收集参与序列化的字段，子类字段在前、父类字段在后，与 Gson 一致
+     */
+    private List<Property> properties(TypeElement type, String packageName) {
+        final List<Property> properties = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        final DeclaredType declaredType = (DeclaredType) type.asType();
+        TypeElement owner = type;
+        while (owner != null && !"java.lang.Object".contentEquals(owner.getQualifiedName())) {
+            for (VariableElement field : ElementFilter.fieldsIn(owner.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                final Property property = new Property(properties.size(), field, types.asMemberOf(declaredType, field));
+                readSerializedName(property);
+                for (String name : property.readNames) {
+                    if (!names.add(name)) {
+                        throw new InvalidElementException(type, "json 字段名重复: " + name);
+                    }
+                }
+                resolveAccessors(property, owner, packageName);
+                properties.add(property);
+            }
+            final TypeMirror superclass = owner.getSuperclass();
+            owner = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        return properties;
+    }
+
+    private void readSerializedName(Property property) {
+        for (AnnotationMirror mirror : property.field.getAnnotationMirrors()) {
+            if (!SERIALIZED_NAME.contentEquals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                final String key = entry.getKey().getSimpleName().toString();
+                if ("value".equals(key)) {
+                    property.name = (String) entry.getValue().getValue();
+                } else if ("alternate".equals(key)) {
+                    for (Object alternate : (List<?>) entry.getValue().getValue()) {
+                        property.alternates.add((String) ((AnnotationValue) alternate).getValue());
+                    }
+                }
+            }
+        }
+        property.readNames.add(property.name);
+        property.readNames.addAll(property.alternates);
+    }
+
+    private void resolveAccessors(Property property, TypeElement owner, String packageName) {
+        final VariableElement field = property.field;
+        final String fieldName = field.getSimpleName().toString();
+        final boolean samePackage = packageName.contentEquals(elements.getPackageOf(owner).getQualifiedName());
+        final boolean isFinal = field.getModifiers().contains(Modifier.FINAL);
+        if (isAccessible(field, samePackage)) {
+            property.getter = "value." + fieldName;
+            property.setter = isFinal ? null : "value." + fieldName + " = ";
+            return;
+        }
+        final boolean primitiveBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        final String capitalized = capitalize(fieldName);
+        final List<String> getterNames = new ArrayList<>();
+        String setterName = "set" + capitalized;
+        if (primitiveBoolean) {
+            if (fieldName.length() > 2 && fieldName.startsWith("is") && Character.isUpperCase(fieldName.charAt(2))) {
+                getterNames.add(fieldName);
+                setterName = "set" + fieldName.substring(2);
+            }
+            getterNames.add("is" + capitalized);
+        }
+        getterNames.add("get" + capitalized);
+        String getter = null;
+        boolean hasSetter = false;
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.STATIC) || !isAccessible(method, samePackage)) {
+                continue;
+            }
+            final String methodName = method.getSimpleName().toString();
+            if (getter == null && method.getParameters().isEmpty() && getterNames.contains(methodName)) {
+                getter = methodName;
+            } else if (method.getParameters().size() == 1 && methodName.equals(setterName)) {
+                hasSetter = true;
+            }
+        }
+        final boolean lombok = hasAnnotation(owner, LOMBOK_ACCESSORS) || hasAnnotation(field, LOMBOK_ACCESSORS);
+        if (getter == null) {
+            if (!lombok) {
+                throw new InvalidElementException(field, "字段不可访问且没有 getter: " + fieldName);
+            }
+            getter = getterNames.get(0);
+        }
+        property.getter = "value." + getter + "()";
+        if (isFinal) {
+            property.setter = null;
+        } else if (hasSetter || lombok) {
+            property.setter = "value." + setterName + "(";
+        } else {
+            throw new InvalidElementException(field, "字段不可访问且没有 setter: " + fieldName);
+        }
+    }
+
+    /**
+     * 生成类型参数替换为运行时实际类型的 Type 表达式，typeArgs 为目标类的实际类型参数
+     */
+    private String typeExpression(TypeMirror type, TypeElement target) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                final List<? extends TypeParameterElement> parameters = target.getTypeParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    if (types.isSameType(parameters.get(i).asType(), type)) {
+                        return "typeArgs[" + i + "]";
+                    }
+                }
+                return "Object.class";
+            case DECLARED:
+                final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                final String raw = types.erasure(type).toString() + ".class";
+                if (arguments.isEmpty()) {
+                    return raw;
+                }
+                final StringBuilder expression = new StringBuilder("com.google.gson.reflect.TypeToken.getParameterized(").append(raw);
+                for (TypeMirror argument : arguments) {
+                    expression.append(", ").append(typeExpression(argument, target));
+                }
+                return expression.append(").getType()").toString();
+            case ARRAY:
+                final TypeMirror component = ((ArrayType) type).getComponentType();
+                if (component.getKind().isPrimitive()) {
+                    return types.erasure(type).toString() + ".class";
+                }
+                return "com.google.gson.reflect.TypeToken.getArray(" + typeExpression(component, target) + ").getType()";
+            case WILDCARD:
+                final TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                return bound == null ? "Object.class" : typeExpression(bound, target);
+            default:
+                if (type.getKind().isPrimitive()) {
+                    return types.boxedClass((PrimitiveType) type).getQualifiedName() + ".class";
+                }
+                return "Object.class";
+        }
+    }
+
+    /**
+     * 合并已有的服务登记文件，只保留仍然存在的类，支持增量编译
+     */
+    private void writeServiceFile() {
+        if (factories.isEmpty()) {
+            return;
+        }
+        final Set<String> all = new TreeSet<>(factories);
+        try {
+            final FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#") && elements.getTypeElement(line) != null) {
+                        all.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 第一次编译时文件不存在
+        }
+        try {
+            final FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String factory : all) {
+                    writer.write(factory);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@FastJson 写入 " + SERVICE_FILE + " 失败: " + e);
+        }
+    }
+
+    private static boolean isAccessible(Element element, boolean samePackage) {
+        final Set<Modifier> modifiers = element.getModifiers();
+        return modifiers.contains(Modifier.PUBLIC) || (samePackage && !modifiers.contains(Modifier.PRIVATE));
+    }
+
+    private static boolean hasAnnotation(Element element, Set<String> names) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (names.contains(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String flatName(TypeElement type) {
+        final List<String> names = new ArrayList<>();
+        for (Element current = type; !(current instanceof PackageElement); current = current.getEnclosingElement()) {
+            names.add(current.getSimpleName().toString());
+        }
+        Collections.reverse(names);
+        return String.join("_", names);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * 参与序列化的一个字段
+     */
+    private static final class Property {
+
+        private final int index;
+
+        private final VariableElement field;
+
+        /**
+         * 在目标类中看到的字段类型，父类的类型参数已经替换
+         */
+        private final TypeMirror type;
+
+        private String name;
+
+        private final List<String> alternates = new ArrayList<>();
+
+        private final List<String> readNames = new ArrayList<>();
+
+        private String getter;
+
+        /**
+         * 以 "value.x = " 或 "value.setX(" 开头，final 字段为 null
+         */
+        private String setter;
+
+        private Property(int index, VariableElement field, TypeMirror type) {
+            this.index = index;
+            this.field = field;
+            this.type = type;
+            this.name = field.getSimpleName().toString();
+        }
+
+        private boolean isString() {
+            return type.getKind() == TypeKind.DECLARED && "java.lang.String".equals(type.toString());
+        }
+
+        private boolean usesAdapter() {
+            final TypeKind kind = type.getKind();
+            return kind != TypeKind.INT && kind != TypeKind.LONG && kind != TypeKind.BOOLEAN && !isString();
+        }
+
+        private String adapterField() {
+            return "adapter" + index + "_" + field.getSimpleName();
+        }
+
+        private String typeField() {
+            return "type" + index + "_" + field.getSimpleName();
+        }
+
+        private String set(String expression) {
+            return setter.endsWith("(") ? setter + expression + ");" : setter + expression + ";";
+        }
+    }
+
+    private static final class InvalidElementException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        private InvalidElementException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
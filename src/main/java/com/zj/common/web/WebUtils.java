@@ -1,8 +1,12 @@
 package com.zj.common.web;
 
+import com.zj.common.json.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+@Slf4j
 public class WebUtils {
     /**
      * 将字符串渲染到客户端
@@ -20,4 +24,28 @@ public class WebUtils {
             e.printStackTrace();
         }
     }
+
+    /**
+     * 将对象序列化为 json 直接写入响应的输出流，不生成中间的字符串
+     *
+     * @param response 渲染对象
+     * @param object   待渲染的对象
+     */
+    public static void renderJson(HttpServletResponse response, Object object) {
+        response.setStatus(200);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("utf-8");
+        try {
+            JsonUtil.writeTo(object, response.getOutputStream());
+        } catch (IllegalStateException e) {
+            // 已经调用过 getWriter() 的响应不能再获取输出流
+            try {
+                JsonUtil.writeTo(object, response.getWriter());
+            } catch (IOException ioException) {
+                log.error("WebUtils######renderJson 写出响应失败!", ioException);
+            }
+        } catch (IOException e) {
+            log.error("WebUtils######renderJson 写出响应失败!", e);
+        }
+    }
 }
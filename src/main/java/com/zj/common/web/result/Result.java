@@ -2,6 +2,7 @@ package com.zj.common.web.result;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.zj.common.exception.ResultCode;
+import com.zj.common.json.FastJson;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +16,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@FastJson
 public class Result<T> {
 
     private int code;
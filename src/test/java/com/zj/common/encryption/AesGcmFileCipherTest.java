@@ -0,0 +1,121 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static com.zj.common.encryption.AesGcmStreamsTest.random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link AesGcmFileCipher} 的并行加解密测试，以及与 {@link AesGcmStreams} 的互相解密
+ *
+ * @author junzhou
+ * @date 2026/10/19 08:50
+ * @since 1.8
+ */
+class AesGcmFileCipherTest {
+
+    private static final int CHUNK_SIZE = AesGcmFormat.MIN_CHUNK_SIZE;
+
+    private static final SecretKey KEY = AesGcmStreamsTest.key(3);
+
+    @TempDir
+    Path dir;
+
+    private final AesGcmFileCipher cipher = new AesGcmFileCipher().chunkSize(CHUNK_SIZE).parallelism(3);
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, CHUNK_SIZE, CHUNK_SIZE + 1, 10 * CHUNK_SIZE, 10 * CHUNK_SIZE + 999})
+    void fileRoundTrip(int size) throws IOException {
+        final byte[] plain = random(size);
+        final Path source = write("plain", plain);
+        assertEquals(size, cipher.encrypt(source, dir.resolve("sealed"), KEY));
+        assertEquals(AesGcmStreams.encryptedSize(size, CHUNK_SIZE), Files.size(dir.resolve("sealed")));
+        assertEquals(size, cipher.decrypt(dir.resolve("sealed"), dir.resolve("opened"), KEY));
+        assertArrayEquals(plain, Files.readAllBytes(dir.resolve("opened")));
+        assertOnlyFiles("opened", "plain", "sealed");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 4 * CHUNK_SIZE, 4 * CHUNK_SIZE + 3})
+    void streamAndFileCipherAreInterchangeable(int size) throws IOException {
+        final byte[] plain = random(size);
+        final Path source = write("plain", plain);
+
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(dir.resolve("stream-sealed"))) {
+            AesGcmStreams.encrypt(in, out, KEY, CHUNK_SIZE);
+        }
+        cipher.decrypt(dir.resolve("stream-sealed"), dir.resolve("file-opened"), KEY);
+        assertArrayEquals(plain, Files.readAllBytes(dir.resolve("file-opened")));
+
+        cipher.encrypt(source, dir.resolve("file-sealed"), KEY);
+        final ByteArrayOutputStream opened = new ByteArrayOutputStream();
+        try (InputStream in = Files.newInputStream(dir.resolve("file-sealed"))) {
+            AesGcmStreams.decrypt(in, opened, KEY);
+        }
+        assertArrayEquals(plain, opened.toByteArray());
+    }
+
+    @Test
+    void tamperedFileLeavesTargetUntouched() throws IOException {
+        final Path sealed = dir.resolve("sealed");
+        cipher.encrypt(write("plain", random(10 * CHUNK_SIZE)), sealed, KEY);
+        final byte[] bytes = Files.readAllBytes(sealed);
+        bytes[AesGcmFormat.HEADER_SIZE + 5 * (CHUNK_SIZE + AesGcmFormat.TAG_SIZE) + 1] ^= 1;
+        Files.write(sealed, bytes);
+        final Path target = write("opened", "existing".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BusinessException.class, () -> cipher.decrypt(sealed, target, KEY));
+        assertEquals("existing", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        assertOnlyFiles("opened", "plain", "sealed");
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        final Path sealed = dir.resolve("sealed");
+        cipher.encrypt(write("plain", random(3 * CHUNK_SIZE)), sealed, KEY);
+        final byte[] bytes = Files.readAllBytes(sealed);
+        // 依次去掉空的最后一块、最后一块的一部分和全部分块
+        for (int length : new int[]{bytes.length - AesGcmFormat.TAG_SIZE, bytes.length - 100, AesGcmFormat.HEADER_SIZE, 3}) {
+            Files.write(sealed, Arrays.copyOf(bytes, length));
+            assertThrows(BusinessException.class, () -> cipher.decrypt(sealed, dir.resolve("opened"), KEY));
+        }
+        assertOnlyFiles("plain", "sealed");
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AesGcmFileCipher().chunkSize(CHUNK_SIZE - 1));
+        assertThrows(IllegalArgumentException.class, () -> new AesGcmFileCipher().parallelism(0));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(dir.resolve(name), content);
+    }
+
+    /**
+     * 失败或成功后都不能留下临时文件
+     */
+    private void assertOnlyFiles(String... names) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            assertArrayEquals(names, files.map(path -> path.getFileName().toString()).sorted().toArray(String[]::new));
+        }
+    }
+}
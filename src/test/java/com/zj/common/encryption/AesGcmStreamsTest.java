@@ -0,0 +1,166 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link AesGcmStreams} 的往返、分块边界、篡改和截断测试，分块大小使用最小值 1KB，少量数据就能覆盖多个分块
+ *
+ * @author junzhou
+ * @date 2026/10/19 08:40
+ * @since 1.8
+ */
+class AesGcmStreamsTest {
+
+    private static final int CHUNK_SIZE = AesGcmFormat.MIN_CHUNK_SIZE;
+
+    private static final SecretKey KEY = key(1);
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, CHUNK_SIZE - 1, CHUNK_SIZE, CHUNK_SIZE + 1, 3 * CHUNK_SIZE, 3 * CHUNK_SIZE + 7})
+    void streamRoundTrip(int size) throws IOException {
+        final byte[] plain = random(size);
+        final byte[] sealed = encrypt(plain);
+        assertEquals(AesGcmStreams.encryptedSize(size, CHUNK_SIZE), sealed.length);
+        assertArrayEquals(plain, decrypt(sealed, KEY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, CHUNK_SIZE, 2 * CHUNK_SIZE + 5})
+    void byteBufferAndStreamAreInterchangeable(int size) throws IOException {
+        final byte[] plain = random(size);
+        final ByteBuffer direct = ByteBuffer.allocateDirect((int) AesGcmStreams.encryptedSize(size, CHUNK_SIZE));
+        AesGcmStreams.encrypt(ByteBuffer.wrap(plain), direct, KEY, CHUNK_SIZE);
+        assertFalse(direct.hasRemaining());
+        direct.flip();
+        final byte[] sealed = new byte[direct.remaining()];
+        direct.duplicate().get(sealed);
+        assertArrayEquals(plain, decrypt(sealed, KEY));
+
+        final ByteBuffer opened = ByteBuffer.allocateDirect(size);
+        AesGcmStreams.decrypt(ByteBuffer.wrap(encrypt(plain)), opened, KEY);
+        opened.flip();
+        final byte[] result = new byte[opened.remaining()];
+        opened.get(result);
+        assertArrayEquals(plain, result);
+    }
+
+    @Test
+    void exactMultipleOfChunkSizeEndsWithEmptyChunk() throws IOException {
+        final byte[] sealed = encrypt(random(2 * CHUNK_SIZE));
+        assertEquals(AesGcmFormat.HEADER_SIZE + 2 * (CHUNK_SIZE + AesGcmFormat.TAG_SIZE) + AesGcmFormat.TAG_SIZE,
+                sealed.length);
+        // 去掉空的最后一块后，前一块没有最后一块的标记，不能通过校验
+        assertRejected(Arrays.copyOf(sealed, sealed.length - AesGcmFormat.TAG_SIZE));
+    }
+
+    @Test
+    void emptyInputStillHasAuthenticatedChunk() throws IOException {
+        final byte[] sealed = encrypt(new byte[0]);
+        assertEquals(AesGcmFormat.HEADER_SIZE + AesGcmFormat.TAG_SIZE, sealed.length);
+        assertRejected(Arrays.copyOf(sealed, AesGcmFormat.HEADER_SIZE));
+    }
+
+    @Test
+    void tamperedByteIsRejected() throws IOException {
+        final byte[] sealed = encrypt(random(3 * CHUNK_SIZE + 7));
+        for (int position : new int[]{0, 4, 5, 9, AesGcmFormat.HEADER_SIZE, AesGcmFormat.HEADER_SIZE + CHUNK_SIZE + 3,
+                sealed.length - 1}) {
+            final byte[] tampered = sealed.clone();
+            tampered[position] ^= 1;
+            assertRejected(tampered);
+        }
+    }
+
+    @Test
+    void truncatedCiphertextIsRejected() throws IOException {
+        final byte[] sealed = encrypt(random(3 * CHUNK_SIZE + 7));
+        final int sealedChunk = CHUNK_SIZE + AesGcmFormat.TAG_SIZE;
+        for (int length : new int[]{0, AesGcmFormat.HEADER_SIZE - 1, AesGcmFormat.HEADER_SIZE,
+                AesGcmFormat.HEADER_SIZE + sealedChunk, AesGcmFormat.HEADER_SIZE + 3 * sealedChunk, sealed.length - 1}) {
+            assertRejected(Arrays.copyOf(sealed, length));
+        }
+    }
+
+    @Test
+    void reorderedChunksAreRejected() throws IOException {
+        final byte[] sealed = encrypt(random(3 * CHUNK_SIZE + 7));
+        final int sealedChunk = CHUNK_SIZE + AesGcmFormat.TAG_SIZE;
+        final byte[] swapped = sealed.clone();
+        System.arraycopy(sealed, AesGcmFormat.HEADER_SIZE, swapped, AesGcmFormat.HEADER_SIZE + sealedChunk, sealedChunk);
+        System.arraycopy(sealed, AesGcmFormat.HEADER_SIZE + sealedChunk, swapped, AesGcmFormat.HEADER_SIZE, sealedChunk);
+        assertRejected(swapped);
+    }
+
+    @Test
+    void wrongKeyIsRejected() throws IOException {
+        final byte[] sealed = encrypt(random(100));
+        final BusinessException e = assertThrows(BusinessException.class, () -> decrypt(sealed, key(2)));
+        assertEquals(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR.getMessage(), e.getMessage());
+    }
+
+    @Test
+    void sameInputEncryptsDifferently() throws IOException {
+        final byte[] plain = random(100);
+        assertFalse(Arrays.equals(encrypt(plain), encrypt(plain)));
+    }
+
+    @Test
+    void invalidChunkSizeIsRejected() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(BusinessException.class, () -> AesGcmStreams.encrypt(new ByteArrayInputStream(new byte[1]), out,
+                KEY, CHUNK_SIZE - 1));
+        assertThrows(BusinessException.class, () -> AesGcmStreams.encrypt(new ByteArrayInputStream(new byte[1]), out,
+                KEY, AesGcmFormat.MAX_CHUNK_SIZE + 1));
+    }
+
+    static SecretKey key(int seed) {
+        final byte[] bytes = new byte[32];
+        new Random(seed).nextBytes(bytes);
+        return new SecretKeySpec(bytes, "AES");
+    }
+
+    static byte[] random(int size) {
+        final byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    static byte[] encrypt(byte[] plain) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(plain.length, AesGcmStreams.encrypt(new ByteArrayInputStream(plain), out, KEY, CHUNK_SIZE));
+        return out.toByteArray();
+    }
+
+    static byte[] decrypt(byte[] sealed, SecretKey key) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final long size = AesGcmStreams.decrypt(new ByteArrayInputStream(sealed), out, key);
+        assertEquals(size, out.size());
+        return out.toByteArray();
+    }
+
+    private static void assertRejected(byte[] sealed) {
+        final BusinessException e = assertThrows(BusinessException.class, () -> decrypt(sealed, KEY));
+        assertEquals(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR.getMessage(), e.getMessage());
+        final BusinessException buffer = assertThrows(BusinessException.class, () -> AesGcmStreams.decrypt(
+                ByteBuffer.wrap(sealed), ByteBuffer.allocate(sealed.length), KEY));
+        assertEquals(ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR.getMessage(), buffer.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package com.zj.common.encryption;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 比较每次 {@code getInstance} 查找和按线程缓存的 JCA 引擎对象的吞吐量，运行 main 方法即可，参数为每个用例的测量秒数（默认 2）
+ * <p>
+ * 用例为认证拦截器中的 SHA-256 摘要和小字段的 AES 加密，分别在单线程和所有核心并发时测量，每个用例先预热 1 秒，
+ * 结果仅供同一台机器上横向比较。
+ *
+ * @author junzhou
+ * @date 2026/10/19 03:10
+ * @since 1.8
+ */
+public class EncryptionBenchmark {
+
+    private static final long WARM_UP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final byte[] TOKEN = "eureka-auth-token-2026".getBytes(StandardCharsets.UTF_8);
+
+    private static final SecretKeySpec AES_KEY = new SecretKeySpec(new byte[32], "AES");
+
+    public static void main(String[] args) throws Exception {
+        final long measureNanos = TimeUnit.SECONDS.toNanos(args.length > 0 ? Long.parseLong(args[0]) : 2);
+        final int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-14s %-10s %8s %14s %12s%n", "case", "mode", "threads", "ops/s", "ns/op");
+        for (int threads : cores > 1 ? new int[]{1, cores} : new int[]{1}) {
+            run("sha256", "getInstance", threads, measureNanos, () -> sha256(EncryptionUtil.getSha256Digest()));
+            run("sha256", "pooled", threads, measureNanos, () -> sha256(CryptoPools.sha256Digest()));
+            run("aes(32B)", "getInstance", threads, measureNanos, () -> aes(EncryptionUtil.getAESCipher()));
+            run("aes(32B)", "pooled", threads, measureNanos, () -> aes(CryptoPools.aesCipher()));
+        }
+    }
+
+    private static long sha256(MessageDigest digest) {
+        return digest.digest(TOKEN)[0];
+    }
+
+    private static long aes(Cipher cipher) {
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, AES_KEY);
+            return cipher.doFinal(TOKEN).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param task 被测操作，各线程并发调用，返回值累加后输出，防止 JIT 消除调用
+     */
+    private static void run(String name, String mode, int threads, long measureNanos,
+                            LongSupplier task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            measure(executor, threads, task, WARM_UP_NANOS);
+            final long[] result = measure(executor, threads, task, measureNanos);
+            System.out.printf("%-14s %-10s %8d %,14.0f %,12.0f%n", name, mode, threads,
+                    result[0] * 1e9 / result[1], (double) result[1] * threads / result[0]);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {所有线程的操作次数, 耗时纳秒}
+     */
+    private static long[] measure(ExecutorService executor, int threads, LongSupplier task,
+                                  long durationNanos) throws Exception {
+        final List<Future<long[]>> futures = new ArrayList<>(threads);
+        final long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                long count = 0;
+                long sink = 0;
+                do {
+                    for (int j = 0; j < 64; j++) {
+                        sink += task.getAsLong();
+                    }
+                    count += 64;
+                } while (System.nanoTime() - start < durationNanos);
+                return new long[]{count, sink};
+            }));
+        }
+        long count = 0;
+        long sink = 0;
+        for (Future<long[]> future : futures) {
+            count += future.get()[0];
+            sink += future.get()[1];
+        }
+        final long elapsed = System.nanoTime() - start;
+        if (sink == Long.MIN_VALUE) {
+            System.out.println(sink);
+        }
+        return new long[]{count, elapsed};
+    }
+}
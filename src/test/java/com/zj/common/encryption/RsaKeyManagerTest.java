@@ -0,0 +1,239 @@
+package com.zj.common.encryption;
+
+import com.zj.common.exception.BusinessException;
+import com.zj.common.exception.ResultCode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.TreeSet;
+
+import static com.zj.common.encryption.AesGcmStreamsTest.random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link RsaKeyManager} 的混合加密测试：字节数组和流式接口互相解密、密钥轮换、篡改和截断，以及密钥库和 PEM 的加载
+ * <p>
+ * 测试资源中的 PEM 由 openssl 3 生成（{@code genrsa -traditional}、{@code rsa -RSAPublicKey_out}、{@code pkcs8 -topk8}），
+ * 密钥库由 keytool 生成：{@code keys.p12} 包含私钥条目 b-key、c-key 和证书条目 a-cert，a-cert 是 {@code other.p12}
+ * 中私钥 x 的证书，密码都是 changeit。这些密钥只用于测试。
+ *
+ * @author junzhou
+ * @date 2026/10/19 09:00
+ * @since 1.8
+ */
+class RsaKeyManagerTest {
+
+    private static KeyPair first;
+
+    private static KeyPair second;
+
+    @BeforeAll
+    static void generateKeyPairs() {
+        first = RsaKeyManager.generateKeyPair(RsaKeyManager.DEFAULT_KEY_SIZE);
+        second = RsaKeyManager.generateKeyPair(RsaKeyManager.DEFAULT_KEY_SIZE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, AesGcmStreams.DEFAULT_CHUNK_SIZE, AesGcmStreams.DEFAULT_CHUNK_SIZE + 1})
+    void bytesAndStreamAreInterchangeable(int size) throws IOException {
+        final RsaKeyManager manager = new RsaKeyManager().put("k1", first);
+        final byte[] plain = random(size);
+
+        assertArrayEquals(plain, manager.decrypt(manager.encrypt(plain)));
+        assertArrayEquals(plain, decryptStream(manager, manager.encrypt(plain)));
+        assertArrayEquals(plain, manager.decrypt(encryptStream(manager, plain)));
+        assertArrayEquals(plain, decryptStream(manager, encryptStream(manager, plain)));
+    }
+
+    @Test
+    void rotatedKeyStillDecryptsOldCiphertext() {
+        final RsaKeyManager manager = new RsaKeyManager().put("k1", first);
+        final byte[] old = manager.encrypt(bytes("old"));
+        manager.rotate("k2", second);
+        assertEquals("k2", manager.getActiveKeyId());
+        final byte[] current = manager.encrypt(bytes("new"));
+
+        assertArrayEquals(bytes("old"), manager.decrypt(old));
+        assertArrayEquals(bytes("new"), manager.decrypt(current));
+        // 只有新密钥的实例不能解密旧密文
+        assertDecryptRejected(new RsaKeyManager().put("k2", second), old, ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+
+        assertThrows(BusinessException.class, () -> manager.remove("k2"));
+        manager.remove("k1");
+        assertDecryptRejected(manager, old, ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        assertArrayEquals(bytes("new"), manager.decrypt(current));
+    }
+
+    @Test
+    void publicKeyOnlyCanEncryptButNotDecrypt() {
+        final RsaKeyManager sender = new RsaKeyManager().put("k1", new KeyPair(first.getPublic(), null));
+        final byte[] sealed = sender.encrypt(bytes("hello"));
+        assertDecryptRejected(sender, sealed, ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        assertArrayEquals(bytes("hello"), new RsaKeyManager().put("k1", first).decrypt(sealed));
+    }
+
+    @Test
+    void tamperedCiphertextIsRejected() {
+        final RsaKeyManager manager = new RsaKeyManager().put("k1", first);
+        final byte[] sealed = manager.encrypt(random(5000));
+        // 密文头：魔数 4 字节、版本 1 字节、密钥 id 长度 1 字节和 "k1"、数据密钥长度 2 字节
+        final int wrappedKeyOffset = 4 + 1 + 1 + 2 + 2;
+        assertDecryptRejected(manager, flip(sealed, 0), ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        assertDecryptRejected(manager, flip(sealed, wrappedKeyOffset + 10), ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        assertDecryptRejected(manager, flip(sealed, sealed.length - 100), ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR);
+    }
+
+    @Test
+    void truncatedCiphertextIsRejected() {
+        final RsaKeyManager manager = new RsaKeyManager().put("k1", first);
+        final byte[] sealed = manager.encrypt(random(5000));
+        assertDecryptRejected(manager, Arrays.copyOf(sealed, 20), ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        assertDecryptRejected(manager, Arrays.copyOf(sealed, sealed.length - 1), ResultCode.ENCRYPTION_UTIL_AES_GCM_DECRYPT_ERROR);
+    }
+
+    @Test
+    void loadsPkcs8AndX509Pem(@TempDir Path dir) throws IOException {
+        final Path privateKey = Files.write(dir.resolve("private.pem"), pem("PRIVATE KEY", first.getPrivate().getEncoded()));
+        final Path publicKey = Files.write(dir.resolve("public.pem"), pem("PUBLIC KEY", first.getPublic().getEncoded()));
+
+        final byte[] sealed = new RsaKeyManager().loadPublicKeyPem("pem", publicKey).encrypt(bytes("pem"));
+        final RsaKeyManager receiver = new RsaKeyManager().loadPem("pem", privateKey);
+        assertEquals(first.getPublic(), receiver.getPublicKey("pem"));
+        assertArrayEquals(bytes("pem"), receiver.decrypt(sealed));
+    }
+
+    @Test
+    void loadsOpensslPkcs1Pem() throws Exception {
+        final RsaKeyManager pkcs1 = new RsaKeyManager().loadPem("k", resource("pkcs1-private.pem"));
+        final RsaKeyManager pkcs8 = new RsaKeyManager().loadPem("k", resource("pkcs8-private.pem"));
+        assertEquals(pkcs8.getPublicKey("k"), pkcs1.getPublicKey("k"));
+
+        for (String publicPem : new String[]{"pkcs1-public.pem", "x509-public.pem"}) {
+            final RsaKeyManager sender = new RsaKeyManager().loadPublicKeyPem("k", resource(publicPem));
+            assertEquals(pkcs8.getPublicKey("k"), sender.getPublicKey("k"));
+            final byte[] sealed = sender.encrypt(bytes(publicPem));
+            assertArrayEquals(bytes(publicPem), pkcs1.decrypt(sealed));
+            assertArrayEquals(bytes(publicPem), pkcs8.decrypt(sealed));
+        }
+    }
+
+    @Test
+    void loadsKeyStoreWithCertificateEntries() throws Exception {
+        final RsaKeyManager manager = new RsaKeyManager()
+                .loadKeyStore(resource("keys.p12"), "PKCS12", "changeit".toCharArray(), null);
+        assertEquals(new TreeSet<>(Arrays.asList("a-cert", "b-key", "c-key")), manager.getKeyIds());
+        // 证书条目 a-cert 按别名排在最前，但自动激活的是第一个私钥条目
+        assertEquals("b-key", manager.getActiveKeyId());
+        assertArrayEquals(bytes("b"), manager.decrypt(manager.encrypt(bytes("b"))));
+        manager.activate("c-key");
+        assertArrayEquals(bytes("c"), manager.decrypt(manager.encrypt(bytes("c"))));
+
+        // 证书条目只能加密，由持有私钥的一方解密
+        manager.activate("a-cert");
+        final byte[] sealed = manager.encrypt(bytes("cert"));
+        assertDecryptRejected(manager, sealed, ResultCode.ENCRYPTION_UTIL_RSA_DECRYPT_ERROR);
+        final RsaKeyManager owner = new RsaKeyManager()
+                .loadKeyStore(resource("other.p12"), "PKCS12", "changeit".toCharArray(), "changeit".toCharArray());
+        assertEquals("x", owner.getActiveKeyId());
+        assertEquals(owner.getPublicKey("x"), manager.getPublicKey("a-cert"));
+        assertNotEquals(manager.getPublicKey("b-key"), manager.getPublicKey("a-cert"));
+        // 密文按密钥 id 选择私钥，持有方以同一 id 登记 x 的私钥后即可解密
+        final KeyStore otherStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(resource("other.p12"))) {
+            otherStore.load(in, "changeit".toCharArray());
+        }
+        owner.put("a-cert", new KeyPair(owner.getPublicKey("x"),
+                (PrivateKey) otherStore.getKey("x", "changeit".toCharArray())));
+        assertArrayEquals(bytes("cert"), owner.decrypt(sealed));
+
+        final RsaKeyManager certificate = new RsaKeyManager().loadPublicKeyPem("a-cert", resource("x-cert.pem"));
+        assertEquals(owner.getPublicKey("x"), certificate.getPublicKey("a-cert"));
+    }
+
+    @Test
+    void keyStoreWithoutRsaKeysOrWrongPasswordIsRejected() throws Exception {
+        final Path keys = resource("keys.p12");
+        assertThrows(IOException.class, () -> new RsaKeyManager().loadKeyStore(keys, "PKCS12", "wrong".toCharArray(), null));
+        final BusinessException e = assertThrows(BusinessException.class,
+                () -> new RsaKeyManager().loadPem("k", resource("x509-public.pem")));
+        assertEquals(ResultCode.ENCRYPTION_UTIL_RSA_KEY_LOAD_ERROR.getMessage(), e.getMessage());
+    }
+
+    @Test
+    void encryptionUtilUsesConfiguredManager() {
+        final RsaKeyManager manager = new RsaKeyManager().put("util", first);
+        EncryptionUtil.setRSAKeyManager(manager);
+        final String sealed = EncryptionUtil.encryptWithRSA("密码 password");
+        assertEquals("密码 password", EncryptionUtil.decryptWithRSA(sealed));
+        // 密文使用配置的密钥，持有同一私钥的其他实例也能解密
+        assertArrayEquals(bytes("密码 password"),
+                new RsaKeyManager().put("util", first).decrypt(Base64.getDecoder().decode(sealed)));
+        assertThrows(BusinessException.class, () -> EncryptionUtil.setRSAKeyManager(null));
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        final RsaKeyManager manager = new RsaKeyManager();
+        assertThrows(BusinessException.class, () -> manager.encrypt(bytes("no key")));
+        assertThrows(BusinessException.class, () -> manager.put("", first));
+        assertThrows(BusinessException.class, () -> manager.activate("missing"));
+        assertThrows(BusinessException.class, () -> RsaKeyManager.generateKeyPair(1024));
+    }
+
+    private static byte[] encryptStream(RsaKeyManager manager, byte[] plain) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(plain.length, manager.encrypt(new ByteArrayInputStream(plain), out));
+        return out.toByteArray();
+    }
+
+    private static byte[] decryptStream(RsaKeyManager manager, byte[] sealed) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(manager.decrypt(new ByteArrayInputStream(sealed), out), out.size());
+        return out.toByteArray();
+    }
+
+    private static void assertDecryptRejected(RsaKeyManager manager, byte[] sealed, ResultCode expected) {
+        assertEquals(expected.getMessage(), assertThrows(BusinessException.class, () -> manager.decrypt(sealed)).getMessage());
+        assertEquals(expected.getMessage(),
+                assertThrows(BusinessException.class, () -> decryptStream(manager, sealed)).getMessage());
+    }
+
+    private static byte[] flip(byte[] bytes, int position) {
+        final byte[] tampered = bytes.clone();
+        tampered[position] ^= 1;
+        return tampered;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Path resource(String name) throws URISyntaxException {
+        return Paths.get(RsaKeyManagerTest.class.getResource(name).toURI());
+    }
+
+    private static byte[] pem(String type, byte[] der) {
+        final String body = Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der);
+        return ("-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n").getBytes(StandardCharsets.US_ASCII);
+    }
+}
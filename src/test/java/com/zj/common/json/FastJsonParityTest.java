@@ -0,0 +1,147 @@
+package com.zj.common.json;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.zj.common.exception.ResultCode;
+import com.zj.common.file.SplitManifest;
+import com.zj.common.web.result.Result;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link FastJson} 生成的适配器与 Gson 反射适配器的一致性测试，{@link JsonUtil} 处理 {@link Result} 和 {@link SplitManifest}
+ * 时都经过生成的代码，写出的 json 和读取的结果都应当与 {@code new Gson()} 相同
+ *
+ * @author junzhou
+ * @date 2026/10/19 09:20
+ * @since 1.8
+ */
+class FastJsonParityTest {
+
+    private static final Gson REFLECTIVE = new Gson();
+
+    @Test
+    void generatedAdaptersAreInUse() {
+        for (Class<?> type : new Class<?>[]{Result.class, SplitManifest.class, SplitManifest.Chunk.class}) {
+            final String adapter = JsonTypeRegistry.gson().getAdapter(type).getClass().getName();
+            assertTrue(adapter.endsWith("_FastJsonAdapterFactory$Adapter"), adapter);
+        }
+    }
+
+    @Test
+    void rawResult() {
+        assertParity(Result.ok(), Result.class);
+        assertParity(Result.fail(ResultCode.PARAMETER_ERROR), Result.class);
+        assertParity(Result.ok(Arrays.asList(1, "two", null, true)), Result.class);
+        assertParity(Result.fail(5, "带引号的\"消息\"\n", Collections.singletonMap("k", 1.5)), Result.class);
+    }
+
+    @Test
+    void nullMessageAndResult() {
+        final Result<Object> result = new Result<>(7, null, null);
+        assertParity(result, Result.class);
+        assertEquals("{\"code\":7}", JsonUtil.toJSONString(result));
+    }
+
+    @Test
+    void parameterizedResult() {
+        final Type type = new TypeToken<Result<List<Map<String, Object>>>>() {
+        }.getType();
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 10L);
+        row.put("name", "张三");
+        row.put("tags", Arrays.asList("a", "b"));
+        row.put("nested", Collections.singletonMap("x", null));
+        assertParity(Result.ok(Arrays.asList(row, Collections.emptyMap())), type);
+    }
+
+    @Test
+    void resultHoldingSubclassOrLong() {
+        final Dog dog = new Dog();
+        dog.setName("旺财");
+        dog.setLegs(4);
+        assertParity(Result.ok(dog), Result.class);
+        assertParity(Result.ok(dog), new TypeToken<Result<Animal>>() {
+        }.getType());
+        assertParity(Result.ok(Long.MAX_VALUE), Result.class);
+        assertParity(Result.ok(Long.MAX_VALUE), new TypeToken<Result<Long>>() {
+        }.getType());
+        assertTrue(JsonUtil.toJSONString(Result.ok(dog)).contains("\"legs\":4"));
+    }
+
+    @Test
+    void splitManifestWithChunks() {
+        final SplitManifest manifest = new SplitManifest();
+        manifest.setFileName("backup.tar");
+        manifest.setChunkSize(1024);
+        manifest.setFileSize(2500);
+        manifest.setAlgorithm("SHA-256");
+        for (int i = 0; i < 3; i++) {
+            manifest.getChunks().add(new SplitManifest.Chunk(i, i * 1024L, Math.min(1024, 2500 - i * 1024L),
+                    String.format("%064x", i), i == 1 ? null : "backup.tar.part" + i));
+        }
+        assertParity(manifest, SplitManifest.class);
+        assertParity(new SplitManifest(), SplitManifest.class);
+        assertEquals(JsonTypeRegistry.prettyGson().toJson(manifest),
+                new GsonBuilder().setPrettyPrinting().create().toJson(manifest));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"code\":\"5\",\"message\":12,\"result\":null}",
+            "{\"code\":null,\"message\":true}",
+            "{\"code\":5.0,\"message\":null,\"unknown\":{\"a\":[1,2]},\"result\":{\"n\":1}}",
+            "{\"result\":[1,\"x\",{\"y\":null}],\"code\":-3}",
+            "{}",
+            "null"})
+    void lenientResultReads(String json) {
+        assertEquals(REFLECTIVE.fromJson(json, Result.class), JsonUtil.parseObject(json, Result.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"fileName\":\"a\",\"fileSize\":\"10\",\"chunkSize\":null,\"chunks\":[{\"index\":\"1\",\"hash\":7}]}",
+            "{\"chunks\":null}",
+            "{\"chunks\":[null,{}]}"})
+    void lenientManifestReads(String json) {
+        assertEquals(REFLECTIVE.fromJson(json, SplitManifest.class), JsonUtil.parseObject(json, SplitManifest.class));
+    }
+
+    private static void assertParity(Object value, Type type) {
+        final String expected = REFLECTIVE.toJson(value, type);
+        final Gson generated = JsonTypeRegistry.gson();
+        assertEquals(expected, generated.toJson(value, type));
+        if (type instanceof Class) {
+            assertEquals(expected, JsonUtil.toJSONString(value));
+            assertEquals((Object) REFLECTIVE.fromJson(expected, type), JsonUtil.parseObject(expected, (Class<?>) type));
+        }
+        assertEquals((Object) REFLECTIVE.fromJson(expected, type), generated.fromJson(expected, type));
+    }
+
+    @Data
+    static class Animal {
+
+        private String name;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    static class Dog extends Animal {
+
+        private int legs;
+    }
+}
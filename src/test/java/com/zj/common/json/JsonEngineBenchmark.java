@@ -0,0 +1,177 @@
+package com.zj.common.json;
+
+import com.zj.common.exception.ResultCode;
+import com.zj.common.web.result.Result;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较各个 json 引擎在常见对象形态上的吞吐量，运行 main 方法即可，参数为每个用例的测量秒数（默认 2）
+ * <p>
+ * 用例包括：只有错误码的 {@link Result}、包含 100 个用户的 {@code Result<List<UserDto>>}、包含 1000 个分块、形状与分片清单相同的 {@code ManifestDto}，
+ * 每个用例分别测量序列化为字符串、直接写入输出流和从字符串解析。每个用例先预热 1 秒，结果仅供同一台机器上横向比较。
+ *
+ * @author junzhou
+ * @date 2026/10/19 00:40
+ * @since 1.8
+ */
+public class JsonEngineBenchmark {
+
+    private static final long WARM_UP_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 防止 JIT 消除无副作用的调用
+     */
+    private static long sink;
+
+    public static void main(String[] args) {
+        final long measureNanos = TimeUnit.SECONDS.toNanos(args.length > 0 ? Long.parseLong(args[0]) : 2);
+        final List<Object[]> shapes = Arrays.asList(
+                new Object[]{"Result(fail)", Result.fail(ResultCode.PARAMETER_ERROR), Result.class},
+                new Object[]{"Result<List<UserDto>>x100", Result.ok(users(100)), UserPage.class},
+                new Object[]{"Manifest(1000 chunks)", manifest(1000), ManifestDto.class});
+        System.out.printf("%-8s %-28s %-10s %14s %12s%n", "engine", "shape", "op", "ops/s", "ns/op");
+        for (String name : new TreeSet<>(JsonEngines.names())) {
+            final JsonEngine engine = JsonEngines.get(name);
+            for (Object[] shape : shapes) {
+                final Object value = shape[1];
+                final Class<?> type = (Class<?>) shape[2];
+                final String json = JsonUtil.toJSONString(value, engine);
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(json.length() * 2);
+                run(name, (String) shape[0], "toJson", measureNanos, () -> sink += JsonUtil.toJSONString(value, engine).length());
+                run(name, (String) shape[0], "writeTo", measureNanos, () -> {
+                    out.reset();
+                    JsonUtil.writeTo(value, out, engine);
+                    sink += out.size();
+                });
+                run(name, (String) shape[0], "parse", measureNanos, () -> sink += JsonUtil.parseObject(json, type, engine).hashCode());
+            }
+        }
+        System.out.println("sink=" + sink);
+    }
+
+    private static void run(String engine, String shape, String op, long measureNanos, Runnable task) {
+        loop(task, WARM_UP_NANOS);
+        final long[] result = loop(task, measureNanos);
+        System.out.printf("%-8s %-28s %-10s %,14.0f %,12.0f%n", engine, shape, op,
+                result[0] * 1e9 / result[1], (double) result[1] / result[0]);
+    }
+
+    /**
+     * @return {操作次数, 耗时纳秒}
+     */
+    private static long[] loop(Runnable task, long durationNanos) {
+        final long start = System.nanoTime();
+        long count = 0;
+        long elapsed;
+        do {
+            for (int i = 0; i < 64; i++) {
+                task.run();
+            }
+            count += 64;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < durationNanos);
+        return new long[]{count, elapsed};
+    }
+
+    private static List<UserDto> users(int count) {
+        final List<UserDto> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new UserDto(10_000L + i, "user" + i, "user" + i + "@zbus.top", "1380000" + String.format("%04d", i),
+                    i % 3 == 0 ? null : "简介 " + i, Arrays.asList("ROLE_USER", "ROLE_READER"), i % 2 == 0,
+                    1_760_000_000_000L + i * 1000L));
+        }
+        return users;
+    }
+
+    private static ManifestDto manifest(int chunks) {
+        final ManifestDto manifest = new ManifestDto();
+        manifest.setFileName("backup.tar");
+        manifest.setChunkSize(64L * 1024 * 1024);
+        manifest.setFileSize(chunks * manifest.getChunkSize());
+        manifest.setAlgorithm("SHA-256");
+        for (int i = 0; i < chunks; i++) {
+            manifest.getChunks().add(new ChunkDto(i, i * manifest.getChunkSize(), manifest.getChunkSize(),
+                    String.format("%064x", i * 31L + 7), String.format("backup.tar.part%05d", i)));
+        }
+        return manifest;
+    }
+
+    /**
+     * 典型的用户列表接口返回值
+     */
+    @Data
+    @NoArgsConstructor
+    public static class UserPage {
+
+        private int code;
+
+        private String message;
+
+        private List<UserDto> result;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserDto {
+
+        private long id;
+
+        private String username;
+
+        private String email;
+
+        private String phone;
+
+        private String description;
+
+        private List<String> roles;
+
+        private boolean enabled;
+
+        private long createTime;
+    }
+
+    /**
+     * 大文件分片清单，嵌套大量小对象
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ManifestDto {
+
+        private String fileName;
+
+        private long fileSize;
+
+        private long chunkSize;
+
+        private String algorithm;
+
+        private List<ChunkDto> chunks = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkDto {
+
+        private int index;
+
+        private long offset;
+
+        private long length;
+
+        private String hash;
+
+        private String fileName;
+    }
+}